@@ -0,0 +1,70 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import eu.unifiedviews.plugins.transformer.fusiontool.io.AllTriplesDataUnitLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading of input quads from a data unit with paged SPARQL queries and with a single statement cursor.
+ * Run with several graph sizes to check that load time grows linearly with the size of a graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AllTriplesDataUnitLoaderBenchmark {
+    private static final int PROPERTIES_PER_RESOURCE = 5;
+
+    @Param({"10000", "100000", "500000"})
+    public int graphSize;
+
+    @Param({"1", "4"})
+    public int graphCount;
+
+    @Param({"false", "true"})
+    public boolean streamInputGraphs;
+
+    private MockRDFDataUnit input;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SyntheticDataset dataset = new SyntheticDataset(
+                graphCount, graphSize / PROPERTIES_PER_RESOURCE, PROPERTIES_PER_RESOURCE, 0, 0, 0);
+        input = dataset.createInputDataUnit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        input.close();
+    }
+
+    @Benchmark
+    public long loadAllTriples(Blackhole blackhole) throws Exception {
+        AllTriplesDataUnitLoader loader = new AllTriplesDataUnitLoader(input);
+        loader.setUseStatementCursor(streamInputGraphs);
+        try {
+            BlackholeRDFHandler handler = new BlackholeRDFHandler(blackhole);
+            loader.loadAllTriples(handler);
+            return handler.getStatementCount();
+        } finally {
+            loader.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+/**
+ * RDF handler that consumes statements in a JMH blackhole so that loading cannot be optimized away.
+ */
+class BlackholeRDFHandler extends RDFHandlerBase {
+    private final Blackhole blackhole;
+    private long statementCount = 0;
+
+    BlackholeRDFHandler(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void handleStatement(Statement statement) {
+        blackhole.consume(statement);
+        statementCount++;
+    }
+
+    long getStatementCount() {
+        return statementCount;
+    }
+}
@@ -0,0 +1,128 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import cz.cuni.mff.odcleanstore.fusiontool.FusionRunner;
+import eu.unifiedviews.dpu.DPUContext;
+import eu.unifiedviews.plugins.transformer.fusiontool.FusionToolDpuComponentFactory;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainerImpl;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures a complete data fusion run: loading sameAs links and input quads, sorting input,
+ * resolving conflicts and writing the output with metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FusionRunnerBenchmark {
+    private static final int PROPERTIES_PER_RESOURCE = 5;
+
+    @Param({"4"})
+    public int graphCount;
+
+    @Param({"20000"})
+    public int resourceCount;
+
+    @Param({"0.0", "0.3"})
+    public double sameAsDensity;
+
+    @Param({"0.0", "0.3"})
+    public double conflictRate;
+
+    @Param({"1", "4"})
+    public int resolutionParallelism;
+
+    private MockRDFDataUnit input;
+    private MockRDFDataUnit sameAsInput;
+    private MockRDFDataUnit output;
+    private File workingDir;
+    private DPUContext context;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        SyntheticDataset dataset = new SyntheticDataset(
+                graphCount, resourceCount, PROPERTIES_PER_RESOURCE, sameAsDensity, conflictRate, 0);
+        input = dataset.createInputDataUnit();
+        sameAsInput = dataset.createSameAsDataUnit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        input.close();
+        sameAsInput.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws Exception {
+        output = new MockRDFDataUnit();
+        workingDir = Files.createTempDirectory("fusiontool-benchmark").toFile();
+        context = mock(DPUContext.class);
+        when(context.getWorkingDir()).thenReturn(workingDir);
+        when(context.getDpuInstanceDirectory()).thenReturn(workingDir.toURI().toString());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws Exception {
+        output.close();
+        deleteRecursively(workingDir.toPath());
+    }
+
+    @Benchmark
+    public void runFusionTool() throws Exception {
+        ConfigContainerImpl config = new ConfigContainerImpl();
+        config.setWriteMetadata(true);
+        config.setResolutionParallelism(resolutionParallelism);
+
+        FusionToolDpuComponentFactory componentFactory = new FusionToolDpuComponentFactory(
+                config, context, ImmutableList.of(input), sameAsInput, null, output);
+        try {
+            new FusionRunner(componentFactory).runFusionTool();
+        } finally {
+            componentFactory.releaseResources();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriterWithCompactMetadata;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriterWithMetadata;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing of resolved statements to an output data unit with each of the output writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RDFWriterBenchmark {
+    private static final int PROPERTIES_PER_RESOURCE = 5;
+    private static final int SOURCES_PER_STATEMENT = 2;
+
+    @Param({"100000"})
+    public int statementCount;
+
+    @Param({"data", "metadata", "compactMetadata"})
+    public String writer;
+
+    private List<ResolvedStatement> resolvedStatements;
+    private MockRDFDataUnit output;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        SyntheticDataset dataset = new SyntheticDataset(
+                SOURCES_PER_STATEMENT, statementCount / PROPERTIES_PER_RESOURCE, PROPERTIES_PER_RESOURCE, 0, 0, 0);
+        List<Resource> sources = new ArrayList<Resource>(dataset.getGraphs());
+        List<Statement> statements = dataset.getDataStatements().subList(0, statementCount);
+        resolvedStatements = new ArrayList<>(statementCount);
+        for (Statement statement : statements) {
+            resolvedStatements.add(new ResolvedStatementImpl(statement, 0.9, sources));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Exception {
+        output = new MockRDFDataUnit();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws Exception {
+        output.close();
+    }
+
+    @Benchmark
+    public void write() throws Exception {
+        try (CloseableRDFWriter rdfWriter = createWriter()) {
+            for (ResolvedStatement resolvedStatement : resolvedStatements) {
+                rdfWriter.write(resolvedStatement);
+            }
+        }
+    }
+
+    private CloseableRDFWriter createWriter() throws Exception {
+        switch (writer) {
+        case "metadata":
+            return new DataUnitRDFWriterWithMetadata(
+                    output, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME);
+        case "compactMetadata":
+            return new DataUnitRDFWriterWithCompactMetadata(
+                    output, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME,
+                    FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE);
+        default:
+            return new DataUnitRDFWriter(output, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE);
+        }
+    }
+}
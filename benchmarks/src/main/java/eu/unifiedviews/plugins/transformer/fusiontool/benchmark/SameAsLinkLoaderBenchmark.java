@@ -0,0 +1,96 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterable;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterableImpl;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitSameAsLinkLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.CompactUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.MappedUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading of owl:sameAs links from a data unit into each of the URI mapping implementations
+ * followed by a lookup of the canonical URI of every resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SameAsLinkLoaderBenchmark {
+    private static final int GRAPH_COUNT = 4;
+
+    @Param({"100000"})
+    public int resourceCount;
+
+    @Param({"0.1", "0.5"})
+    public double sameAsDensity;
+
+    @Param({"default", "compact", "memoryMapped"})
+    public String uriMapping;
+
+    private MockRDFDataUnit sameAsInput;
+    private File workingDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SyntheticDataset dataset = new SyntheticDataset(GRAPH_COUNT, resourceCount, 1, sameAsDensity, 0, 0);
+        sameAsInput = dataset.createSameAsDataUnit();
+        workingDir = Files.createTempDirectory("fusiontool-benchmark").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sameAsInput.close();
+        workingDir.delete();
+    }
+
+    @Benchmark
+    public int loadSameAsLinks() throws Exception {
+        Set<String> preferredURIs = Collections.emptySet();
+        DataUnitSameAsLinkLoader loader = new DataUnitSameAsLinkLoader(sameAsInput, FTConfigConstants.SAME_AS_LINK_TYPES);
+        switch (uriMapping) {
+        case "compact":
+            CompactUriMapping compactUriMapping = new CompactUriMapping(preferredURIs);
+            loader.loadSameAsLinks(compactUriMapping);
+            return lookUpCanonicalUris(compactUriMapping);
+        case "memoryMapped":
+            try (MappedUriMapping mappedUriMapping = new MappedUriMapping(preferredURIs, workingDir)) {
+                loader.loadSameAsLinks(mappedUriMapping);
+                return lookUpCanonicalUris(mappedUriMapping);
+            }
+        default:
+            UriMappingIterableImpl uriMappingImpl = new UriMappingIterableImpl(preferredURIs);
+            loader.loadSameAsLinks(uriMappingImpl);
+            return lookUpCanonicalUris(uriMappingImpl);
+        }
+    }
+
+    private int lookUpCanonicalUris(UriMappingIterable uriMapping) {
+        int hash = 0;
+        for (String uri : uriMapping) {
+            hash += uriMapping.getCanonicalURI(uri).hashCode();
+        }
+        return hash;
+    }
+}
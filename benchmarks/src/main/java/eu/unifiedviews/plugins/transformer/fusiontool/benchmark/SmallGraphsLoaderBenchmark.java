@@ -0,0 +1,77 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.AllTriplesDataUnitLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading of input made of thousands of small named graphs, where the per-query overhead
+ * (query parsing and evaluation setup) rather than the number of quads dominates load time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SmallGraphsLoaderBenchmark {
+    private static final int PROPERTIES_PER_RESOURCE = 5;
+
+    @Param({"1000", "10000"})
+    public int graphCount;
+
+    @Param({"2"})
+    public int resourcesPerGraph;
+
+    @Param({"false", "true"})
+    public boolean streamInputGraphs;
+
+    @Param({"false", "true"})
+    public boolean groupInputGraphs;
+
+    private MockRDFDataUnit input;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SyntheticDataset dataset = new SyntheticDataset(
+                graphCount, resourcesPerGraph, PROPERTIES_PER_RESOURCE, 0, 0, 0);
+        input = dataset.createInputDataUnit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        input.close();
+    }
+
+    @Benchmark
+    public long loadAllTriples(Blackhole blackhole) throws Exception {
+        AllTriplesDataUnitLoader loader = new AllTriplesDataUnitLoader(input);
+        loader.setUseStatementCursor(streamInputGraphs);
+        if (groupInputGraphs) {
+            loader.setGraphGroupSize(FTConfigConstants.MAX_QUERY_LIST_LENGTH);
+        }
+        try {
+            BlackholeRDFHandler handler = new BlackholeRDFHandler(blackhole);
+            loader.loadAllTriples(handler);
+            return handler.getStatementCount();
+        } finally {
+            loader.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.benchmark;
+
+import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.repository.RepositoryException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic RDF input for benchmarks.
+ * Describes the same set of resources in several named graphs (sources). Each resource has a fixed number of
+ * properties; the first property links to another resource, the others have literal values.
+ * <ul>
+ *     <li>sameAsDensity is the probability that a source describes a resource under its own alias URI
+ *         (linked to the canonical URI by owl:sameAs) instead of the canonical URI</li>
+ *     <li>conflictRate is the probability that a source gives a literal value that differs from other sources</li>
+ * </ul>
+ */
+public class SyntheticDataset {
+    public static final String NAMESPACE = "http://benchmark.example.com/";
+    private static final ValueFactory VF = ValueFactoryImpl.getInstance();
+
+    private final List<URI> graphs;
+    private final List<Statement> dataStatements;
+    private final List<Statement> sameAsLinks;
+
+    /**
+     * Generates a new dataset.
+     * @param graphCount number of named graphs (sources)
+     * @param resourceCount number of distinct (canonical) resources described in each graph
+     * @param propertiesPerResource number of properties of each resource in each graph
+     * @param sameAsDensity probability that a resource is described under an alias URI in a graph
+     * @param conflictRate probability that a literal value in a graph conflicts with other graphs
+     * @param seed random seed
+     */
+    public SyntheticDataset(int graphCount, int resourceCount, int propertiesPerResource,
+            double sameAsDensity, double conflictRate, long seed) {
+        Random random = new Random(seed);
+        List<URI> graphs = new ArrayList<>(graphCount);
+        for (int g = 0; g < graphCount; g++) {
+            graphs.add(VF.createURI(NAMESPACE + "graph/" + g));
+        }
+        List<URI> properties = new ArrayList<>(propertiesPerResource);
+        for (int p = 0; p < propertiesPerResource; p++) {
+            properties.add(VF.createURI(NAMESPACE + "property/" + p));
+        }
+
+        List<Statement> dataStatements = new ArrayList<>(graphCount * resourceCount * propertiesPerResource);
+        List<Statement> sameAsLinks = new ArrayList<>();
+        for (int g = 0; g < graphCount; g++) {
+            URI graph = graphs.get(g);
+            URI[] subjects = new URI[resourceCount];
+            for (int r = 0; r < resourceCount; r++) {
+                if (random.nextDouble() < sameAsDensity) {
+                    subjects[r] = VF.createURI(NAMESPACE + "graph/" + g + "/resource/" + r);
+                    sameAsLinks.add(VF.createStatement(subjects[r], OWL.SAMEAS, getCanonicalResource(r)));
+                } else {
+                    subjects[r] = getCanonicalResource(r);
+                }
+            }
+            for (int r = 0; r < resourceCount; r++) {
+                for (int p = 0; p < propertiesPerResource; p++) {
+                    if (p == 0) {
+                        URI object = subjects[(r + 1) % resourceCount];
+                        dataStatements.add(VF.createStatement(subjects[r], properties.get(p), object, graph));
+                    } else {
+                        String value = "value " + r + "-" + p;
+                        if (random.nextDouble() < conflictRate) {
+                            value += " from source " + g;
+                        }
+                        dataStatements.add(VF.createStatement(subjects[r], properties.get(p), VF.createLiteral(value), graph));
+                    }
+                }
+            }
+        }
+
+        this.graphs = Collections.unmodifiableList(graphs);
+        this.dataStatements = Collections.unmodifiableList(dataStatements);
+        this.sameAsLinks = Collections.unmodifiableList(sameAsLinks);
+    }
+
+    public static URI getCanonicalResource(int index) {
+        return VF.createURI(NAMESPACE + "resource/" + index);
+    }
+
+    public List<URI> getGraphs() {
+        return graphs;
+    }
+
+    public List<Statement> getDataStatements() {
+        return dataStatements;
+    }
+
+    public List<Statement> getSameAsLinks() {
+        return sameAsLinks;
+    }
+
+    /**
+     * Creates an in-memory data unit whose iteration lists exactly the graphs of this dataset.
+     * @return new data unit; should be closed by the caller
+     * @throws RepositoryException error initializing the repository
+     * @throws DataUnitException error registering graphs in the data unit
+     */
+    public MockRDFDataUnit createInputDataUnit() throws RepositoryException, DataUnitException {
+        MockRDFDataUnit dataUnit = new MockRDFDataUnit(dataStatements);
+        dataUnit.setDataGraphURI(graphs.get(0));
+        for (URI graph : graphs.subList(1, graphs.size())) {
+            dataUnit.addExistingDataGraph(graph.stringValue(), graph);
+        }
+        return dataUnit;
+    }
+
+    /**
+     * Creates an in-memory data unit containing owl:sameAs links of this dataset.
+     * @return new data unit; should be closed by the caller
+     * @throws RepositoryException error initializing the repository
+     */
+    public MockRDFDataUnit createSameAsDataUnit() throws RepositoryException {
+        return new MockRDFDataUnit(sameAsLinks);
+    }
+}
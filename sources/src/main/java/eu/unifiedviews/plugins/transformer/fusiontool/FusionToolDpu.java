@@ -10,6 +10,7 @@ import cz.cuni.mff.odcleanstore.fusiontool.util.EnumFusionCounters;
 import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
 import cz.cuni.mff.odcleanstore.fusiontool.util.ProfilingTimeCounter;
 import eu.unifiedviews.dataunit.DataUnit;
+import eu.unifiedviews.dataunit.files.WritableFilesDataUnit;
 import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
 import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
 import eu.unifiedviews.dpu.DPU;
@@ -21,8 +22,12 @@ import eu.unifiedviews.helpers.dpu.config.ConfigurableBase;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainer;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainerImpl;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigReader;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution.ResolutionFunctionProfile;
 import eu.unifiedviews.plugins.transformer.fusiontool.exceptions.FusionToolDpuException;
 import eu.unifiedviews.plugins.transformer.fusiontool.exceptions.InvalidInputException;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LatencyHistogram;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceReport;
 import org.simpleframework.xml.core.PersistenceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -42,6 +48,7 @@ import java.util.Map;
 @DPU.AsTransformer
 public class FusionToolDpu extends ConfigurableBase<FusionToolConfig> implements ConfigDialogProvider<FusionToolConfig> {
     private static final Logger LOG = LoggerFactory.getLogger(FusionToolDpu.class);
+    private static final double NANOS_PER_MILLI = 1e6;
 
     // CHECKSTYLE:OFF
     /**
@@ -78,6 +85,13 @@ public class FusionToolDpu extends ConfigurableBase<FusionToolConfig> implements
     @DataUnit.AsOutput(name = "output", optional = false,
             description = "Fused output data")
     public WritableRDFDataUnit rdfOutput;
+
+    /**
+     * Fused output data written to a file.
+     */
+    @DataUnit.AsOutput(name = "fileOutput", optional = true,
+            description = "Fused output data written to a file instead of the RDF output if fileOutputFormat is set (optional)")
+    public WritableFilesDataUnit fileOutput;
     // CHECKSTYLE:ON
 
     /**
@@ -126,13 +140,25 @@ public class FusionToolDpu extends ConfigurableBase<FusionToolConfig> implements
                     rdfInputs,
                     sameAsInput,
                     metadataInput,
-                    rdfOutput);
-            FusionRunner runner = new FusionRunner(componentFactory);
-            runner.setProfilingOn(configContainer.isProfilingOn());
-            runner.runFusionTool();
-
-            if (configContainer.isProfilingOn()) {
-                printProfilingInformation(componentFactory, runner);
+                    rdfOutput,
+                    fileOutput);
+            try {
+                FusionRunner runner = new FusionRunner(componentFactory);
+                // time counters are always on because they are needed for the performance report
+                runner.setProfilingOn(true);
+                runner.runFusionTool();
+
+                ProfilingTimeCounter<EnumFusionCounters> timeProfiler = runner.getTimeProfiler();
+                timeProfiler.addProfilingTimeCounter(componentFactory.getExecutorTimeProfiler());
+                if (configContainer.isProfilingOn()) {
+                    printProfilingInformation(timeProfiler, componentFactory.getResolutionLatency());
+                }
+                if (componentFactory.getResolutionFunctionProfile() != null) {
+                    printResolutionFunctionProfile(componentFactory.getResolutionFunctionProfile());
+                }
+                writePerformanceReport(componentFactory, timeProfiler, System.currentTimeMillis() - startTime);
+            } finally {
+                componentFactory.releaseResources();
             }
         } catch (ConflictResolutionException | IOException | LDFusionToolException e) {
             handleException(e);
@@ -168,9 +194,19 @@ public class FusionToolDpu extends ConfigurableBase<FusionToolConfig> implements
         throw new FusionToolDpuException(e); // TODO
     }
 
-    private void printProfilingInformation(FusionToolDpuComponentFactory componentFactory, FusionRunner runner) {
-        ProfilingTimeCounter<EnumFusionCounters> timeProfiler = runner.getTimeProfiler();
-        timeProfiler.addProfilingTimeCounter(componentFactory.getExecutorTimeProfiler());
+    private static void writePerformanceReport(FusionToolDpuComponentFactory componentFactory,
+            ProfilingTimeCounter<EnumFusionCounters> timeProfiler, long totalTime) {
+        try {
+            PerformanceReport report = componentFactory.createPerformanceReport(timeProfiler, totalTime);
+            componentFactory.writePerformanceReport(report);
+        } catch (IOException e) {
+            // the report is only informative, do not fail the whole run
+            LOG.error("Error writing performance report: " + e.getMessage(), e);
+        }
+    }
+
+    private static void printProfilingInformation(ProfilingTimeCounter<EnumFusionCounters> timeProfiler,
+            LatencyHistogram resolutionLatency) {
         LOG.info("-- Profiling information --------");
         LOG.info("Initialization time:              " + timeProfiler.formatCounter(EnumFusionCounters.INITIALIZATION));
         LOG.info("Reading metadata & sameAs links:  " + timeProfiler.formatCounter(EnumFusionCounters.META_INITIALIZATION));
@@ -180,6 +216,29 @@ public class FusionToolDpu extends ConfigurableBase<FusionToolConfig> implements
         LOG.info("Buffering time:                   " + timeProfiler.formatCounter(EnumFusionCounters.BUFFERING));
         LOG.info("Conflict resolution time:         " + timeProfiler.formatCounter(EnumFusionCounters.CONFLICT_RESOLUTION));
         LOG.info("Output writing time:              " + timeProfiler.formatCounter(EnumFusionCounters.OUTPUT_WRITING));
+        LOG.info(String.format(Locale.ROOT,
+                "Resolution time per resource:     count %,d, mean %.3f ms, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, "
+                        + "p99.9 %.3f ms, max %.3f ms",
+                resolutionLatency.getCount(),
+                resolutionLatency.getMean() / NANOS_PER_MILLI,
+                resolutionLatency.getPercentile(50) / NANOS_PER_MILLI,
+                resolutionLatency.getPercentile(90) / NANOS_PER_MILLI,
+                resolutionLatency.getPercentile(99) / NANOS_PER_MILLI,
+                resolutionLatency.getPercentile(99.9) / NANOS_PER_MILLI,
+                resolutionLatency.getMax() / NANOS_PER_MILLI));
+    }
+
+    private static void printResolutionFunctionProfile(ResolutionFunctionProfile profile) {
+        LOG.info("-- Most expensive resolution functions --------");
+        for (String line : ResolutionFunctionProfile.formatTopEntries(
+                profile.getFunctionEntries(), FTConfigConstants.RESOLUTION_PROFILE_TOP_COUNT)) {
+            LOG.info(line);
+        }
+        LOG.info("-- Most expensive resolution functions per property --------");
+        for (String line : ResolutionFunctionProfile.formatTopEntries(
+                profile.getEntries(), FTConfigConstants.RESOLUTION_PROFILE_TOP_COUNT)) {
+            LOG.info(line);
+        }
     }
 
 }
@@ -2,6 +2,7 @@ package eu.unifiedviews.plugins.transformer.fusiontool;
 
 import cz.cuni.mff.odcleanstore.conflictresolution.ConflictResolverFactory;
 import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionFunctionRegistry;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionStrategy;
 import cz.cuni.mff.odcleanstore.conflictresolution.impl.ConflictResolutionPolicyImpl;
 import cz.cuni.mff.odcleanstore.conflictresolution.impl.DistanceMeasureImpl;
 import cz.cuni.mff.odcleanstore.conflictresolution.impl.util.EmptyMetadataModel;
@@ -37,32 +38,71 @@ import cz.cuni.mff.odcleanstore.fusiontool.writers.NoOpUriMappingWriter;
 import cz.cuni.mff.odcleanstore.fusiontool.writers.UriMappingWriter;
 import cz.cuni.mff.odcleanstore.vocabulary.ODCSInternal;
 import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.dataunit.files.WritableFilesDataUnit;
 import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
 import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
 import eu.unifiedviews.dpu.DPUContext;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainer;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FileOutput;
+import eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution.CachingSourceQualityCalculator;
+import eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution.IndexedMetadataModel;
+import eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution.ProfilingResolutionFunctionRegistry;
+import eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution.ResolutionFunctionProfile;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.LatencyRecordingConflictResolver;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.ParallelFusionExecutor;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.StatisticsConflictResolver;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.ThreadLocalConflictResolver;
 import eu.unifiedviews.plugins.transformer.fusiontool.io.AllTriplesDataUnitLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.AsyncRDFWriter;
 import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriterWithCompactMetadata;
 import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitRDFWriterWithMetadata;
 import eu.unifiedviews.plugins.transformer.fusiontool.io.DataUnitSameAsLinkLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.FileRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.InputSubjectFilter;
 import eu.unifiedviews.plugins.transformer.fusiontool.io.NoOpRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.ParallelAllTriplesDataUnitLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.StatisticsAllTriplesLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.StatisticsRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.SubjectFilteringAllTriplesLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.SubjectPreFilteringInputLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort.BinarySpillInputLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.AbstractIntUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.CompactUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.MappedUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.HeapUsageSampler;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LatencyHistogram;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MemoryLimitCalculator;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceReport;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceStatistics;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.ProgressReporter;
 import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.model.impl.TreeModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
 import org.openrdf.repository.RepositoryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Fuses RDF data from input using ODCS Conflict Resolution and writes the output to RDF outputs.
@@ -71,7 +111,7 @@ import java.util.Set;
  * @author Jan Michelfeit
  */
 public class FusionToolDpuComponentFactory implements FusionComponentFactory {
-    //private static final Logger LOG = LoggerFactory.getLogger(FusionToolDpuComponentFactory.class);
+    private static final Logger LOG = LoggerFactory.getLogger(FusionToolDpuComponentFactory.class);
 
     private ConfigContainer config;
     private DPUContext executionContext;
@@ -79,8 +119,16 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
     private RDFDataUnit sameAsInput;
     private RDFDataUnit metadataInput;
     private WritableRDFDataUnit rdfOutput;
+    private WritableFilesDataUnit fileOutput;
     private ProfilingTimeCounter<EnumFusionCounters> executorTimeProfiler;
     private MemoryProfiler executorMemoryProfiler;
+    private final PerformanceStatistics statistics = new PerformanceStatistics();
+    private final LatencyHistogram resolutionLatency = new LatencyHistogram();
+    private BinarySpillInputLoader binarySpillInputLoader;
+    private final ProgressReporter progressReporter;
+    private final HeapUsageSampler heapUsageSampler;
+    private final ResolutionFunctionProfile resolutionFunctionProfile;
+    private final List<Closeable> ownedResources = new ArrayList<>();
 
     /**
      * Creates a new instance.
@@ -94,18 +142,52 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
     public FusionToolDpuComponentFactory(
             ConfigContainer config, DPUContext executionContext, List<? extends RDFDataUnit> rdfInputs,
             RDFDataUnit sameAsInput, RDFDataUnit metadataInput, WritableRDFDataUnit rdfOutput) {
+        this(config, executionContext, rdfInputs, sameAsInput, metadataInput, rdfOutput, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param config configuration
+     * @param executionContext execution context
+     * @param rdfInputs RDF input data
+     * @param sameAsInput input owl:sameAs links
+     * @param metadataInput input metadata
+     * @param rdfOutput RDF output data
+     * @param fileOutput output files data unit used if output to a file is configured; may be null
+     */
+    public FusionToolDpuComponentFactory(
+            ConfigContainer config, DPUContext executionContext, List<? extends RDFDataUnit> rdfInputs,
+            RDFDataUnit sameAsInput, RDFDataUnit metadataInput, WritableRDFDataUnit rdfOutput,
+            WritableFilesDataUnit fileOutput) {
         this.config = config;
         this.executionContext = executionContext;
         this.rdfInputs = rdfInputs;
         this.sameAsInput = sameAsInput;
         this.metadataInput = metadataInput;
         this.rdfOutput = rdfOutput;
-        this.executorTimeProfiler = ProfilingTimeCounter.createInstance(EnumFusionCounters.class, config.isProfilingOn());
+        this.fileOutput = fileOutput;
+        // time counters are always on because they are needed for the performance report
+        this.executorTimeProfiler = ProfilingTimeCounter.createInstance(EnumFusionCounters.class, true);
         this.executorMemoryProfiler = MemoryProfiler.createInstance(config.isProfilingOn());
+        this.progressReporter = new ProgressReporter(executionContext, config.getProgressReportInterval() * 1000L);
+        ownedResources.add(progressReporter);
+        this.heapUsageSampler = new HeapUsageSampler(FTConfigConstants.HEAP_SAMPLING_INTERVAL);
+        ownedResources.add(heapUsageSampler);
+        this.resolutionFunctionProfile = config.getProfileResolutionFunctions() ? new ResolutionFunctionProfile() : null;
     }
 
     @Override
     public FusionExecutor getExecutor(UriMappingIterable uriMapping) {
+        if (config.getResolutionParallelism() > 1) {
+            ParallelFusionExecutor executor = new ParallelFusionExecutor(
+                    config.getResolutionParallelism(),
+                    config.getMaxOutputTriples(),
+                    getInputFilter(uriMapping),
+                    config.getPreserveOutputOrder(),
+                    executorTimeProfiler);
+            executor.setIsCanceledCallback(new DPUContextIsCanceledCallback(executionContext));
+            return executor;
+        }
         LDFusionToolExecutor executor = new LDFusionToolExecutor(
                 true,
                 config.getMaxOutputTriples(),
@@ -123,13 +205,121 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
             throw new IllegalStateException("Non-local copy processing is not supported in DPU");
         }
         long memoryLimit = calculateMemoryLimit();
-        Collection<AllTriplesLoader> allTriplesLoaders = getAllTriplesLoaders(rdfInputs);
-        return new ExternalSortingInputLoader(
-                allTriplesLoaders,
-                LDFusionToolUtils.getResourceDescriptionProperties(config),
-                executionContext.getWorkingDir(),
-                config.getParserConfig(),
-                memoryLimit);
+        ProgressReporter.Stage progressStage = progressReporter.createStage("Loading input quads", "quads");
+        progressReporter.estimateExpectedItems(progressStage, new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                return countInputQuads();
+            }
+        });
+        Collection<AllTriplesLoader> allTriplesLoaders = recordStatistics(getAllTriplesLoaders(rdfInputs, memoryLimit), progressStage);
+        InputSubjectFilter subjectFilter = null;
+        if (isInputFilteredWhileLoading()) {
+            subjectFilter = new InputSubjectFilter();
+            allTriplesLoaders = filterAllTriplesLoaders(allTriplesLoaders, subjectFilter);
+        }
+
+        InputLoader inputLoader;
+        if (config.getBinarySpill()) {
+            binarySpillInputLoader = new BinarySpillInputLoader(
+                    allTriplesLoaders,
+                    LDFusionToolUtils.getResourceDescriptionProperties(config),
+                    executionContext.getWorkingDir(),
+                    memoryLimit,
+                    config.getCompressSpill());
+            ResolutionStrategy defaultStrategy = config.getDefaultResolutionStrategy();
+            if (config.getRequiredClassOfProcessedResources() == null
+                    && (defaultStrategy == null || defaultStrategy.getDependsOn() == null)) {
+                // parts of a split description wouldn't have rdf:type needed by the required class filter,
+                // and a default dependsOn ties all properties together so there is nothing to split by
+                binarySpillInputLoader.setHubSplitThreshold(config.getHubSplitThreshold());
+                binarySpillInputLoader.setDependentProperties(getDependentProperties());
+            }
+            inputLoader = binarySpillInputLoader;
+        } else {
+            inputLoader = new ExternalSortingInputLoader(
+                    allTriplesLoaders,
+                    LDFusionToolUtils.getResourceDescriptionProperties(config),
+                    executionContext.getWorkingDir(),
+                    config.getParserConfig(),
+                    memoryLimit);
+        }
+
+        if (subjectFilter != null) {
+            return new SubjectPreFilteringInputLoader(
+                    inputLoader,
+                    subjectFilter,
+                    rdfInputs,
+                    LDFusionToolUtils.getResourceDescriptionProperties(config),
+                    config.getRequiredClassOfProcessedResources(),
+                    config.getOutputMappedSubjectsOnly());
+        }
+        return inputLoader;
+    }
+
+    /**
+     * Returns properties on either end of a dependsOn relation of property resolution strategies.
+     */
+    private Set<URI> getDependentProperties() {
+        Set<URI> dependentProperties = new HashSet<>();
+        for (Map.Entry<URI, ResolutionStrategy> entry : config.getPropertyResolutionStrategies().entrySet()) {
+            if (entry.getValue().getDependsOn() != null) {
+                dependentProperties.add(entry.getKey());
+                dependentProperties.add(entry.getValue().getDependsOn());
+            }
+        }
+        return dependentProperties;
+    }
+
+    private boolean isInputFilteredWhileLoading() {
+        return config.getFilterInputWhileLoading()
+                && (config.getRequiredClassOfProcessedResources() != null || config.getOutputMappedSubjectsOnly());
+    }
+
+    private Collection<AllTriplesLoader> recordStatistics(Collection<AllTriplesLoader> allTriplesLoaders,
+            ProgressReporter.Stage progressStage) {
+        List<AllTriplesLoader> result = new ArrayList<>(allTriplesLoaders.size());
+        for (AllTriplesLoader loader : allTriplesLoaders) {
+            result.add(new StatisticsAllTriplesLoader(loader, statistics, progressStage));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of quads in all input graphs, used as the expected number of loaded quads.
+     */
+    private long countInputQuads() throws RepositoryException, DataUnitException {
+        long count = 0;
+        for (RDFDataUnit rdfInput : rdfInputs) {
+            List<Resource> graphs = new ArrayList<>();
+            RDFDataUnit.Iteration iteration = rdfInput.getIteration();
+            try {
+                while (iteration.hasNext()) {
+                    graphs.add(iteration.next().getDataGraphURI());
+                }
+            } finally {
+                iteration.close();
+            }
+            if (graphs.isEmpty()) {
+                continue;
+            }
+            RepositoryConnection connection = rdfInput.getConnection();
+            try {
+                count += connection.size(graphs.toArray(new Resource[graphs.size()]));
+            } finally {
+                connection.close();
+            }
+        }
+        return count;
+    }
+
+    private static Collection<AllTriplesLoader> filterAllTriplesLoaders(
+            Collection<AllTriplesLoader> allTriplesLoaders, InputSubjectFilter subjectFilter) {
+        List<AllTriplesLoader> result = new ArrayList<>(allTriplesLoaders.size());
+        for (AllTriplesLoader loader : allTriplesLoaders) {
+            result.add(new SubjectFilteringAllTriplesLoader(loader, subjectFilter));
+        }
+        return result;
     }
 
     protected ResourceDescriptionFilter getInputFilter(UriMappingIterable uriMapping) {
@@ -144,11 +334,43 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
         return FederatedResourceDescriptionFilter.fromList(inputFilters);
     }
 
-    protected Collection<AllTriplesLoader> getAllTriplesLoaders(List<? extends RDFDataUnit> rdfInputs) throws LDFusionToolException {
+    protected Collection<AllTriplesLoader> getAllTriplesLoaders(List<? extends RDFDataUnit> rdfInputs, long memoryLimit)
+            throws LDFusionToolException {
+        if (config.getLoadingParallelism() > 1) {
+            try {
+                ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(
+                        rdfInputs, config.getLoadingParallelism(), FTConfigConstants.LOADING_QUEUE_CAPACITY);
+                loader.setUseStatementCursor(config.getStreamInputGraphs());
+                if (config.getLoadPageSize() > 0) {
+                    loader.setMaxSparqlResultsSize(config.getLoadPageSize());
+                }
+                if (config.getAdaptiveLoadPageSize()) {
+                    loader.setAdaptivePageSize(config.getMinLoadPageSize(), config.getMaxLoadPageSize());
+                    // the sorter buffer fills up to memoryLimit by design, it is not memory pressure
+                    loader.setReservedMemory(memoryLimit);
+                }
+                return Collections.<AllTriplesLoader>singletonList(loader);
+            } catch (DataUnitException e) {
+                throw new LDFusionToolException("Error creating triple loader from RDF data unit: " + e.getMessage(), e);
+            }
+        }
         List<AllTriplesLoader> loaders = new ArrayList<>(rdfInputs.size());
         for (RDFDataUnit rdfInput : rdfInputs) {
             try {
                 AllTriplesDataUnitLoader loader = new AllTriplesDataUnitLoader(rdfInput);
+                loader.setUseStatementCursor(config.getStreamInputGraphs());
+                loader.setPrefetchBatches(config.getPrefetchBatches());
+                if (config.getLoadPageSize() > 0) {
+                    loader.setMaxSparqlResultsSize(config.getLoadPageSize());
+                }
+                if (config.getAdaptiveLoadPageSize()) {
+                    loader.setAdaptivePageSize(config.getMinLoadPageSize(), config.getMaxLoadPageSize());
+                    // the sorter buffer fills up to memoryLimit by design, it is not memory pressure
+                    loader.setReservedMemory(memoryLimit);
+                }
+                if (config.getGroupInputGraphs()) {
+                    loader.setGraphGroupSize(FTConfigConstants.MAX_QUERY_LIST_LENGTH);
+                }
                 loaders.add(loader);
             } catch (DataUnitException e) {
                 // clean up already initialized loaders
@@ -166,6 +388,9 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
         if (metadataInput == null) {
             return new EmptyMetadataModel();
         }
+        if (config.getIndexedMetadata()) {
+            return getIndexedMetadata();
+        }
         Model metadata = new TreeModel();
         RepositoryResult<Statement> metadataResult;
         try (CloseableRepositoryConnection connection = new CloseableRepositoryConnection(metadataInput.getConnection())) {
@@ -179,13 +404,51 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
         }
     }
 
+    private Model getIndexedMetadata() throws LDFusionToolException {
+        IndexedMetadataModel.Builder builder = new IndexedMetadataModel.Builder();
+        try (CloseableRepositoryConnection connection = new CloseableRepositoryConnection(metadataInput.getConnection())) {
+            for (URI predicate : FTConfigConstants.SOURCE_QUALITY_METADATA_PREDICATES) {
+                RepositoryResult<Statement> metadataResult = connection.get().getStatements(null, predicate, null, false);
+                try {
+                    while (metadataResult.hasNext()) {
+                        builder.add(metadataResult.next());
+                    }
+                } finally {
+                    metadataResult.close();
+                }
+            }
+        } catch (RepositoryException | DataUnitException e) {
+            throw new LDFusionToolException("Error when loading metadata from input", e);
+        }
+        IndexedMetadataModel metadata = builder.build();
+        LOG.info("Loaded {} metadata statements relevant for source quality", metadata.size());
+        return metadata;
+    }
+
     @Override
     public UriMappingIterable getUriMapping() throws LDFusionToolException, IOException {
         // FIXME: preference of prefixes from configuration
         Set<String> preferredURIs = getPreferredURIs();
+        if (config.getMemoryMappedUriMapping()) {
+            MappedUriMapping uriMapping = new MappedUriMapping(preferredURIs, executionContext.getWorkingDir());
+            ownedResources.add(uriMapping);
+            return loadSameAsLinks(uriMapping);
+        } else if (config.getCompactUriMapping()) {
+            return loadSameAsLinks(new CompactUriMapping(preferredURIs));
+        }
         UriMappingIterableImpl uriMapping = new UriMappingIterableImpl(preferredURIs);
         if (sameAsInput != null) {
             DataUnitSameAsLinkLoader sameAsLoader = new DataUnitSameAsLinkLoader(sameAsInput, config.getSameAsLinkTypes());
+            sameAsLoader.setProgressStage(progressReporter.createStage("Loading owl:sameAs links", "links"));
+            sameAsLoader.loadSameAsLinks(uriMapping);
+        }
+        return uriMapping;
+    }
+
+    private UriMappingIterable loadSameAsLinks(AbstractIntUriMapping uriMapping) throws LDFusionToolException {
+        if (sameAsInput != null) {
+            DataUnitSameAsLinkLoader sameAsLoader = new DataUnitSameAsLinkLoader(sameAsInput, config.getSameAsLinkTypes());
+            sameAsLoader.setProgressStage(progressReporter.createStage("Loading owl:sameAs links", "links"));
             sameAsLoader.loadSameAsLinks(uriMapping);
         }
         return uriMapping;
@@ -216,33 +479,84 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
 
     @Override
     public CloseableRDFWriter getRDFWriter() throws IOException, LDFusionToolException {
+        CloseableRDFWriter rdfWriter = new StatisticsRDFWriter(createRDFWriter(), statistics);
+        if (config.getAsyncOutput()) {
+            return new AsyncRDFWriter(rdfWriter, FTConfigConstants.ASYNC_OUTPUT_QUEUE_CAPACITY, FTConfigConstants.ASYNC_OUTPUT_BATCH_SIZE);
+        }
+        return rdfWriter;
+    }
+
+    private CloseableRDFWriter createRDFWriter() throws IOException, LDFusionToolException {
+        if (config.getFileOutput() != null) {
+            return getFileRDFWriter(config.getFileOutput());
+        }
         try {
             if (rdfOutput == null) {
                 return new NoOpRDFWriter();
+            } else if (config.getWriteMetadata() && config.getCompactMetadata()) {
+                return new DataUnitRDFWriterWithCompactMetadata(
+                        rdfOutput,
+                        config.getDataGraphSymbolicName(),
+                        config.getMetadataGraphSymbolicName(),
+                        config.getWriteBatchSize());
             } else if (config.getWriteMetadata()) {
                 return new DataUnitRDFWriterWithMetadata(rdfOutput, config.getDataGraphSymbolicName(), config.getMetadataGraphSymbolicName());
             } else {
-                return new DataUnitRDFWriter(rdfOutput, config.getDataGraphSymbolicName());
+                return new DataUnitRDFWriter(rdfOutput, config.getDataGraphSymbolicName(), config.getWriteBatchSize());
             }
         } catch (DataUnitException e) {
             throw new LDFusionToolException("Error creating output writer", e);
         }
     }
 
+    private CloseableRDFWriter getFileRDFWriter(FileOutput fileOutputSettings) throws IOException, LDFusionToolException {
+        if (fileOutput == null) {
+            throw new LDFusionToolException("Output to a file is configured but the file output data unit is not connected");
+        }
+        File file;
+        try {
+            String fileUri = fileOutput.addNewFile(fileOutputSettings.getPath().getName());
+            file = new File(new java.net.URI(fileUri));
+        } catch (DataUnitException | URISyntaxException e) {
+            throw new LDFusionToolException("Error creating output file", e);
+        }
+        if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Cannot create directory for output file " + file);
+        }
+        return FileRDFWriter.create(file, fileOutputSettings, config.getWriteMetadata());
+    }
+
     @Override
-    public ResourceDescriptionConflictResolver getConflictResolver(Model metadata, UriMappingIterable uriMapping) {
+    public ResourceDescriptionConflictResolver getConflictResolver(final Model metadata, final UriMappingIterable uriMapping) {
+        final SourceQualityCalculator sourceQualityCalculator = new CachingSourceQualityCalculator(
+                new ODCSSourceQualityCalculator(config.getScoreIfUnknown(), config.getPublisherScoreWeight()),
+                metadata);
+        final ProgressReporter.Stage progressStage = progressReporter.createStage("Resolving conflicts", "resources");
+        if (config.getResolutionParallelism() > 1) {
+            return new ThreadLocalConflictResolver(new ThreadLocalConflictResolver.ResolverProvider() {
+                @Override
+                public ResourceDescriptionConflictResolver createResolver() {
+                    return createConflictResolver(metadata, uriMapping, sourceQualityCalculator, progressStage);
+                }
+            });
+        }
+        return createConflictResolver(metadata, uriMapping, sourceQualityCalculator, progressStage);
+    }
+
+    private ResourceDescriptionConflictResolver createConflictResolver(Model metadata, UriMappingIterable uriMapping,
+            SourceQualityCalculator sourceQualityCalculator, ProgressReporter.Stage progressStage) {
         DistanceMeasureImpl distanceMeasure = new DistanceMeasureImpl();
-        SourceQualityCalculator sourceQualityCalculator = new ODCSSourceQualityCalculator(
-                config.getScoreIfUnknown(),
-                config.getPublisherScoreWeight());
         ResolutionFunctionRegistry registry = ConflictResolverFactory.createInitializedResolutionFunctionRegistry(
                 sourceQualityCalculator,
                 config.getAgreeCoefficient(),
                 distanceMeasure);
+        if (resolutionFunctionProfile != null) {
+            registry = new ProfilingResolutionFunctionRegistry(registry, resolutionFunctionProfile);
+        }
         NestedResourceDescriptionQualityCalculatorImpl nestedResourceDescriptionQualityCalculator = new NestedResourceDescriptionQualityCalculatorImpl(
                 new DecidingConflictFQualityCalculator(sourceQualityCalculator, config.getAgreeCoefficient(), distanceMeasure));
 
-        return new ResourceDescriptionConflictResolverImpl(
+        ResourceDescriptionConflictResolver conflictResolver = new ResourceDescriptionConflictResolverImpl(
                 registry,
                 new ConflictResolutionPolicyImpl(config.getDefaultResolutionStrategy(), config.getPropertyResolutionStrategies()),
                 uriMapping,
@@ -250,6 +564,9 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
                 config.getResultDataURIPrefix() + ODCSInternal.QUERY_RESULT_GRAPH_URI_INFIX + "/",
                 nestedResourceDescriptionQualityCalculator
         );
+        conflictResolver = new LatencyRecordingConflictResolver(
+                conflictResolver, resolutionLatency, config.getSlowResourceDescriptionThreshold() * 1000000L);
+        return new StatisticsConflictResolver(conflictResolver, statistics, progressStage);
     }
 
     @Override
@@ -269,10 +586,81 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
         return new NoOpUriMappingWriter();
     }
 
+    /**
+     * Releases resources created by this factory which outlive the components returned by it
+     * (e.g. memory-mapped files of the URI mapping). Should be called when data fusion is finished.
+     */
+    public void releaseResources() {
+        for (Closeable resource : ownedResources) {
+            try {
+                resource.close();
+            } catch (IOException e) {
+                LOG.error("Error releasing resource: " + e.getMessage(), e);
+            }
+        }
+        ownedResources.clear();
+    }
+
     public ProfilingTimeCounter<EnumFusionCounters> getExecutorTimeProfiler() {
         return executorTimeProfiler;
     }
 
+    /**
+     * Returns the histogram of resolution times (in nanoseconds) of resource descriptions resolved by conflict resolvers
+     * created by this factory.
+     * @return resolution time histogram
+     */
+    public LatencyHistogram getResolutionLatency() {
+        return resolutionLatency;
+    }
+
+    /**
+     * Returns cost statistics of resolution functions used by conflict resolvers created by this factory.
+     * @return resolution function profile or null if profiling of resolution functions is disabled
+     */
+    public ResolutionFunctionProfile getResolutionFunctionProfile() {
+        return resolutionFunctionProfile;
+    }
+
+    /**
+     * Creates the performance report of the run from statistics collected by components created by this factory.
+     * @param timeProfiler time counters of the run including counters of the executor
+     * @param totalTime wall time of the whole run in milliseconds
+     * @return performance report
+     */
+    public PerformanceReport createPerformanceReport(ProfilingTimeCounter<EnumFusionCounters> timeProfiler, long totalTime) {
+        Map<String, Long> stageTimes = new LinkedHashMap<>();
+        for (EnumFusionCounters counter : EnumFusionCounters.values()) {
+            stageTimes.put(counter.name(), timeProfiler.getCounter(counter));
+        }
+        Long spilledBytes = binarySpillInputLoader != null ? binarySpillInputLoader.getSpilledBytes() : null;
+        return new PerformanceReport(System.currentTimeMillis(), totalTime, stageTimes, statistics, spilledBytes,
+                heapUsageSampler.getPeakHeapUsage());
+    }
+
+    /**
+     * Writes the performance report as JSON to the working directory and, if configured, as RDF to
+     * a dedicated graph of the RDF output.
+     * @param report performance report
+     * @throws IOException error writing the report
+     */
+    public void writePerformanceReport(PerformanceReport report) throws IOException {
+        File reportFile = new File(executionContext.getWorkingDir(), FTConfigConstants.PERFORMANCE_REPORT_FILE_NAME);
+        report.writeJson(reportFile);
+        LOG.info("Performance report written to {}", reportFile);
+        if (config.getWritePerformanceReport() && rdfOutput != null) {
+            try (CloseableRDFWriter writer = new DataUnitRDFWriter(rdfOutput, FTConfigConstants.PERFORMANCE_REPORT_GRAPH_NAME)) {
+                URI reportUri = ValueFactoryImpl.getInstance().createURI(
+                        config.getResultDataURIPrefix() + "performanceReport/" + System.currentTimeMillis());
+                for (Statement statement : report.toStatements(reportUri)) {
+                    writer.write(statement);
+                }
+            } catch (DataUnitException e) {
+                throw new IOException("Error writing performance report to output", e);
+            }
+        }
+    }
+
     private File getCanonicalUrisFile() throws IOException {
         // FIXME: use file DPU
         try {
@@ -284,8 +672,6 @@ public class FusionToolDpuComponentFactory implements FusionComponentFactory {
     }
 
     private long calculateMemoryLimit() {
-        return config.getMemoryLimit() != null
-                ? config.getMemoryLimit()
-                : FTConfigConstants.MAX_MEMORY_LIMIT;
+        return MemoryLimitCalculator.calculateMemoryLimit(config.getMemoryLimit(), config.getMaxFreeMemoryUsage());
     }
 }
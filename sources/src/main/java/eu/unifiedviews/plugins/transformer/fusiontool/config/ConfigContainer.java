@@ -19,7 +19,8 @@ public interface ConfigContainer extends ConfigData, ConfigProcessing, ConfigQua
 
     /**
      * True iff the output should contain metadata (quality and source graphs of resolved triples).
-     * Note that when metadata are enabled, each resolved triple will be placed to its own named graph.
+     * Note that when metadata are enabled, each resolved triple will be placed to its own named graph
+     * (unless {@link #getCompactMetadata()} is enabled).
      * If metadata are disabled, all resolved triples will be placed in the default graph of output data unit.
      * @return true if the output should contain metadata, false if no metadata are written to the output.
      */
@@ -38,4 +39,192 @@ public interface ConfigContainer extends ConfigData, ConfigProcessing, ConfigQua
      * @see eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit#addNewDataGraph(String)
      */
     String getMetadataGraphSymbolicName();
+
+    /**
+     * True iff each input graph should be read in a single pass using a statement cursor
+     * ({@link org.openrdf.repository.RepositoryConnection#getStatements}) instead of paged
+     * SPARQL queries with LIMIT/OFFSET. Paging makes the store skip all previously read rows
+     * for every page which is quadratic in graph size.
+     * @return true if input graphs should be read with a statement cursor
+     */
+    boolean getStreamInputGraphs();
+
+    /**
+     * Number of input graphs loaded in parallel, each with its own connection to the input data unit.
+     * Values greater than 1 enable parallel loading of graphs from all inputs; loaded quads
+     * are processed in a single thread.
+     * @return number of input graphs loaded in parallel
+     */
+    int getLoadingParallelism();
+
+    /**
+     * Number of output statements buffered and written to the output data unit in a single transaction.
+     * Value 1 means that each statement is written (and committed) immediately.
+     * @return number of output statements written in a single transaction
+     */
+    int getWriteBatchSize();
+
+    /**
+     * True iff resolved triples with the same quality and the same set of source graphs should be placed
+     * to a single shared named graph when metadata are written (see {@link #getWriteMetadata()}).
+     * Metadata are then written only once for each such named graph.
+     * @return true if metadata should be written in the compact form
+     */
+    boolean getCompactMetadata();
+
+    /**
+     * True iff owl:sameAs links should be kept in a compact URI mapping which interns URIs to integer IDs
+     * and keeps the disjoint-find-union structure in primitive arrays.
+     * This significantly reduces memory used by the mapping when there are many links.
+     * @return true if the compact URI mapping should be used
+     */
+    boolean getCompactUriMapping();
+
+    /**
+     * True iff owl:sameAs links should be kept in a URI mapping whose URI dictionary and disjoint-find-union
+     * structure are stored in memory-mapped files in the DPU working directory.
+     * This allows processing of link closures which don't fit in the heap; takes precedence over {@link #getCompactUriMapping()}.
+     * @return true if the memory-mapped URI mapping should be used
+     */
+    boolean getMemoryMappedUriMapping();
+
+    /**
+     * True iff input quads should be grouped to resource descriptions by external sorting with temporary files
+     * in a compact binary format with dictionary-encoded terms instead of text quads.
+     * @return true if the binary format of temporary files should be used
+     */
+    boolean getBinarySpill();
+
+    /**
+     * True iff blocks of binary temporary files (see {@link #getBinarySpill()}) should be Deflate-compressed.
+     * Compression trades CPU time for less disk space and I/O in the working directory.
+     * @return true if temporary files should be compressed
+     */
+    boolean getCompressSpill();
+
+    /**
+     * Number of worker threads which resolve conflicts in resource descriptions in parallel.
+     * Value 1 means that resource descriptions are resolved one at a time on the executing thread.
+     * @return number of conflict resolution threads
+     */
+    int getResolutionParallelism();
+
+    /**
+     * True iff results of parallel conflict resolution (see {@link #getResolutionParallelism()}) should be written
+     * in the order of input resource descriptions, i.e. the output is the same as with sequential resolution.
+     * If false, results are written as soon as they are resolved, which avoids waiting for slow resource descriptions.
+     * @return true if the order of output should be deterministic
+     */
+    boolean getPreserveOutputOrder();
+
+    /**
+     * Settings of output to a file. If not null, the output is streamed to a file in the output files data unit
+     * instead of being inserted to the output RDF data unit, which is much cheaper for large outputs.
+     * @return file output settings or null if output should be written to the output RDF data unit
+     */
+    FileOutput getFileOutput();
+
+    /**
+     * True iff output statements should be handed over to a dedicated writer thread through a bounded queue,
+     * so that writing to the output overlaps with conflict resolution instead of stalling it.
+     * Errors of the writer thread are reported to the resolving thread on the next write or on close.
+     * @return true if output should be written asynchronously
+     */
+    boolean getAsyncOutput();
+
+    /**
+     * Maximum number of input quad batches read from the input data unit by a background thread
+     * while previously read quads are being sorted, so that reading from the store overlaps with processing.
+     * Value 0 means that input quads are read on the processing thread.
+     * Applies only when input graphs are loaded sequentially.
+     * @return number of prefetched quad batches
+     */
+    int getPrefetchBatches();
+
+    /**
+     * True iff quads of up to {@link FTConfigConstants#MAX_QUERY_LIST_LENGTH} input graphs should be read with
+     * a single query instead of separate queries for each graph.
+     * This reduces per-query overhead for inputs made of many small named graphs.
+     * @return true if input graphs should be grouped
+     */
+    boolean getGroupInputGraphs();
+
+    /**
+     * Number of quads requested by a single paged SPARQL query (LIMIT) when loading input graphs.
+     * If adaptive page size is enabled, this is the page size of the first query.
+     * @return page size of load queries
+     */
+    int getLoadPageSize();
+
+    /**
+     * True iff the page size of load queries should grow while the time per loaded quad improves
+     * and shrink after interrupted (timed out) queries or when memory is low,
+     * within bounds given by {@link #getMinLoadPageSize()} and {@link #getMaxLoadPageSize()}.
+     * @return true if the page size of load queries is adaptive
+     */
+    boolean getAdaptiveLoadPageSize();
+
+    /**
+     * Minimum page size of load queries if the page size is adaptive.
+     * @return minimum page size of load queries
+     */
+    int getMinLoadPageSize();
+
+    /**
+     * Maximum page size of load queries if the page size is adaptive.
+     * @return maximum page size of load queries
+     */
+    int getMaxLoadPageSize();
+
+    /**
+     * True iff resources whose descriptions can pass input filters (e.g. resources of the class given by
+     * {@link #getRequiredClassOfProcessedResources()} or mapped resources if {@link #getOutputMappedSubjectsOnly()})
+     * should be collected before loading, so that quads of other resources are dropped before sorting instead of
+     * after resource descriptions are built.
+     * @return true if input should be filtered while loading
+     */
+    boolean getFilterInputWhileLoading();
+
+    /**
+     * True iff only input metadata used for computing source quality (scores and publishers of source graphs)
+     * should be loaded, into a compact read-only index, instead of copying all metadata to memory.
+     * @return true if metadata should be indexed
+     */
+    boolean getIndexedMetadata();
+
+    /**
+     * True iff the performance report of the run should also be written as RDF to a dedicated named graph
+     * of the RDF output (the JSON report in the working directory is written always).
+     * @return true if the performance report should be written to the RDF output
+     */
+    boolean getWritePerformanceReport();
+
+    /**
+     * Interval in seconds between progress messages (stage, processed items, rate and estimated remaining time)
+     * sent through the DPU context during execution; 0 disables progress messages.
+     * @return progress report interval in seconds
+     */
+    int getProgressReportInterval();
+
+    /**
+     * True iff calls of resolution functions should be profiled (call count, latency percentiles and number
+     * of input statements per resolution function and property) and the most expensive ones logged at the end of the run.
+     * @return true if resolution functions should be profiled
+     */
+    boolean getProfileResolutionFunctions();
+
+    /**
+     * Resolution time in milliseconds above which a resource description is logged together with its canonical URI,
+     * number of quads and number of source graphs; 0 disables logging of slow resource descriptions.
+     * @return threshold of slow resource description resolution in milliseconds
+     */
+    int getSlowResourceDescriptionThreshold();
+
+    /**
+     * Number of quads above which a resource description is split and resolved one property at a time,
+     * so that descriptions of hub resources are not held in memory as a whole; 0 disables splitting.
+     * Applies only to binary temporary files (see {@link #getBinarySpill()}) and when resources are not filtered by class.
+     * @return hub split threshold in quads
+     */
+    int getHubSplitThreshold();
 }
\ No newline at end of file
@@ -22,10 +22,38 @@ public class ConfigContainerImpl implements ConfigContainer {
 
     private boolean isProfilingOn = false;
     private Long memoryLimit = null;
+    private float maxFreeMemoryUsage = FTConfigConstants.MAX_FREE_MEMORY_USAGE;
     private URI requiredClassOfProcessedResources = null;
+    private boolean outputMappedSubjectsOnly = FTConfigConstants.DEFAULT_OUTPUT_MAPPED_SUBJECTS_ONLY;
     private ParserConfig parserConfig = FTConfigConstants.DEFAULT_FILE_PARSER_CONFIG;
     private String dataGraphSymbolicName = FTConfigConstants.DEFAULT_DATA_GRAPH_NAME;
     private String metadataGraphSymbolicName = FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME;
+    private boolean streamInputGraphs = FTConfigConstants.DEFAULT_STREAM_INPUT_GRAPHS;
+    private int loadingParallelism = FTConfigConstants.DEFAULT_LOADING_PARALLELISM;
+    private int writeBatchSize = FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE;
+    private boolean writeMetadata = FTConfigConstants.WRITE_METADATA;
+    private boolean compactMetadata = FTConfigConstants.DEFAULT_COMPACT_METADATA;
+    private boolean compactUriMapping = FTConfigConstants.DEFAULT_COMPACT_URI_MAPPING;
+    private boolean memoryMappedUriMapping = FTConfigConstants.DEFAULT_MEMORY_MAPPED_URI_MAPPING;
+    private boolean binarySpill = FTConfigConstants.DEFAULT_BINARY_SPILL;
+    private boolean compressSpill = FTConfigConstants.DEFAULT_COMPRESS_SPILL;
+    private int resolutionParallelism = FTConfigConstants.DEFAULT_RESOLUTION_PARALLELISM;
+    private boolean preserveOutputOrder = FTConfigConstants.DEFAULT_PRESERVE_OUTPUT_ORDER;
+    private boolean asyncOutput = FTConfigConstants.DEFAULT_ASYNC_OUTPUT;
+    private int prefetchBatches = FTConfigConstants.DEFAULT_PREFETCH_BATCHES;
+    private boolean groupInputGraphs = FTConfigConstants.DEFAULT_GROUP_INPUT_GRAPHS;
+    private int loadPageSize = FTConfigConstants.DEFAULT_LOAD_PAGE_SIZE;
+    private boolean adaptiveLoadPageSize = FTConfigConstants.DEFAULT_ADAPTIVE_LOAD_PAGE_SIZE;
+    private int minLoadPageSize = FTConfigConstants.DEFAULT_MIN_LOAD_PAGE_SIZE;
+    private int maxLoadPageSize = FTConfigConstants.DEFAULT_MAX_LOAD_PAGE_SIZE;
+    private boolean filterInputWhileLoading = FTConfigConstants.DEFAULT_FILTER_INPUT_WHILE_LOADING;
+    private boolean indexedMetadata = FTConfigConstants.DEFAULT_INDEXED_METADATA;
+    private boolean writePerformanceReport = FTConfigConstants.DEFAULT_WRITE_PERFORMANCE_REPORT;
+    private int progressReportInterval = FTConfigConstants.DEFAULT_PROGRESS_REPORT_INTERVAL;
+    private boolean profileResolutionFunctions = FTConfigConstants.DEFAULT_PROFILE_RESOLUTION_FUNCTIONS;
+    private int slowResourceDescriptionThreshold = FTConfigConstants.DEFAULT_SLOW_RESOURCE_DESCRIPTION_THRESHOLD;
+    private int hubSplitThreshold = FTConfigConstants.DEFAULT_HUB_SPLIT_THRESHOLD;
+    private FileOutput fileOutput = null;
 
     @Override
     public String getResultDataURIPrefix() { // TODO: settable in XML configuration
@@ -42,7 +70,15 @@ public class ConfigContainerImpl implements ConfigContainer {
 
     @Override
     public boolean getOutputMappedSubjectsOnly() {
-        return FTConfigConstants.OUTPUT_MAPPED_SUBJECTS_ONLY;
+        return outputMappedSubjectsOnly;
+    }
+
+    /**
+     * Sets value for {@link #getOutputMappedSubjectsOnly()}.
+     * @param outputMappedSubjectsOnly see {@link #getOutputMappedSubjectsOnly()}
+     */
+    public void setOutputMappedSubjectsOnly(boolean outputMappedSubjectsOnly) {
+        this.outputMappedSubjectsOnly = outputMappedSubjectsOnly;
     }
 
     @Override
@@ -141,7 +177,15 @@ public class ConfigContainerImpl implements ConfigContainer {
 
     @Override
     public float getMaxFreeMemoryUsage() {
-        return FTConfigConstants.MAX_FREE_MEMORY_USAGE;
+        return maxFreeMemoryUsage;
+    }
+
+    /**
+     * Sets value for {@link #getMaxFreeMemoryUsage()}.
+     * @param maxFreeMemoryUsage see {@link #getMaxFreeMemoryUsage()}
+     */
+    public void setMaxFreeMemoryUsage(float maxFreeMemoryUsage) {
+        this.maxFreeMemoryUsage = maxFreeMemoryUsage;
     }
 
     @Override
@@ -151,7 +195,15 @@ public class ConfigContainerImpl implements ConfigContainer {
 
     @Override
     public boolean getWriteMetadata() {
-        return FTConfigConstants.WRITE_METADATA;
+        return writeMetadata;
+    }
+
+    /**
+     * Sets value for {@link #getWriteMetadata()}.
+     * @param writeMetadata see {@link #getWriteMetadata()}
+     */
+    public void setWriteMetadata(boolean writeMetadata) {
+        this.writeMetadata = writeMetadata;
     }
 
     @Override
@@ -224,4 +276,329 @@ public class ConfigContainerImpl implements ConfigContainer {
         // FIXME: set from configuration
         this.metadataGraphSymbolicName = metadataGraphSymbolicName;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean getStreamInputGraphs() {
+        return streamInputGraphs;
+    }
+
+    /**
+     * Sets value for {@link #getStreamInputGraphs()}.
+     * @param streamInputGraphs see {@link #getStreamInputGraphs()}
+     */
+    public void setStreamInputGraphs(boolean streamInputGraphs) {
+        this.streamInputGraphs = streamInputGraphs;
+    }
+
+    @Override
+    public int getLoadingParallelism() {
+        return loadingParallelism;
+    }
+
+    /**
+     * Sets value for {@link #getLoadingParallelism()}.
+     * @param loadingParallelism see {@link #getLoadingParallelism()}
+     */
+    public void setLoadingParallelism(int loadingParallelism) {
+        this.loadingParallelism = loadingParallelism;
+    }
+
+    @Override
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    /**
+     * Sets value for {@link #getWriteBatchSize()}.
+     * @param writeBatchSize see {@link #getWriteBatchSize()}
+     */
+    public void setWriteBatchSize(int writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    @Override
+    public boolean getCompactMetadata() {
+        return compactMetadata;
+    }
+
+    /**
+     * Sets value for {@link #getCompactMetadata()}.
+     * @param compactMetadata see {@link #getCompactMetadata()}
+     */
+    public void setCompactMetadata(boolean compactMetadata) {
+        this.compactMetadata = compactMetadata;
+    }
+
+    @Override
+    public boolean getCompactUriMapping() {
+        return compactUriMapping;
+    }
+
+    /**
+     * Sets value for {@link #getCompactUriMapping()}.
+     * @param compactUriMapping see {@link #getCompactUriMapping()}
+     */
+    public void setCompactUriMapping(boolean compactUriMapping) {
+        this.compactUriMapping = compactUriMapping;
+    }
+
+    @Override
+    public boolean getMemoryMappedUriMapping() {
+        return memoryMappedUriMapping;
+    }
+
+    /**
+     * Sets value for {@link #getMemoryMappedUriMapping()}.
+     * @param memoryMappedUriMapping see {@link #getMemoryMappedUriMapping()}
+     */
+    public void setMemoryMappedUriMapping(boolean memoryMappedUriMapping) {
+        this.memoryMappedUriMapping = memoryMappedUriMapping;
+    }
+
+    @Override
+    public boolean getBinarySpill() {
+        return binarySpill;
+    }
+
+    /**
+     * Sets value for {@link #getBinarySpill()}.
+     * @param binarySpill see {@link #getBinarySpill()}
+     */
+    public void setBinarySpill(boolean binarySpill) {
+        this.binarySpill = binarySpill;
+    }
+
+    @Override
+    public boolean getCompressSpill() {
+        return compressSpill;
+    }
+
+    /**
+     * Sets value for {@link #getCompressSpill()}.
+     * @param compressSpill see {@link #getCompressSpill()}
+     */
+    public void setCompressSpill(boolean compressSpill) {
+        this.compressSpill = compressSpill;
+    }
+
+    @Override
+    public int getResolutionParallelism() {
+        return resolutionParallelism;
+    }
+
+    /**
+     * Sets value for {@link #getResolutionParallelism()}.
+     * @param resolutionParallelism see {@link #getResolutionParallelism()}
+     */
+    public void setResolutionParallelism(int resolutionParallelism) {
+        this.resolutionParallelism = resolutionParallelism;
+    }
+
+    @Override
+    public boolean getPreserveOutputOrder() {
+        return preserveOutputOrder;
+    }
+
+    /**
+     * Sets value for {@link #getPreserveOutputOrder()}.
+     * @param preserveOutputOrder see {@link #getPreserveOutputOrder()}
+     */
+    public void setPreserveOutputOrder(boolean preserveOutputOrder) {
+        this.preserveOutputOrder = preserveOutputOrder;
+    }
+
+    @Override
+    public FileOutput getFileOutput() {
+        return fileOutput;
+    }
+
+    /**
+     * Sets value for {@link #getFileOutput()}.
+     * @param fileOutput see {@link #getFileOutput()}
+     */
+    public void setFileOutput(FileOutput fileOutput) {
+        this.fileOutput = fileOutput;
+    }
+
+    @Override
+    public boolean getAsyncOutput() {
+        return asyncOutput;
+    }
+
+    /**
+     * Sets value for {@link #getAsyncOutput()}.
+     * @param asyncOutput see {@link #getAsyncOutput()}
+     */
+    public void setAsyncOutput(boolean asyncOutput) {
+        this.asyncOutput = asyncOutput;
+    }
+
+    @Override
+    public int getPrefetchBatches() {
+        return prefetchBatches;
+    }
+
+    /**
+     * Sets value for {@link #getPrefetchBatches()}.
+     * @param prefetchBatches see {@link #getPrefetchBatches()}
+     */
+    public void setPrefetchBatches(int prefetchBatches) {
+        this.prefetchBatches = prefetchBatches;
+    }
+
+    @Override
+    public boolean getGroupInputGraphs() {
+        return groupInputGraphs;
+    }
+
+    /**
+     * Sets value for {@link #getGroupInputGraphs()}.
+     * @param groupInputGraphs see {@link #getGroupInputGraphs()}
+     */
+    public void setGroupInputGraphs(boolean groupInputGraphs) {
+        this.groupInputGraphs = groupInputGraphs;
+    }
+
+    @Override
+    public int getLoadPageSize() {
+        return loadPageSize;
+    }
+
+    /**
+     * Sets value for {@link #getLoadPageSize()}.
+     * @param loadPageSize see {@link #getLoadPageSize()}
+     */
+    public void setLoadPageSize(int loadPageSize) {
+        this.loadPageSize = loadPageSize;
+    }
+
+    @Override
+    public boolean getAdaptiveLoadPageSize() {
+        return adaptiveLoadPageSize;
+    }
+
+    /**
+     * Sets value for {@link #getAdaptiveLoadPageSize()}.
+     * @param adaptiveLoadPageSize see {@link #getAdaptiveLoadPageSize()}
+     */
+    public void setAdaptiveLoadPageSize(boolean adaptiveLoadPageSize) {
+        this.adaptiveLoadPageSize = adaptiveLoadPageSize;
+    }
+
+    @Override
+    public int getMinLoadPageSize() {
+        return minLoadPageSize;
+    }
+
+    /**
+     * Sets value for {@link #getMinLoadPageSize()}.
+     * @param minLoadPageSize see {@link #getMinLoadPageSize()}
+     */
+    public void setMinLoadPageSize(int minLoadPageSize) {
+        this.minLoadPageSize = minLoadPageSize;
+    }
+
+    @Override
+    public int getMaxLoadPageSize() {
+        return maxLoadPageSize;
+    }
+
+    /**
+     * Sets value for {@link #getMaxLoadPageSize()}.
+     * @param maxLoadPageSize see {@link #getMaxLoadPageSize()}
+     */
+    public void setMaxLoadPageSize(int maxLoadPageSize) {
+        this.maxLoadPageSize = maxLoadPageSize;
+    }
+
+    @Override
+    public boolean getFilterInputWhileLoading() {
+        return filterInputWhileLoading;
+    }
+
+    /**
+     * Sets value for {@link #getFilterInputWhileLoading()}.
+     * @param filterInputWhileLoading see {@link #getFilterInputWhileLoading()}
+     */
+    public void setFilterInputWhileLoading(boolean filterInputWhileLoading) {
+        this.filterInputWhileLoading = filterInputWhileLoading;
+    }
+
+    @Override
+    public boolean getIndexedMetadata() {
+        return indexedMetadata;
+    }
+
+    /**
+     * Sets value for {@link #getIndexedMetadata()}.
+     * @param indexedMetadata see {@link #getIndexedMetadata()}
+     */
+    public void setIndexedMetadata(boolean indexedMetadata) {
+        this.indexedMetadata = indexedMetadata;
+    }
+
+    @Override
+    public boolean getWritePerformanceReport() {
+        return writePerformanceReport;
+    }
+
+    /**
+     * Sets value for {@link #getWritePerformanceReport()}.
+     * @param writePerformanceReport see {@link #getWritePerformanceReport()}
+     */
+    public void setWritePerformanceReport(boolean writePerformanceReport) {
+        this.writePerformanceReport = writePerformanceReport;
+    }
+
+    @Override
+    public int getProgressReportInterval() {
+        return progressReportInterval;
+    }
+
+    /**
+     * Sets value for {@link #getProgressReportInterval()}.
+     * @param progressReportInterval see {@link #getProgressReportInterval()}
+     */
+    public void setProgressReportInterval(int progressReportInterval) {
+        this.progressReportInterval = progressReportInterval;
+    }
+
+    @Override
+    public boolean getProfileResolutionFunctions() {
+        return profileResolutionFunctions;
+    }
+
+    /**
+     * Sets value for {@link #getProfileResolutionFunctions()}.
+     * @param profileResolutionFunctions see {@link #getProfileResolutionFunctions()}
+     */
+    public void setProfileResolutionFunctions(boolean profileResolutionFunctions) {
+        this.profileResolutionFunctions = profileResolutionFunctions;
+    }
+
+    @Override
+    public int getSlowResourceDescriptionThreshold() {
+        return slowResourceDescriptionThreshold;
+    }
+
+    /**
+     * Sets value for {@link #getSlowResourceDescriptionThreshold()}.
+     * @param slowResourceDescriptionThreshold see {@link #getSlowResourceDescriptionThreshold()}
+     */
+    public void setSlowResourceDescriptionThreshold(int slowResourceDescriptionThreshold) {
+        this.slowResourceDescriptionThreshold = slowResourceDescriptionThreshold;
+    }
+
+    @Override
+    public int getHubSplitThreshold() {
+        return hubSplitThreshold;
+    }
+
+    /**
+     * Sets value for {@link #getHubSplitThreshold()}.
+     * @param hubSplitThreshold see {@link #getHubSplitThreshold()}
+     */
+    public void setHubSplitThreshold(int hubSplitThreshold) {
+        this.hubSplitThreshold = hubSplitThreshold;
+    }
+}
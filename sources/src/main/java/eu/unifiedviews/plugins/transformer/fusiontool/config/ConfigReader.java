@@ -18,9 +18,11 @@ import eu.unifiedviews.plugins.transformer.fusiontool.config.xml.ConfigXml;
 import eu.unifiedviews.plugins.transformer.fusiontool.exceptions.InvalidInputException;
 import org.openrdf.model.URI;
 import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.RDFFormat;
 import org.simpleframework.xml.Serializer;
 import org.simpleframework.xml.core.Persister;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -139,17 +141,141 @@ public final class ConfigReader {
             List<ParamXml> params,
             ConfigContainerImpl config,
             NamespacePrefixExpander prefixExpander) throws InvalidInputException {
+        RDFFormat fileOutputFormat = null;
+        String fileOutputName = null;
+        boolean compressFileOutput = false;
         for (ParamXml param : params) {
             if (ConfigParameters.PROCESSING_ONLY_RESOURCES_WITH_CLASS.equalsIgnoreCase(param.getName())) {
                 if (!ODCSUtils.isNullOrEmpty(param.getValue())) {
                     URI classUri = convertToUriWithExpansion(prefixExpander, param.getValue());
                     config.setRequiredClassOfProcessedResources(classUri);
                 }
+            } else if (FTConfigParameters.OUTPUT_MAPPED_SUBJECTS_ONLY.equalsIgnoreCase(param.getName())) {
+                config.setOutputMappedSubjectsOnly(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.MEMORY_LIMIT.equalsIgnoreCase(param.getName())) {
+                config.setMemoryLimit(convertToMemorySize(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive number of bytes with optional K, M or G suffix"));
+            } else if (FTConfigParameters.MAX_FREE_MEMORY_USAGE.equalsIgnoreCase(param.getName())) {
+                config.setMaxFreeMemoryUsage(convertToFraction(param.getValue(),
+                        "Value of " + param.getName() + " must be a number greater than 0 and at most 1"));
+            } else if (FTConfigParameters.STREAM_INPUT_GRAPHS.equalsIgnoreCase(param.getName())) {
+                config.setStreamInputGraphs(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.LOADING_PARALLELISM.equalsIgnoreCase(param.getName())) {
+                config.setLoadingParallelism(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.WRITE_BATCH_SIZE.equalsIgnoreCase(param.getName())) {
+                config.setWriteBatchSize(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.WRITE_METADATA.equalsIgnoreCase(param.getName())) {
+                config.setWriteMetadata(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.COMPACT_METADATA.equalsIgnoreCase(param.getName())) {
+                config.setCompactMetadata(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.COMPACT_URI_MAPPING.equalsIgnoreCase(param.getName())) {
+                config.setCompactUriMapping(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.MEMORY_MAPPED_URI_MAPPING.equalsIgnoreCase(param.getName())) {
+                config.setMemoryMappedUriMapping(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.BINARY_SPILL.equalsIgnoreCase(param.getName())) {
+                config.setBinarySpill(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.COMPRESS_SPILL.equalsIgnoreCase(param.getName())) {
+                config.setCompressSpill(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.RESOLUTION_PARALLELISM.equalsIgnoreCase(param.getName())) {
+                config.setResolutionParallelism(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.PRESERVE_OUTPUT_ORDER.equalsIgnoreCase(param.getName())) {
+                config.setPreserveOutputOrder(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.FILE_OUTPUT_FORMAT.equalsIgnoreCase(param.getName())) {
+                fileOutputFormat = convertToFileOutputFormat(param.getValue(),
+                        "Value of " + param.getName() + " must be one of nquads, trig, binary");
+            } else if (FTConfigParameters.FILE_OUTPUT_NAME.equalsIgnoreCase(param.getName())) {
+                if (ODCSUtils.isNullOrEmpty(param.getValue())) {
+                    throw new InvalidInputException("Value of " + param.getName() + " must not be empty");
+                }
+                fileOutputName = param.getValue();
+            } else if (FTConfigParameters.COMPRESS_FILE_OUTPUT.equalsIgnoreCase(param.getName())) {
+                compressFileOutput = convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false");
+            } else if (FTConfigParameters.ASYNC_OUTPUT.equalsIgnoreCase(param.getName())) {
+                config.setAsyncOutput(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.PREFETCH_BATCHES.equalsIgnoreCase(param.getName())) {
+                config.setPrefetchBatches(convertToNonNegativeInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a non-negative integer"));
+            } else if (FTConfigParameters.GROUP_INPUT_GRAPHS.equalsIgnoreCase(param.getName())) {
+                config.setGroupInputGraphs(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.LOAD_PAGE_SIZE.equalsIgnoreCase(param.getName())) {
+                config.setLoadPageSize(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.ADAPTIVE_LOAD_PAGE_SIZE.equalsIgnoreCase(param.getName())) {
+                config.setAdaptiveLoadPageSize(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.MIN_LOAD_PAGE_SIZE.equalsIgnoreCase(param.getName())) {
+                config.setMinLoadPageSize(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.MAX_LOAD_PAGE_SIZE.equalsIgnoreCase(param.getName())) {
+                config.setMaxLoadPageSize(convertToPositiveInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a positive integer"));
+            } else if (FTConfigParameters.FILTER_INPUT_WHILE_LOADING.equalsIgnoreCase(param.getName())) {
+                config.setFilterInputWhileLoading(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.INDEXED_METADATA.equalsIgnoreCase(param.getName())) {
+                config.setIndexedMetadata(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.WRITE_PERFORMANCE_REPORT.equalsIgnoreCase(param.getName())) {
+                config.setWritePerformanceReport(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.PROGRESS_REPORT_INTERVAL.equalsIgnoreCase(param.getName())) {
+                config.setProgressReportInterval(convertToNonNegativeInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a non-negative integer"));
+            } else if (FTConfigParameters.PROFILE_RESOLUTION_FUNCTIONS.equalsIgnoreCase(param.getName())) {
+                config.setProfileResolutionFunctions(convertToBoolean(param.getValue(),
+                        "Value of " + param.getName() + " must be true or false"));
+            } else if (FTConfigParameters.SLOW_RESOURCE_DESCRIPTION_THRESHOLD.equalsIgnoreCase(param.getName())) {
+                config.setSlowResourceDescriptionThreshold(convertToNonNegativeInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a non-negative integer"));
+            } else if (FTConfigParameters.HUB_SPLIT_THRESHOLD.equalsIgnoreCase(param.getName())) {
+                config.setHubSplitThreshold(convertToNonNegativeInt(param.getValue(),
+                        "Value of " + param.getName() + " must be a non-negative integer"));
             } else {
                 throw new InvalidInputException("Unknown parameter " + param.getName()
                         + " used in data processing parameters");
             }
         }
+
+        if (fileOutputFormat != null) {
+            config.setFileOutput(createFileOutput(fileOutputFormat, fileOutputName, compressFileOutput, config.getResultDataURIPrefix()));
+        } else if (fileOutputName != null) {
+            throw new InvalidInputException("Parameter " + FTConfigParameters.FILE_OUTPUT_NAME
+                    + " requires " + FTConfigParameters.FILE_OUTPUT_FORMAT + " to be set");
+        }
+        if (config.getMinLoadPageSize() > config.getMaxLoadPageSize()) {
+            throw new InvalidInputException("Value of " + FTConfigParameters.MIN_LOAD_PAGE_SIZE
+                    + " must not be greater than value of " + FTConfigParameters.MAX_LOAD_PAGE_SIZE);
+        }
+    }
+
+    private FileOutput createFileOutput(RDFFormat format, String name, boolean compress, String resultDataURIPrefix) {
+        String fileName = name;
+        if (fileName == null) {
+            fileName = FTConfigConstants.DEFAULT_FILE_OUTPUT_NAME + "." + format.getDefaultFileExtension();
+            if (compress) {
+                fileName += "." + FTConfigConstants.GZIP_FILE_EXTENSION;
+            }
+        }
+        FileOutputImpl fileOutput = new FileOutputImpl(new File(fileName), format);
+        fileOutput.setMetadataContext(ValueFactoryImpl.getInstance().createURI(
+                resultDataURIPrefix + FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME));
+        fileOutput.setCompressed(compress);
+        return fileOutput;
     }
 
     private URI convertToURI(String str, String errorMessage) throws InvalidInputException {
@@ -176,6 +302,73 @@ public final class ConfigReader {
         }
     }
 
+    private int convertToPositiveInt(String str, String errorMessage) throws InvalidInputException {
+        long value = convertToLong(str, errorMessage);
+        if (value < 1 || value > Integer.MAX_VALUE) {
+            throw new InvalidInputException(errorMessage);
+        }
+        return (int) value;
+    }
+
+    private int convertToNonNegativeInt(String str, String errorMessage) throws InvalidInputException {
+        long value = convertToLong(str, errorMessage);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new InvalidInputException(errorMessage);
+        }
+        return (int) value;
+    }
+
+    private long convertToMemorySize(String str, String errorMessage) throws InvalidInputException {
+        String value = str.trim();
+        long multiplier = 1;
+        char suffix = value.isEmpty() ? ' ' : Character.toUpperCase(value.charAt(value.length() - 1));
+        if (suffix == 'K' || suffix == 'M' || suffix == 'G') {
+            multiplier = suffix == 'K' ? 1L << 10 : suffix == 'M' ? 1L << 20 : 1L << 30;
+            value = value.substring(0, value.length() - 1).trim();
+        }
+        long size = convertToLong(value, errorMessage);
+        if (size < 1 || size > Long.MAX_VALUE / multiplier) {
+            throw new InvalidInputException(errorMessage);
+        }
+        return size * multiplier;
+    }
+
+    private float convertToFraction(String str, String errorMessage) throws InvalidInputException {
+        float value;
+        try {
+            value = Float.parseFloat(str);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException(errorMessage, e);
+        }
+        if (!(value > 0 && value <= 1)) {
+            throw new InvalidInputException(errorMessage);
+        }
+        return value;
+    }
+
+    private RDFFormat convertToFileOutputFormat(String str, String errorMessage) throws InvalidInputException {
+        String value = str == null ? "" : str.trim();
+        if ("nquads".equalsIgnoreCase(value) || "n-quads".equalsIgnoreCase(value)) {
+            return RDFFormat.NQUADS;
+        } else if ("trig".equalsIgnoreCase(value)) {
+            return RDFFormat.TRIG;
+        } else if ("binary".equalsIgnoreCase(value)) {
+            return RDFFormat.BINARY;
+        } else {
+            throw new InvalidInputException(errorMessage);
+        }
+    }
+
+    private boolean convertToBoolean(String str, String errorMessage) throws InvalidInputException {
+        if ("true".equalsIgnoreCase(str)) {
+            return true;
+        } else if ("false".equalsIgnoreCase(str)) {
+            return false;
+        } else {
+            throw new InvalidInputException(errorMessage);
+        }
+    }
+
     private ConfigReader() {
     }
 }
@@ -4,11 +4,13 @@
 package eu.unifiedviews.plugins.transformer.fusiontool.config;
 
 import cz.cuni.mff.odcleanstore.fusiontool.config.LDFTConfigConstants;
-import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
 import org.openrdf.model.URI;
 import org.openrdf.rio.ParserConfig;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -59,7 +61,10 @@ public final class FTConfigConstants {
      */
     public static final Collection<String> DEFAULT_PREFERRED_CANONICAL_URIS = LDFTConfigConstants.DEFAULT_PREFERRED_CANONICAL_URIS;
 
-    public static final boolean OUTPUT_MAPPED_SUBJECTS_ONLY = false;
+    /**
+     * Default value of whether only resources mapped to another resource are processed.
+     */
+    public static final boolean DEFAULT_OUTPUT_MAPPED_SUBJECTS_ONLY = false;
 
     public static final ParserConfig DEFAULT_FILE_PARSER_CONFIG = LDFTConfigConstants.DEFAULT_FILE_PARSER_CONFIG;
 
@@ -70,8 +75,179 @@ public final class FTConfigConstants {
     public static final Set<URI> SAME_AS_LINK_TYPES = LDFTConfigConstants.SAME_AS_LINK_TYPES;
     public static final String CANONICAL_URI_FILE_NAME = "fusion-canonical-uris.txt";
     public static final boolean ENABLE_FILE_CACHE = false;
-    public static final long MAX_MEMORY_LIMIT = 3 * LDFusionToolUtils.GB_BYTES; // FIXME: make configurable
-    public static final boolean WRITE_METADATA = false; // TODO: make configurable
+    public static final boolean WRITE_METADATA = false;
     public static final String DEFAULT_DATA_GRAPH_NAME = "data";
     public static final String DEFAULT_METADATA_GRAPH_NAME = "metadata";
+
+    /**
+     * Symbolic name of the output graph with the performance report.
+     */
+    public static final String PERFORMANCE_REPORT_GRAPH_NAME = "performance-report";
+
+    /**
+     * Name of the file with the JSON performance report in the working directory.
+     */
+    public static final String PERFORMANCE_REPORT_FILE_NAME = "performance-report.json";
+
+    /**
+     * Maximum number of rows in tables of the most expensive resolution functions and properties.
+     */
+    public static final int RESOLUTION_PROFILE_TOP_COUNT = 20;
+
+    /**
+     * Interval between samples of heap usage for the peak heap usage in the performance report in milliseconds.
+     */
+    public static final long HEAP_SAMPLING_INTERVAL = 200;
+
+    /**
+     * Whether input graphs are read with a single statement cursor by default instead of paged SPARQL queries.
+     */
+    public static final boolean DEFAULT_STREAM_INPUT_GRAPHS = false;
+
+    /**
+     * Default number of input graphs loaded in parallel; 1 means graphs are loaded sequentially.
+     */
+    public static final int DEFAULT_LOADING_PARALLELISM = 1;
+
+    /**
+     * Maximum number of quad batches read by parallel loading threads and waiting to be processed.
+     */
+    public static final int LOADING_QUEUE_CAPACITY = 64;
+
+    /**
+     * Default number of output statements written to the output data unit in a single transaction.
+     */
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 10000;
+
+    /**
+     * Whether resolved triples with the same quality and source graphs share a single named graph by default.
+     */
+    public static final boolean DEFAULT_COMPACT_METADATA = false;
+
+    /**
+     * Whether the compact primitive-backed URI mapping is used by default.
+     */
+    public static final boolean DEFAULT_COMPACT_URI_MAPPING = false;
+
+    /**
+     * Whether the memory-mapped URI mapping is used by default.
+     */
+    public static final boolean DEFAULT_MEMORY_MAPPED_URI_MAPPING = false;
+
+    /**
+     * Whether temporary files of external sorting use the binary format by default.
+     */
+    public static final boolean DEFAULT_BINARY_SPILL = false;
+
+    /**
+     * Whether binary temporary files of external sorting are compressed by default.
+     */
+    public static final boolean DEFAULT_COMPRESS_SPILL = false;
+
+    /**
+     * Default number of threads resolving conflicts in resource descriptions.
+     */
+    public static final int DEFAULT_RESOLUTION_PARALLELISM = 1;
+
+    /**
+     * Whether parallel conflict resolution preserves the order of output by default.
+     */
+    public static final boolean DEFAULT_PRESERVE_OUTPUT_ORDER = true;
+
+    /**
+     * Default name of the output file without extension; the default extension of the serialization format is appended.
+     */
+    public static final String DEFAULT_FILE_OUTPUT_NAME = "fusion-output";
+
+    /**
+     * Extension appended to the default name of gzip-compressed output file.
+     */
+    public static final String GZIP_FILE_EXTENSION = "gz";
+
+    /**
+     * Whether output is written asynchronously by default.
+     */
+    public static final boolean DEFAULT_ASYNC_OUTPUT = false;
+
+    /**
+     * Maximum number of statement batches waiting for the asynchronous output writer.
+     */
+    public static final int ASYNC_OUTPUT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Number of statements handed over to the asynchronous output writer at once.
+     */
+    public static final int ASYNC_OUTPUT_BATCH_SIZE = 1000;
+
+    /**
+     * Default number of prefetched input quad batches; 0 means input is not read ahead.
+     */
+    public static final int DEFAULT_PREFETCH_BATCHES = 0;
+
+    /**
+     * Whether input graphs are grouped into a single query by default.
+     */
+    public static final boolean DEFAULT_GROUP_INPUT_GRAPHS = false;
+
+    /**
+     * Default number of quads requested by a single paged load query.
+     */
+    public static final int DEFAULT_LOAD_PAGE_SIZE = LDFTConfigConstants.DEFAULT_SPARQL_RESULT_MAX_ROWS;
+
+    /**
+     * Whether the page size of load queries is adaptive by default.
+     */
+    public static final boolean DEFAULT_ADAPTIVE_LOAD_PAGE_SIZE = false;
+
+    /**
+     * Default minimum page size of load queries if the page size is adaptive.
+     */
+    public static final int DEFAULT_MIN_LOAD_PAGE_SIZE = 1000;
+
+    /**
+     * Default maximum page size of load queries if the page size is adaptive.
+     */
+    public static final int DEFAULT_MAX_LOAD_PAGE_SIZE = 100000;
+
+    /**
+     * Whether input quads are filtered while loading by default.
+     */
+    public static final boolean DEFAULT_FILTER_INPUT_WHILE_LOADING = false;
+
+    /**
+     * Whether input metadata are loaded into a compact index by default.
+     */
+    public static final boolean DEFAULT_INDEXED_METADATA = false;
+
+    /**
+     * Metadata predicates used for computing source quality; only statements with these predicates
+     * are loaded when metadata are indexed.
+     */
+    public static final Collection<URI> SOURCE_QUALITY_METADATA_PREDICATES = Collections.unmodifiableList(
+            Arrays.asList(ODCS.SCORE, ODCS.PUBLISHED_BY, ODCS.PUBLISHER_SCORE));
+
+    /**
+     * Whether the performance report is written to the RDF output by default.
+     */
+    public static final boolean DEFAULT_WRITE_PERFORMANCE_REPORT = false;
+
+    /**
+     * Default interval in seconds between progress messages.
+     */
+    public static final int DEFAULT_PROGRESS_REPORT_INTERVAL = 60;
+
+    /**
+     * Whether resolution functions are profiled by default.
+     */
+    public static final boolean DEFAULT_PROFILE_RESOLUTION_FUNCTIONS = false;
+
+    /**
+     * Default resolution time in milliseconds above which a resource description is logged as slow.
+     */
+    public static final int DEFAULT_SLOW_RESOURCE_DESCRIPTION_THRESHOLD = 10000;
+
+    /**
+     * Default number of quads above which a resource description is resolved one property at a time.
+     */
+    public static final int DEFAULT_HUB_SPLIT_THRESHOLD = 1000000;
 }
@@ -0,0 +1,105 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.config;
+
+/**
+ * Names of DPU-specific data processing parameters in the XML configuration.
+ * Parameters shared with LD-FusionTool are defined in
+ * {@link cz.cuni.mff.odcleanstore.fusiontool.config.ConfigParameters}.
+ */
+public final class FTConfigParameters {
+    /** Disable constructor for a utility class. */
+    private FTConfigParameters() {
+    }
+
+    /** Memory limit in bytes (optionally with K, M or G suffix) for buffers of input quads. */
+    public static final String MEMORY_LIMIT = "memoryLimit";
+
+    /** Maximum fraction of the free heap used for buffers of input quads when memory limit is not given. */
+    public static final String MAX_FREE_MEMORY_USAGE = "maxFreeMemoryUsage";
+
+    /** Whether input graphs are read with a single statement cursor instead of paged SPARQL queries. */
+    public static final String STREAM_INPUT_GRAPHS = "streamInputGraphs";
+
+    /** Number of input graphs loaded in parallel. */
+    public static final String LOADING_PARALLELISM = "loadingParallelism";
+
+    /** Number of output statements written to the output data unit in a single transaction. */
+    public static final String WRITE_BATCH_SIZE = "writeBatchSize";
+
+    /** Whether metadata (quality and source graphs) of resolved triples are written to the output. */
+    public static final String WRITE_METADATA = "writeMetadata";
+
+    /** Whether resolved triples with the same metadata share a single named graph in the output. */
+    public static final String COMPACT_METADATA = "compactMetadata";
+
+    /** Whether the URI mapping of owl:sameAs links is kept in compact primitive-backed structures. */
+    public static final String COMPACT_URI_MAPPING = "compactUriMapping";
+
+    /** Whether the URI mapping of owl:sameAs links is kept in memory-mapped files in the working directory. */
+    public static final String MEMORY_MAPPED_URI_MAPPING = "memoryMappedUriMapping";
+
+    /** Whether input quads are sorted in temporary files in the compact binary format. */
+    public static final String BINARY_SPILL = "binarySpill";
+
+    /** Whether binary temporary files of external sorting are compressed. */
+    public static final String COMPRESS_SPILL = "compressSpill";
+
+    /** Number of threads resolving conflicts in resource descriptions. */
+    public static final String RESOLUTION_PARALLELISM = "resolutionParallelism";
+
+    /** Whether parallel conflict resolution writes results in the order of input resource descriptions. */
+    public static final String PRESERVE_OUTPUT_ORDER = "preserveOutputOrder";
+
+    /** Serialization format of the output file (nquads, trig or binary); output is written to the RDF output if not given. */
+    public static final String FILE_OUTPUT_FORMAT = "fileOutputFormat";
+
+    /** Name of the output file. */
+    public static final String FILE_OUTPUT_NAME = "fileOutputName";
+
+    /** Whether the output file is compressed with gzip. */
+    public static final String COMPRESS_FILE_OUTPUT = "compressFileOutput";
+
+    /** Whether output is written by a dedicated thread concurrently with conflict resolution. */
+    public static final String ASYNC_OUTPUT = "asyncOutput";
+
+    /** Number of input quad batches read ahead by a background thread while the previous ones are processed. */
+    public static final String PREFETCH_BATCHES = "prefetchBatches";
+
+    /** Whether quads of several input graphs are read with a single query. */
+    public static final String GROUP_INPUT_GRAPHS = "groupInputGraphs";
+
+    /** Number of quads requested by a single paged query when loading input. */
+    public static final String LOAD_PAGE_SIZE = "loadPageSize";
+
+    /** Whether the page size of load queries is adapted to the observed latency. */
+    public static final String ADAPTIVE_LOAD_PAGE_SIZE = "adaptiveLoadPageSize";
+
+    /** Minimum page size of load queries if the page size is adaptive. */
+    public static final String MIN_LOAD_PAGE_SIZE = "minLoadPageSize";
+
+    /** Maximum page size of load queries if the page size is adaptive. */
+    public static final String MAX_LOAD_PAGE_SIZE = "maxLoadPageSize";
+
+    /** Whether input quads that cannot pass input filters are dropped already while loading. */
+    public static final String FILTER_INPUT_WHILE_LOADING = "filterInputWhileLoading";
+
+    /** Whether only metadata used for source quality are loaded into a compact index. */
+    public static final String INDEXED_METADATA = "indexedMetadata";
+
+    /** Whether the performance report of the run is also written to a dedicated graph of the RDF output. */
+    public static final String WRITE_PERFORMANCE_REPORT = "writePerformanceReport";
+
+    /** Interval in seconds between progress messages published during execution. */
+    public static final String PROGRESS_REPORT_INTERVAL = "progressReportInterval";
+
+    /** Whether cost of resolution functions is profiled per function and property. */
+    public static final String PROFILE_RESOLUTION_FUNCTIONS = "profileResolutionFunctions";
+
+    /** Resolution time in milliseconds above which a resource description is logged as slow. */
+    public static final String SLOW_RESOURCE_DESCRIPTION_THRESHOLD = "slowResourceDescriptionThreshold";
+
+    /** Number of quads above which a resource description is resolved one property at a time. */
+    public static final String HUB_SPLIT_THRESHOLD = "hubSplitThreshold";
+
+    /** Whether only resources with a URI mapped to another URI (owl:sameAs) are processed and written to the output. */
+    public static final String OUTPUT_MAPPED_SUBJECTS_ONLY = "outputMappedSubjectsOnly";
+}
@@ -3,8 +3,8 @@
  */
 package eu.unifiedviews.plugins.transformer.fusiontool.config;
 
-import cz.cuni.mff.odcleanstore.fusiontool.io.EnumSerializationFormat;
 import org.openrdf.model.URI;
+import org.openrdf.rio.RDFFormat;
 
 import java.io.File;
 
@@ -14,8 +14,9 @@ import java.io.File;
  */
 public interface FileOutput {
     /**
-     * Returns a human-readable name of this output.
-     * @return human-readable name or null if unavailable
+     * Returns path of the output file.
+     * In the DPU, only the file name is used as the symbolic name of the file in the output files data unit.
+     * @return output file path
      */
     File getPath();
     
@@ -23,8 +24,14 @@ public interface FileOutput {
      * Returns output serialization format.
      * @return output format
      */
-    EnumSerializationFormat getFormat();
-    
+    RDFFormat getFormat();
+
+    /**
+     * Returns true iff the output file should be compressed with gzip.
+     * @return true if the output should be compressed
+     */
+    boolean isCompressed();
+
     /**
      * Returns URI of named graph where resolved quads will be placed. 
      * Overrides the unique named graph assigned to each resolved quad from Conflict Resolution.
@@ -3,8 +3,8 @@
  */
 package eu.unifiedviews.plugins.transformer.fusiontool.config;
 
-import cz.cuni.mff.odcleanstore.fusiontool.io.EnumSerializationFormat;
 import org.openrdf.model.URI;
+import org.openrdf.rio.RDFFormat;
 
 import java.io.File;
 
@@ -15,20 +15,21 @@ import java.io.File;
  */
 public class FileOutputImpl implements FileOutput {
     private final File path;
-    private final EnumSerializationFormat format;
+    private final RDFFormat format;
     private URI metadataContext;
     private URI dataContext;
+    private boolean compressed = false;
     
     /**
      * @param path output path
      * @param format file serialization format
      */
-    public FileOutputImpl(File path, EnumSerializationFormat format) {
+    public FileOutputImpl(File path, RDFFormat format) {
         this.path = path;
         this.format = format;
     }
 
-    public FileOutputImpl(File path, EnumSerializationFormat format, URI dataContext, URI metadataContext) {
+    public FileOutputImpl(File path, RDFFormat format, URI dataContext, URI metadataContext) {
         this.path = path;
         this.format = format;
         this.dataContext = dataContext;
@@ -41,7 +42,7 @@ public class FileOutputImpl implements FileOutput {
     }
     
     @Override
-    public EnumSerializationFormat getFormat() {
+    public RDFFormat getFormat() {
         return format; 
     }
 
@@ -70,4 +71,17 @@ public class FileOutputImpl implements FileOutput {
     public void setDataContext(URI dataContext) {
         this.dataContext = dataContext;
     }
+
+    @Override
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Sets value for {@link #isCompressed()}.
+     * @param compressed true if the output should be compressed
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
 }
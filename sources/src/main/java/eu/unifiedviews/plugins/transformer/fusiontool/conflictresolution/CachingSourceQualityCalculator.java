@@ -0,0 +1,76 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.quality.SourceQualityCalculator;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LongDoubleHashMap;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.UriHashSet;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator of a {@link SourceQualityCalculator} which computes quality of every source graph described in metadata
+ * once in advance and then answers from a table keyed by 64-bit hashes of source graph URIs.
+ * <p>
+ * Sources are those with {@code odcs:score} or {@code odcs:publishedBy} in metadata, i.e. those for which
+ * the ODCS source quality calculator can return a source specific value. Quality of other sources does not depend
+ * on the source; it is computed by the underlying calculator on the first request and reused.
+ * Requests for a metadata model other than the one given in the constructor are passed to the underlying calculator.
+ * <p>
+ * The table is immutable after construction, so a single instance can be shared by multiple threads.
+ */
+public class CachingSourceQualityCalculator implements SourceQualityCalculator {
+    private static final Logger LOG = LoggerFactory.getLogger(CachingSourceQualityCalculator.class);
+
+    private final SourceQualityCalculator sourceQualityCalculator;
+    private final Model metadata;
+    private final LongDoubleHashMap qualityTable;
+    private volatile double unknownSourceQuality = Double.NaN;
+
+    /**
+     * @param sourceQualityCalculator underlying source quality calculator
+     * @param metadata metadata of source graphs
+     */
+    public CachingSourceQualityCalculator(SourceQualityCalculator sourceQualityCalculator, Model metadata) {
+        this.sourceQualityCalculator = sourceQualityCalculator;
+        this.metadata = metadata;
+        this.qualityTable = new LongDoubleHashMap();
+        precomputeQuality(metadata.filter(null, ODCS.SCORE, null));
+        precomputeQuality(metadata.filter(null, ODCS.PUBLISHED_BY, null));
+        LOG.debug("Precomputed quality of {} source graphs", qualityTable.size());
+    }
+
+    @Override
+    public double getSourceQuality(Resource source, Model metadata) {
+        if (metadata != this.metadata) {
+            return sourceQualityCalculator.getSourceQuality(source, metadata);
+        }
+        double quality = qualityTable.get(getKey(source), Double.NaN);
+        if (!Double.isNaN(quality)) {
+            return quality;
+        }
+        quality = unknownSourceQuality;
+        if (Double.isNaN(quality)) {
+            quality = sourceQualityCalculator.getSourceQuality(source, metadata);
+            unknownSourceQuality = quality;
+        }
+        return quality;
+    }
+
+    private void precomputeQuality(Iterable<Statement> sourceStatements) {
+        for (Statement statement : sourceStatements) {
+            Resource source = statement.getSubject();
+            long key = getKey(source);
+            if (!qualityTable.containsKey(key)) {
+                qualityTable.put(key, sourceQualityCalculator.getSourceQuality(source, metadata));
+            }
+        }
+    }
+
+    private static long getKey(Resource source) {
+        return UriHashSet.hash(source instanceof BNode ? "_:" + ((BNode) source).getID() : source.stringValue());
+    }
+}
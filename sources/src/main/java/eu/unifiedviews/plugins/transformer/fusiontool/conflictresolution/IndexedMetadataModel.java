@@ -0,0 +1,237 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import org.openrdf.model.Model;
+import org.openrdf.model.Namespace;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.AbstractModel;
+import org.openrdf.model.impl.LinkedHashModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only model of metadata indexed by subject.
+ * Statements of each subject (typically a source named graph or a publisher) are kept in an array of the exact size,
+ * so that a lookup of a subject, which is how source quality calculators access metadata, costs a single hash map
+ * access and memory overhead is low compared to a general-purpose model.
+ * Instances are created by {@link Builder}; modifying methods throw {@link UnsupportedOperationException}.
+ */
+public class IndexedMetadataModel extends AbstractModel {
+    private static final long serialVersionUID = 1L;
+    private static final Statement[] EMPTY_STATEMENTS = new Statement[0];
+
+    private final Map<Resource, Statement[]> statementsBySubject;
+    private final int size;
+
+    private IndexedMetadataModel(Map<Resource, Statement[]> statementsBySubject, int size) {
+        this.statementsBySubject = statementsBySubject;
+        this.size = size;
+    }
+
+    @Override
+    public Model filter(Resource subj, URI pred, Value obj, Resource... contexts) {
+        List<Statement> result = new ArrayList<>();
+        if (subj != null) {
+            addMatching(getStatements(subj), pred, obj, contexts, result);
+        } else {
+            for (Statement[] statements : statementsBySubject.values()) {
+                addMatching(statements, pred, obj, contexts, result);
+            }
+        }
+        return new LinkedHashModel(result);
+    }
+
+    @Override
+    public boolean contains(Resource subj, URI pred, Value obj, Resource... contexts) {
+        if (subj != null) {
+            return containsMatching(getStatements(subj), pred, obj, contexts);
+        }
+        for (Statement[] statements : statementsBySubject.values()) {
+            if (containsMatching(statements, pred, obj, contexts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<Statement> iterator() {
+        return new StatementIterator(statementsBySubject.values().iterator());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Namespace> getNamespaces() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Namespace getNamespace(String prefix) {
+        return null;
+    }
+
+    @Override
+    public Namespace setNamespace(String prefix, String name) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    @Override
+    public void setNamespace(Namespace namespace) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    @Override
+    public Namespace removeNamespace(String prefix) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    @Override
+    public boolean add(Resource subj, URI pred, Value obj, Resource... contexts) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    @Override
+    public boolean remove(Resource subj, URI pred, Value obj, Resource... contexts) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    @Override
+    public void removeTermIteration(Iterator<Statement> iter, Resource subj, URI pred, Value obj, Resource... contexts) {
+        throw new UnsupportedOperationException("Metadata model is read-only");
+    }
+
+    private Statement[] getStatements(Resource subject) {
+        Statement[] statements = statementsBySubject.get(subject);
+        return statements != null ? statements : EMPTY_STATEMENTS;
+    }
+
+    private static void addMatching(Statement[] statements, URI pred, Value obj, Resource[] contexts, List<Statement> result) {
+        for (Statement statement : statements) {
+            if (matches(statement, pred, obj, contexts)) {
+                result.add(statement);
+            }
+        }
+    }
+
+    private static boolean containsMatching(Statement[] statements, URI pred, Value obj, Resource[] contexts) {
+        for (Statement statement : statements) {
+            if (matches(statement, pred, obj, contexts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Statement statement, URI pred, Value obj, Resource[] contexts) {
+        if (pred != null && !pred.equals(statement.getPredicate())) {
+            return false;
+        }
+        if (obj != null && !obj.equals(statement.getObject())) {
+            return false;
+        }
+        if (contexts == null || contexts.length == 0) {
+            return true;
+        }
+        for (Resource context : contexts) {
+            if (context == null ? statement.getContext() == null : context.equals(statement.getContext())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builder of an {@link IndexedMetadataModel}. Not thread-safe.
+     */
+    public static class Builder {
+        private final Map<Resource, Statement[]> statementsBySubject = new HashMap<>();
+        private int size = 0;
+
+        /**
+         * Adds a statement to the model being built; duplicate statements are ignored.
+         * @param statement statement to add
+         * @return this builder
+         */
+        public Builder add(Statement statement) {
+            Statement[] statements = statementsBySubject.get(statement.getSubject());
+            if (statements == null) {
+                statementsBySubject.put(statement.getSubject(), new Statement[] { statement });
+            } else if (!containsStatement(statements, statement)) {
+                Statement[] extended = Arrays.copyOf(statements, statements.length + 1);
+                extended[statements.length] = statement;
+                statementsBySubject.put(statement.getSubject(), extended);
+            } else {
+                return this;
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Creates the model from statements added so far.
+         * @return new model
+         */
+        public IndexedMetadataModel build() {
+            return new IndexedMetadataModel(new HashMap<>(statementsBySubject), size);
+        }
+
+        private static boolean containsStatement(Statement[] statements, Statement statement) {
+            for (Statement existing : statements) {
+                if (existing.equals(statement) && equalContexts(existing.getContext(), statement.getContext())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean equalContexts(Resource context1, Resource context2) {
+            return context1 == null ? context2 == null : context1.equals(context2);
+        }
+    }
+
+    private static class StatementIterator implements Iterator<Statement> {
+        private final Iterator<Statement[]> arrayIterator;
+        private Statement[] current = EMPTY_STATEMENTS;
+        private int index = 0;
+
+        StatementIterator(Iterator<Statement[]> arrayIterator) {
+            this.arrayIterator = arrayIterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index >= current.length && arrayIterator.hasNext()) {
+                current = arrayIterator.next();
+                index = 0;
+            }
+            return index < current.length;
+        }
+
+        @Override
+        public Statement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current[index++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Metadata model is read-only");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.CRContext;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionFunction;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionFunctionRegistry;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ResolutionFunctionNotRegisteredException;
+import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decorator of a {@link ResolutionFunctionRegistry} whose resolution functions record the duration and number
+ * of input statements of every call in a {@link ResolutionFunctionProfile}.
+ * The property of a call is the predicate of its input statements (all statements resolved together share it).
+ * <p>
+ * Not thread-safe, like the registries created for each conflict resolver; the profile may be shared.
+ */
+public class ProfilingResolutionFunctionRegistry implements ResolutionFunctionRegistry {
+    private final ResolutionFunctionRegistry registry;
+    private final ResolutionFunctionProfile profile;
+    private final Map<String, ResolutionFunction> profilingFunctions = new HashMap<>();
+
+    /**
+     * @param registry underlying registry
+     * @param profile profile to record calls to
+     */
+    public ProfilingResolutionFunctionRegistry(ResolutionFunctionRegistry registry, ResolutionFunctionProfile profile) {
+        this.registry = registry;
+        this.profile = profile;
+    }
+
+    @Override
+    public ResolutionFunction get(String resolutionFunctionName) throws ResolutionFunctionNotRegisteredException {
+        String key = resolutionFunctionName.toUpperCase(Locale.ROOT);
+        ResolutionFunction profilingFunction = profilingFunctions.get(key);
+        if (profilingFunction == null) {
+            profilingFunction = new ProfilingResolutionFunction(key, registry.get(resolutionFunctionName));
+            profilingFunctions.put(key, profilingFunction);
+        }
+        return profilingFunction;
+    }
+
+    /**
+     * Registers a resolution function; calls of the function are profiled too.
+     * @param resolutionFunctionName name of the resolution function
+     * @param resolutionFunction resolution function
+     */
+    public void register(String resolutionFunctionName, ResolutionFunction resolutionFunction) {
+        String key = resolutionFunctionName.toUpperCase(Locale.ROOT);
+        profilingFunctions.put(key, new ProfilingResolutionFunction(key, resolutionFunction));
+    }
+
+    private class ProfilingResolutionFunction implements ResolutionFunction {
+        private final String name;
+        private final ResolutionFunction resolutionFunction;
+
+        ProfilingResolutionFunction(String name, ResolutionFunction resolutionFunction) {
+            this.name = name;
+            this.resolutionFunction = resolutionFunction;
+        }
+
+        @Override
+        public Collection<ResolvedStatement> resolve(Model statements, CRContext crContext) throws ConflictResolutionException {
+            URI property = getProperty(statements);
+            int inputStatements = statements.size();
+            long startTime = System.nanoTime();
+            try {
+                return resolutionFunction.resolve(statements, crContext);
+            } finally {
+                profile.record(name, property, inputStatements, System.nanoTime() - startTime);
+            }
+        }
+
+        private URI getProperty(Model statements) {
+            Iterator<Statement> iterator = statements.iterator();
+            return iterator.hasNext() ? iterator.next().getPredicate() : null;
+        }
+    }
+}
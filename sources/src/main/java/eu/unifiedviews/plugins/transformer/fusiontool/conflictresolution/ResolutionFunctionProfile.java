@@ -0,0 +1,188 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LatencyHistogram;
+import org.openrdf.model.URI;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe cost statistics of resolution function calls collected per resolution function and property:
+ * number of calls, latency distribution and number of input (conflicting) statements.
+ * The statistics can be formatted as tables of the most expensive entries.
+ */
+public class ResolutionFunctionProfile {
+    private static final long NANOS_PER_MICRO = 1000;
+    private static final String NO_PROPERTY = "-";
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Records a call of a resolution function.
+     * @param functionName name of the resolution function
+     * @param property property of resolved statements or null if the resolved statements were empty
+     * @param inputStatements number of statements passed to the resolution function
+     * @param nanos duration of the call in nanoseconds
+     */
+    public void record(String functionName, URI property, int inputStatements, long nanos) {
+        String propertyName = property != null ? property.stringValue() : NO_PROPERTY;
+        String key = functionName + ' ' + propertyName;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(functionName, propertyName);
+            Entry previous = entries.putIfAbsent(key, entry);
+            if (previous != null) {
+                entry = previous;
+            }
+        }
+        entry.record(inputStatements, nanos);
+    }
+
+    /**
+     * Returns statistics for each combination of resolution function and property.
+     * @return statistics entries
+     */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Returns statistics aggregated for each resolution function (over all properties).
+     * @return statistics entries with {@code "*"} as the property
+     */
+    public Collection<Entry> getFunctionEntries() {
+        Map<String, Entry> functionEntries = new LinkedHashMap<>();
+        for (Entry entry : entries.values()) {
+            Entry functionEntry = functionEntries.get(entry.getFunctionName());
+            if (functionEntry == null) {
+                functionEntry = new Entry(entry.getFunctionName(), "*");
+                functionEntries.put(entry.getFunctionName(), functionEntry);
+            }
+            functionEntry.add(entry);
+        }
+        return functionEntries.values();
+    }
+
+    /**
+     * Formats a table of entries with the highest total time, one line per entry with a header line.
+     * Times are in microseconds.
+     * @param entries entries to format
+     * @param topCount maximum number of formatted entries
+     * @return formatted lines
+     */
+    public static List<String> formatTopEntries(Collection<Entry> entries, int topCount) {
+        List<Entry> sortedEntries = new ArrayList<>(entries);
+        Collections.sort(sortedEntries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                long t1 = o1.getLatency().getTotal();
+                long t2 = o2.getLatency().getTotal();
+                return t1 > t2 ? -1 : (t1 < t2 ? 1 : 0);
+            }
+        });
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-12s %12s %12s %10s %10s %10s %10s %10s  %s",
+                "Function", "Calls", "Total [ms]", "Mean [us]", "p50 [us]", "p95 [us]", "p99 [us]", "Avg input", "Property"));
+        for (Entry entry : sortedEntries.subList(0, Math.min(topCount, sortedEntries.size()))) {
+            LatencyHistogram latency = entry.getLatency();
+            lines.add(String.format(Locale.ROOT, "%-12s %,12d %,12d %,10.1f %,10d %,10d %,10d %,10.1f  %s",
+                    entry.getFunctionName(),
+                    latency.getCount(),
+                    latency.getTotal() / NANOS_PER_MICRO / 1000,
+                    latency.getMean() / NANOS_PER_MICRO,
+                    latency.getPercentile(50) / NANOS_PER_MICRO,
+                    latency.getPercentile(95) / NANOS_PER_MICRO,
+                    latency.getPercentile(99) / NANOS_PER_MICRO,
+                    entry.getAverageInputStatements(),
+                    entry.getPropertyName()));
+        }
+        return lines;
+    }
+
+    /**
+     * Cost statistics of a resolution function for a property.
+     */
+    public static final class Entry {
+        private final String functionName;
+        private final String propertyName;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong inputStatements = new AtomicLong();
+        private final AtomicLong maxInputStatements = new AtomicLong();
+
+        private Entry(String functionName, String propertyName) {
+            this.functionName = functionName;
+            this.propertyName = propertyName;
+        }
+
+        private void record(int statementCount, long nanos) {
+            latency.record(nanos);
+            inputStatements.addAndGet(statementCount);
+            updateMaxInputStatements(statementCount);
+        }
+
+        private void add(Entry other) {
+            latency.add(other.latency);
+            inputStatements.addAndGet(other.getInputStatements());
+            updateMaxInputStatements(other.getMaxInputStatements());
+        }
+
+        private void updateMaxInputStatements(long statementCount) {
+            long currentMax = maxInputStatements.get();
+            while (statementCount > currentMax && !maxInputStatements.compareAndSet(currentMax, statementCount)) {
+                currentMax = maxInputStatements.get();
+            }
+        }
+
+        /**
+         * @return name of the resolution function
+         */
+        public String getFunctionName() {
+            return functionName;
+        }
+
+        /**
+         * @return URI of the property, {@code "-"} for calls with no input statements, or {@code "*"} for all properties
+         */
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        /**
+         * @return latencies of calls in nanoseconds
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return total number of statements passed to the resolution function
+         */
+        public long getInputStatements() {
+            return inputStatements.get();
+        }
+
+        /**
+         * @return the highest number of statements passed to a single call
+         */
+        public long getMaxInputStatements() {
+            return maxInputStatements.get();
+        }
+
+        /**
+         * @return average number of statements passed to a single call
+         */
+        public double getAverageInputStatements() {
+            long calls = latency.getCount();
+            return calls == 0 ? 0 : (double) getInputStatements() / calls;
+        }
+    }
+}
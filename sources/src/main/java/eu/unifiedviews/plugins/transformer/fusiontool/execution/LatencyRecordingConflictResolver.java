@@ -0,0 +1,66 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LatencyHistogram;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decorator of a conflict resolver which records the resolution time of every resource description
+ * in a {@link LatencyHistogram} and logs resource descriptions whose resolution takes longer than a threshold
+ * (typically descriptions of hub resources with a large number of quads).
+ * Thread-safe if the underlying resolver is; the histogram may be shared.
+ */
+public class LatencyRecordingConflictResolver implements ResourceDescriptionConflictResolver {
+    private static final Logger LOG = LoggerFactory.getLogger(LatencyRecordingConflictResolver.class);
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final ResourceDescriptionConflictResolver conflictResolver;
+    private final LatencyHistogram latencyHistogram;
+    private final long slowThresholdNanos;
+
+    /**
+     * @param conflictResolver underlying conflict resolver
+     * @param latencyHistogram histogram recording resolution times in nanoseconds
+     * @param slowThresholdNanos resolution time in nanoseconds above which the resource description is logged;
+     *      not positive value disables logging
+     */
+    public LatencyRecordingConflictResolver(ResourceDescriptionConflictResolver conflictResolver,
+            LatencyHistogram latencyHistogram, long slowThresholdNanos) {
+        this.conflictResolver = conflictResolver;
+        this.latencyHistogram = latencyHistogram;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    @Override
+    public Collection<ResolvedStatement> resolveConflicts(ResourceDescription resourceDescription) throws ConflictResolutionException {
+        long startTime = System.nanoTime();
+        Collection<ResolvedStatement> result = conflictResolver.resolveConflicts(resourceDescription);
+        long duration = System.nanoTime() - startTime;
+        latencyHistogram.record(duration);
+        if (slowThresholdNanos > 0 && duration > slowThresholdNanos) {
+            logSlowResourceDescription(resourceDescription, duration);
+        }
+        return result;
+    }
+
+    private static void logSlowResourceDescription(ResourceDescription resourceDescription, long duration) {
+        Collection<Statement> statements = resourceDescription.getDescribingStatements();
+        Set<Resource> sourceGraphs = new HashSet<>();
+        for (Statement statement : statements) {
+            sourceGraphs.add(statement.getContext());
+        }
+        LOG.warn(String.format(Locale.ROOT, "Slow resource description %s resolved in %,.1f ms (%,d quads from %,d source graphs)",
+                resourceDescription.getResource(), duration / NANOS_PER_MILLI, statements.size(), sourceGraphs.size()));
+    }
+}
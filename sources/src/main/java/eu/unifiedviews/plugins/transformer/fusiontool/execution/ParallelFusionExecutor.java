@@ -0,0 +1,202 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.fusiontool.util.ProfilingTimeCounter;
+import cz.cuni.mff.odcleanstore.fusiontool.FusionExecutor;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.fiter.ResourceDescriptionFilter;
+import cz.cuni.mff.odcleanstore.fusiontool.util.EnumFusionCounters;
+import cz.cuni.mff.odcleanstore.fusiontool.util.IsCanceledCallback;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fusion executor which resolves conflicts in resource descriptions on a pool of worker threads.
+ * <p>
+ * Resource descriptions are read and filtered on the calling thread and handed to workers; at most
+ * {@link #IN_FLIGHT_DESCRIPTIONS_PER_THREAD} descriptions per worker are in progress at a time, so that memory use
+ * stays bounded. Resolved statements are passed to the input loader and written to the output on the calling thread,
+ * either in the order in which resource descriptions were read (same output as sequential execution) or in the
+ * order in which resolution finishes. Only the futures of in-flight descriptions are referenced by the executor:
+ * when the order is preserved, they are kept in a queue in input order; otherwise a completion service
+ * signals finished resolutions.
+ * <p>
+ * The conflict resolver is called concurrently and must be thread-safe (see {@link ThreadLocalConflictResolver}).
+ * Because the input loader is updated with resolved statements only after resolution,
+ * input loaders whose next resource description depends on previously resolved statements are not supported.
+ */
+public class ParallelFusionExecutor implements FusionExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelFusionExecutor.class);
+
+    /** Number of resource descriptions per worker thread which may be resolved or waiting for resolution at a time. */
+    public static final int IN_FLIGHT_DESCRIPTIONS_PER_THREAD = 4;
+
+    private final int threadCount;
+    private final Long maxOutputTriples;
+    private final ResourceDescriptionFilter resourceDescriptionFilter;
+    private final boolean preserveOutputOrder;
+    private final ProfilingTimeCounter<EnumFusionCounters> timeProfiler;
+    private IsCanceledCallback isCanceledCallback = null;
+
+    /**
+     * @param threadCount number of worker threads
+     * @param maxOutputTriples maximum number of output triples, null for no limit
+     * @param resourceDescriptionFilter filter of resource descriptions which should be processed
+     * @param preserveOutputOrder whether results should be written in the order of input resource descriptions
+     * @param timeProfiler profiler of time spent in individual steps
+     */
+    public ParallelFusionExecutor(int threadCount, Long maxOutputTriples, ResourceDescriptionFilter resourceDescriptionFilter,
+            boolean preserveOutputOrder, ProfilingTimeCounter<EnumFusionCounters> timeProfiler) {
+        this.threadCount = threadCount;
+        this.maxOutputTriples = maxOutputTriples;
+        this.resourceDescriptionFilter = resourceDescriptionFilter;
+        this.preserveOutputOrder = preserveOutputOrder;
+        this.timeProfiler = timeProfiler;
+    }
+
+    /**
+     * Sets callback checked for cancellation of the execution.
+     * @param isCanceledCallback callback
+     */
+    public void setIsCanceledCallback(IsCanceledCallback isCanceledCallback) {
+        this.isCanceledCallback = isCanceledCallback;
+    }
+
+    @Override
+    public void fuse(final ResourceDescriptionConflictResolver conflictResolver, InputLoader inputLoader, CloseableRDFWriter rdfWriter)
+            throws LDFusionToolException, ConflictResolutionException, IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount, new ResolverThreadFactory());
+        // completion queue of the completion service would keep finished futures that are taken from pending in input order
+        CompletionService<Collection<ResolvedStatement>> completionService = preserveOutputOrder
+                ? null
+                : new ExecutorCompletionService<Collection<ResolvedStatement>>(executorService);
+        Deque<Future<Collection<ResolvedStatement>>> pending = new ArrayDeque<>();
+        int maxPending = threadCount * IN_FLIGHT_DESCRIPTIONS_PER_THREAD;
+        long outputTriples = 0;
+        try {
+            while (!isLimitReached(outputTriples)) {
+                if (isCanceled()) {
+                    LOG.warn("Data fusion canceled");
+                    return;
+                }
+
+                timeProfiler.startCounter(EnumFusionCounters.BUFFERING);
+                boolean hasNext = inputLoader.hasNext();
+                final ResourceDescription resourceDescription = hasNext ? inputLoader.next() : null;
+                timeProfiler.stopAddCounter(EnumFusionCounters.BUFFERING);
+                if (!hasNext) {
+                    break;
+                }
+
+                timeProfiler.startCounter(EnumFusionCounters.INPUT_FILTERING);
+                boolean accept = resourceDescriptionFilter.accept(resourceDescription);
+                timeProfiler.stopAddCounter(EnumFusionCounters.INPUT_FILTERING);
+                if (!accept) {
+                    continue;
+                }
+
+                Callable<Collection<ResolvedStatement>> task = new Callable<Collection<ResolvedStatement>>() {
+                    @Override
+                    public Collection<ResolvedStatement> call() throws Exception {
+                        return conflictResolver.resolveConflicts(resourceDescription);
+                    }
+                };
+                pending.add(completionService != null ? completionService.submit(task) : executorService.submit(task));
+                if (pending.size() >= maxPending) {
+                    outputTriples += processResult(takeResult(completionService, pending), inputLoader, rdfWriter);
+                }
+            }
+            while (!pending.isEmpty() && !isLimitReached(outputTriples)) {
+                outputTriples += processResult(takeResult(completionService, pending), inputLoader, rdfWriter);
+            }
+        } finally {
+            for (Future<Collection<ResolvedStatement>> future : pending) {
+                future.cancel(true);
+            }
+            executorService.shutdownNow();
+        }
+    }
+
+    private Collection<ResolvedStatement> takeResult(
+            CompletionService<Collection<ResolvedStatement>> completionService, Deque<Future<Collection<ResolvedStatement>>> pending)
+            throws LDFusionToolException, ConflictResolutionException {
+        timeProfiler.startCounter(EnumFusionCounters.CONFLICT_RESOLUTION);
+        try {
+            Future<Collection<ResolvedStatement>> future;
+            if (completionService == null) {
+                future = pending.poll();
+            } else {
+                future = completionService.take();
+                pending.remove(future);
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LDFusionToolException("Interrupted while waiting for conflict resolution", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConflictResolutionException) {
+                throw (ConflictResolutionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new LDFusionToolException("Error resolving conflicts", cause);
+        } finally {
+            timeProfiler.stopAddCounter(EnumFusionCounters.CONFLICT_RESOLUTION);
+        }
+    }
+
+    private long processResult(Collection<ResolvedStatement> resolvedStatements, InputLoader inputLoader, CloseableRDFWriter rdfWriter)
+            throws LDFusionToolException, IOException {
+        inputLoader.updateWithResolvedStatements(resolvedStatements);
+        timeProfiler.startCounter(EnumFusionCounters.OUTPUT_WRITING);
+        for (ResolvedStatement resolvedStatement : resolvedStatements) {
+            rdfWriter.write(resolvedStatement);
+        }
+        timeProfiler.stopAddCounter(EnumFusionCounters.OUTPUT_WRITING);
+        return resolvedStatements.size();
+    }
+
+    private boolean isLimitReached(long outputTriples) {
+        return maxOutputTriples != null && maxOutputTriples >= 0 && outputTriples >= maxOutputTriples;
+    }
+
+    private boolean isCanceled() {
+        return isCanceledCallback != null && isCanceledCallback.isCanceled();
+    }
+
+    /**
+     * Creates daemon threads, so that a stuck worker cannot prevent the DPU from finishing.
+     */
+    private static class ResolverThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "fusiontool-resolver-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceStatistics;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.ProgressReporter;
+
+import java.util.Collection;
+
+/**
+ * Decorator of a conflict resolver which records resolved resource descriptions in {@link PerformanceStatistics}
+ * and optionally counts them in a {@link ProgressReporter.Stage}.
+ * Thread-safe if the underlying resolver is.
+ */
+public class StatisticsConflictResolver implements ResourceDescriptionConflictResolver {
+    private final ResourceDescriptionConflictResolver conflictResolver;
+    private final PerformanceStatistics statistics;
+    private final ProgressReporter.Stage progressStage;
+
+    /**
+     * @param conflictResolver underlying conflict resolver
+     * @param statistics statistics to update
+     */
+    public StatisticsConflictResolver(ResourceDescriptionConflictResolver conflictResolver, PerformanceStatistics statistics) {
+        this(conflictResolver, statistics, null);
+    }
+
+    /**
+     * @param conflictResolver underlying conflict resolver
+     * @param statistics statistics to update
+     * @param progressStage progress stage counting resolved resource descriptions or null if progress is not reported
+     */
+    public StatisticsConflictResolver(ResourceDescriptionConflictResolver conflictResolver, PerformanceStatistics statistics,
+            ProgressReporter.Stage progressStage) {
+        this.conflictResolver = conflictResolver;
+        this.statistics = statistics;
+        this.progressStage = progressStage;
+    }
+
+    @Override
+    public Collection<ResolvedStatement> resolveConflicts(ResourceDescription resourceDescription) throws ConflictResolutionException {
+        Collection<ResolvedStatement> result = conflictResolver.resolveConflicts(resourceDescription);
+        statistics.recordResolvedResourceDescription();
+        if (progressStage != null) {
+            progressStage.increment();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+
+import java.util.Collection;
+
+/**
+ * Conflict resolver which delegates to a separate resolver instance for each thread,
+ * so that resolvers which are not thread-safe can be used by {@link ParallelFusionExecutor}.
+ * Resolver instances are created lazily by the given provider.
+ */
+public class ThreadLocalConflictResolver implements ResourceDescriptionConflictResolver {
+    /**
+     * Creates conflict resolver instances.
+     */
+    public interface ResolverProvider {
+        /**
+         * Creates a new conflict resolver.
+         * @return new conflict resolver instance
+         */
+        ResourceDescriptionConflictResolver createResolver();
+    }
+
+    private final ThreadLocal<ResourceDescriptionConflictResolver> resolvers;
+
+    /**
+     * @param resolverProvider provider of conflict resolvers; called at most once per thread
+     */
+    public ThreadLocalConflictResolver(final ResolverProvider resolverProvider) {
+        this.resolvers = new ThreadLocal<ResourceDescriptionConflictResolver>() {
+            @Override
+            protected ResourceDescriptionConflictResolver initialValue() {
+                return resolverProvider.createResolver();
+            }
+        };
+    }
+
+    @Override
+    public Collection<ResolvedStatement> resolveConflicts(ResourceDescription resourceDescription) throws ConflictResolutionException {
+        return resolvers.get().resolveConflicts(resourceDescription);
+    }
+}
@@ -0,0 +1,183 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the number of rows requested by a paged load query (LIMIT) from the observed latency.
+ * The page size is doubled while the time per row of full pages keeps improving, and halved when a query
+ * is interrupted (e.g. by a timeout) or when the old generation is almost full even after garbage collection. The page size always stays
+ * within the given bounds; if both bounds are equal, the page size is fixed.
+ * <p>
+ * A shrink or a page without improvement stops growth only temporarily: after {@link #REPROBE_INTERVAL} stable
+ * full pages, a doubled page size is probed again and kept only if it improves the time per row. A single instance
+ * is used for all graphs of a data unit, so a transient timeout or a slow graph doesn't pin the page size down
+ * for the rest of the load.
+ * <p>
+ * Memory reserved for the consumer of loaded quads (e.g. the buffer of the external sorter, which is filled
+ * up to its limit by design) is not counted as memory pressure, see {@link #setReservedMemory(long)}.
+ * Instances are not thread-safe.
+ */
+class AdaptivePageSizeController {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptivePageSizeController.class);
+
+    /** Minimum relative decrease of time per row for which the page size keeps growing. */
+    private static final double MIN_LATENCY_IMPROVEMENT = 0.1;
+
+    /** Fraction of maximum size of a tenured heap pool above which memory is considered low after a collection. */
+    private static final double MEMORY_PRESSURE_THRESHOLD = 0.9;
+
+    /** Number of consecutive stable full pages after which a larger page size is probed again. */
+    static final int REPROBE_INTERVAL = 8;
+
+    private final List<MemoryPoolMXBean> tenuredPools = new ArrayList<>();
+    private final int minPageSize;
+    private final int maxPageSize;
+    private int pageSize;
+    private double lastNanosPerRow = Double.NaN;
+    private boolean isGrowing = true;
+    private int stablePages = 0;
+    private int probedFromPageSize = 0;
+    private long reservedMemory = 0;
+
+    /**
+     * @param initialPageSize page size of the first query; adjusted to the bounds
+     * @param minPageSize minimum page size
+     * @param maxPageSize maximum page size
+     */
+    AdaptivePageSizeController(int initialPageSize, int minPageSize, int maxPageSize) {
+        if (minPageSize < 1 || minPageSize > maxPageSize) {
+            throw new IllegalArgumentException("Invalid page size bounds " + minPageSize + " - " + maxPageSize);
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.pageSize = Math.max(minPageSize, Math.min(maxPageSize, initialPageSize));
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // eden and survivor spaces don't support usage thresholds, only the old generation does
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported()) {
+                tenuredPools.add(pool);
+            }
+        }
+    }
+
+    /**
+     * @return number of rows the next page query should request
+     */
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the amount of heap memory that is expected to be occupied by the consumer of loaded quads,
+     * such as the in-memory buffer of the external sorter. That memory stays reachable until the buffer is
+     * spilled to disk, so it is excluded from the memory pressure check; otherwise a full buffer would keep
+     * the page size at its minimum.
+     * @param reservedMemory reserved memory in bytes
+     */
+    void setReservedMemory(long reservedMemory) {
+        this.reservedMemory = Math.max(0, reservedMemory);
+    }
+
+    /**
+     * Records a successfully loaded page and adjusts the page size for the next query.
+     * @param rowCount number of rows in the page
+     * @param elapsedNanos time it took to evaluate the query and iterate over its result, excluding time spent
+     *      by processing of the loaded rows
+     */
+    void pageLoaded(int rowCount, long elapsedNanos) {
+        if (isMemoryLow()) {
+            stopGrowing();
+            changePageSize(pageSize / 2, "memory is low");
+            return;
+        }
+        if (rowCount < pageSize || rowCount == 0) {
+            // last page of a result tells nothing about the latency of full pages
+            return;
+        }
+        double nanosPerRow = (double) elapsedNanos / rowCount;
+        boolean improved = Double.isNaN(lastNanosPerRow)
+                || nanosPerRow < lastNanosPerRow * (1 - MIN_LATENCY_IMPROVEMENT);
+        lastNanosPerRow = nanosPerRow;
+        if (probedFromPageSize > 0) {
+            int previousPageSize = probedFromPageSize;
+            probedFromPageSize = 0;
+            if (improved) {
+                isGrowing = true;
+                changePageSize(doubledPageSize(), "time per row improved");
+            } else {
+                // keep lastNanosPerRow; the next stable page at the previous size replaces it
+                changePageSize(previousPageSize, "larger page did not improve time per row");
+            }
+        } else if (isGrowing && improved) {
+            changePageSize(doubledPageSize(), "time per row improved");
+        } else {
+            isGrowing = false;
+            stablePages++;
+            if (stablePages >= REPROBE_INTERVAL && pageSize < maxPageSize) {
+                stablePages = 0;
+                probedFromPageSize = pageSize;
+                changePageSize(doubledPageSize(), "page size has been stable for " + REPROBE_INTERVAL + " pages");
+            }
+        }
+    }
+
+    /**
+     * Records an interrupted page query (e.g. due to a timeout) and reduces the page size.
+     * @return true if the page size was reduced and the query should be retried with the new page size,
+     *      false if the page size is already at its minimum
+     */
+    boolean pageInterrupted() {
+        if (pageSize <= minPageSize) {
+            return false;
+        }
+        stopGrowing();
+        changePageSize(pageSize / 2, "query was interrupted");
+        return true;
+    }
+
+    /**
+     * Returns true if a tenured heap pool is close to its maximum size after the last garbage collection.
+     * Usage after collection is used because current usage includes garbage not yet collected.
+     * Reserved memory (see {@link #setReservedMemory(long)}) is excluded from both the usage and the maximum size.
+     * @return true if memory is low; false if the JVM doesn't report usage after collection
+     */
+    protected boolean isMemoryLow() {
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null || usage.getMax() <= reservedMemory) {
+                continue;
+            }
+            long available = usage.getMax() - reservedMemory;
+            if (usage.getUsed() - reservedMemory > available * MEMORY_PRESSURE_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void stopGrowing() {
+        isGrowing = false;
+        stablePages = 0;
+        probedFromPageSize = 0;
+        lastNanosPerRow = Double.NaN;
+    }
+
+    private int doubledPageSize() {
+        return pageSize > maxPageSize / 2 ? maxPageSize : pageSize * 2;
+    }
+
+    private void changePageSize(int newPageSize, String reason) {
+        int boundedPageSize = Math.max(minPageSize, Math.min(maxPageSize, newPageSize));
+        if (boundedPageSize != pageSize) {
+            LOG.info("Changing page size of load queries from {} to {} because {}", pageSize, boundedPageSize, reason);
+            pageSize = boundedPageSize;
+        }
+    }
+}
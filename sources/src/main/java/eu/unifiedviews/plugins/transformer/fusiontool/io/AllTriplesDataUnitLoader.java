@@ -12,44 +12,86 @@ import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.QueryInterruptedException;
 import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQuery;
 import org.openrdf.query.TupleQueryResult;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
 import org.openrdf.rio.RDFHandler;
 import org.openrdf.rio.RDFHandlerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static cz.cuni.mff.odcleanstore.fusiontool.config.LDFTConfigConstants.LOG_LOOP_SIZE;
 
 public class AllTriplesDataUnitLoader implements AllTriplesLoader {
     private static final Logger LOG = LoggerFactory.getLogger(AllTriplesDataUnitLoader.class);
 
+    /** Number of quads passed from the prefetching thread at once. */
+    private static final int PREFETCH_BATCH_SIZE = 1000;
+
     /**
-     * SPARQL query that gets all quads from named graphs optionally limited by named graph restriction pattern.
+     * SPARQL query that gets a page of triples from the named graph bound to variable {@value #GRAPH_VARIABLE}.
      * Must be formatted with arguments:
-     * (1) namespace prefixes declaration
-     * (2) named graph restriction pattern
-     * (3) named graph restriction variable
-     * (4) result size limit
-     * (5) result offset
+     * (1) result size limit
+     * (2) result offset
      */
     private static final String LOAD_SPARQL_QUERY =
             " SELECT ?s ?p ?o"
             + "\n WHERE {"
-            + "\n   GRAPH <%1s> {"
+            + "\n   GRAPH ?g {"
+            + "\n     ?s ?p ?o"
+            + "\n   }"
+            + "\n }"
+            + "\n LIMIT %1$s OFFSET %2$s";
+
+    /**
+     * SPARQL query that gets a page of quads from a group of named graphs.
+     * Must be formatted with arguments:
+     * (1) space-separated list of graph URIs enclosed in angle brackets
+     * (2) result size limit
+     * (3) result offset
+     */
+    private static final String LOAD_GRAPH_GROUP_SPARQL_QUERY =
+            " SELECT ?g ?s ?p ?o"
+            + "\n WHERE {"
+            + "\n   VALUES ?g { %1$s }"
+            + "\n   GRAPH ?g {"
             + "\n     ?s ?p ?o"
             + "\n   }"
             + "\n }"
             + "\n LIMIT %2$s OFFSET %3$s";
 
+    /** Variable of {@link #LOAD_SPARQL_QUERY} and {@link #LOAD_GRAPH_GROUP_SPARQL_QUERY} for the loaded graph. */
+    private static final String GRAPH_VARIABLE = "g";
+
+    /** Maximum number of prepared load queries (one per page offset) kept for reuse. */
+    private static final int MAX_PREPARED_QUERIES = 64;
+
     private RepositoryConnection _connection;
     private final URI defaultContext;
     private final RDFDataUnit rdfInput;
     private int maxSparqlResultsSize = LDFTConfigConstants.DEFAULT_SPARQL_RESULT_MAX_ROWS;
+    private boolean useStatementCursor = false;
+    private int prefetchBatches = 0;
+    private int graphGroupSize = 1;
+    private int minPageSize = 0;
+    private int maxPageSize = 0;
+    private long reservedMemory = 0;
+    private AdaptivePageSizeController pageSizeController;
+    private final Map<Integer, TupleQuery> preparedQueries = new HashMap<>();
+    private int preparedQueriesLimit;
+    /** Time spent in the handler while passing quads of the last query result to it. */
+    private long lastQueryHandlerNanos;
 
     public AllTriplesDataUnitLoader(RDFDataUnit rdfInput) throws DataUnitException {
         RDFDataUnit.Iteration defaultContextIteration = rdfInput.getIteration();
@@ -65,69 +107,278 @@ public class AllTriplesDataUnitLoader implements AllTriplesLoader {
 
     public void setMaxSparqlResultsSize(int maxSparqlResultsSize) {
         this.maxSparqlResultsSize = maxSparqlResultsSize;
+        this.pageSizeController = null;
+    }
+
+    /**
+     * Enables adaptive page size of load queries. The page size starts at the value given by
+     * {@link #setMaxSparqlResultsSize(int)}, grows while the time per loaded quad improves and shrinks when
+     * a query is interrupted (e.g. by a timeout) or memory is low.
+     * @param minPageSize minimum page size
+     * @param maxPageSize maximum page size
+     */
+    public void setAdaptivePageSize(int minPageSize, int maxPageSize) {
+        if (minPageSize < 1 || minPageSize > maxPageSize) {
+            throw new IllegalArgumentException("Invalid page size bounds " + minPageSize + " - " + maxPageSize);
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.pageSizeController = null;
+    }
+
+    /**
+     * Sets the amount of heap memory occupied by the consumer of loaded quads by design (e.g. the in-memory
+     * buffer of the external sorter), which is not considered memory pressure by the adaptive page size.
+     * @param reservedMemory reserved memory in bytes
+     * @see #setAdaptivePageSize(int, int)
+     */
+    public void setReservedMemory(long reservedMemory) {
+        this.reservedMemory = reservedMemory;
+        this.pageSizeController = null;
+    }
+
+    /**
+     * Sets whether each graph is read in a single pass with a statement cursor
+     * instead of paged SPARQL queries with LIMIT/OFFSET.
+     * @param useStatementCursor true to read graphs with a statement cursor
+     */
+    public void setUseStatementCursor(boolean useStatementCursor) {
+        this.useStatementCursor = useStatementCursor;
+    }
+
+    /**
+     * Sets the number of quad batches read ahead by a background thread while the handler processes previous quads.
+     * The background thread is the only user of the data unit connection during {@link #loadAllTriples(RDFHandler)}.
+     * @param prefetchBatches maximum number of quad batches waiting to be processed; 0 means quads are read
+     *      on the calling thread
+     */
+    public void setPrefetchBatches(int prefetchBatches) {
+        this.prefetchBatches = prefetchBatches;
+    }
+
+    /**
+     * Sets the maximum number of graphs whose quads are read with a single query.
+     * Grouping reduces the number of queries for inputs made of many small graphs;
+     * it doesn't apply when graphs are read with a statement cursor.
+     * @param graphGroupSize maximum number of graphs in a query; 1 means each graph is read with its own queries
+     */
+    public void setGraphGroupSize(int graphGroupSize) {
+        this.graphGroupSize = graphGroupSize;
     }
 
     @Override
     public void loadAllTriples(RDFHandler rdfHandler) throws LDFusionToolException {
         LOG.info("Loading input quads from data unit");
-        RDFDataUnit.Iteration contextsIteration = null;
         try {
             rdfHandler.startRDF();
             long totalStartTime = System.currentTimeMillis();
-            int totalLoadedQuads = 0;
-            contextsIteration = rdfInput.getIteration();
-            while (contextsIteration.hasNext()) {
-                totalLoadedQuads += loadAllTriplesForGraph(contextsIteration.next().getDataGraphURI(), rdfHandler);
-            }
+            long totalLoadedQuads = prefetchBatches > 0
+                    ? loadAllGraphsWithPrefetch(rdfHandler)
+                    : loadAllGraphs(rdfHandler);
             rdfHandler.endRDF();
             LOG.info("Loaded {} input quads from data unit in {}", totalLoadedQuads,  LDFusionToolUtils.formatTime(System.currentTimeMillis() - totalStartTime));
         } catch (RDFHandlerException e) {
             throw new LDFusionToolException("Error processing quads from data unit: " + e.getMessage(), e);
         } catch (DataUnitException | OpenRDFException e) {
             throw new LDFusionToolException("Error loading quads from data unit: " + e.getMessage(), e);
-        } finally {
-            if (contextsIteration != null) {
-                try {
-                    contextsIteration.close();
-                } catch (DataUnitException e) {
-                    LOG.error(e.getMessage(), e);
+        }
+    }
+
+    private long loadAllGraphs(RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
+        RDFDataUnit.Iteration contextsIteration = rdfInput.getIteration();
+        try {
+            boolean groupGraphs = graphGroupSize > 1 && !useStatementCursor;
+            List<URI> graphGroup = new ArrayList<>();
+            long totalLoadedQuads = 0;
+            while (contextsIteration.hasNext()) {
+                URI dataGraphURI = contextsIteration.next().getDataGraphURI();
+                if (!groupGraphs) {
+                    totalLoadedQuads += loadAllTriplesForGraph(dataGraphURI, rdfHandler);
+                    continue;
                 }
+                graphGroup.add(dataGraphURI);
+                if (graphGroup.size() >= graphGroupSize) {
+                    totalLoadedQuads += loadAllTriplesForGraphGroup(graphGroup, rdfHandler);
+                    graphGroup.clear();
+                }
+            }
+            if (!graphGroup.isEmpty()) {
+                totalLoadedQuads += loadAllTriplesForGraphGroup(graphGroup, rdfHandler);
+            }
+            return totalLoadedQuads;
+        } finally {
+            try {
+                contextsIteration.close();
+            } catch (DataUnitException e) {
+                LOG.error(e.getMessage(), e);
             }
         }
     }
 
-    private int loadAllTriplesForGraph(URI dataGraphURI, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
+    /**
+     * Reads all graphs on a background thread and passes the quads to the handler on the calling thread
+     * through a queue of at most {@link #prefetchBatches} batches, so that reading the next page of quads
+     * overlaps with processing of the previous one.
+     */
+    private long loadAllGraphsWithPrefetch(RDFHandler rdfHandler) throws RDFHandlerException, LDFusionToolException {
+        QuadBatchQueue quadQueue = new QuadBatchQueue(prefetchBatches, PREFETCH_BATCH_SIZE);
+        Thread prefetchThread = new Thread(new PrefetchWorker(quadQueue.newProducer()), "fusiontool-prefetch");
+        prefetchThread.setDaemon(true);
+        prefetchThread.start();
+        try {
+            return quadQueue.drainTo(rdfHandler, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LDFusionToolException("Loading of quads from data unit was interrupted", e);
+        } finally {
+            // unblocks the prefetching thread in case of an error and makes sure it no longer uses the connection
+            prefetchThread.interrupt();
+            try {
+                prefetchThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Loads all quads from a single graph of the data unit.
+     * Unlike {@link #loadAllTriples(RDFHandler)}, doesn't call startRDF()/endRDF() on the handler.
+     * @param dataGraphURI graph to load
+     * @param rdfHandler handler the loaded quads are passed to
+     * @return number of loaded quads
+     */
+    int loadAllTriplesForGraph(URI dataGraphURI, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
         LOG.debug("Loading input quads from data unit for graph {}", dataGraphURI);
+        if (useStatementCursor) {
+            return addQuadsFromStatementCursor(dataGraphURI, rdfHandler);
+        }
+        return addQuadsFromPagedQueries(dataGraphURI, null, rdfHandler);
+    }
+
+    /**
+     * Loads all quads from a group of graphs of the data unit with queries over all graphs of the group.
+     * @param dataGraphURIs graphs to load
+     * @param rdfHandler handler the loaded quads are passed to
+     * @return number of loaded quads
+     */
+    private int loadAllTriplesForGraphGroup(List<URI> dataGraphURIs, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
+        LOG.debug("Loading input quads from data unit for a group of {} graphs", dataGraphURIs.size());
+        return addQuadsFromPagedQueries(null, formatGraphList(dataGraphURIs), rdfHandler);
+    }
+
+    /**
+     * Loads quads with paged queries either from a single graph or from a group of graphs.
+     * The size of each page is chosen by the page size controller. A page whose query is interrupted before
+     * any of its quads are passed to the handler is retried with a smaller page size if possible.
+     * @param dataGraphURI graph to load or null if a group of graphs is loaded
+     * @param graphList formatted list of graphs to load if dataGraphURI is null
+     * @param rdfHandler handler the loaded quads are passed to
+     * @return number of loaded quads
+     */
+    private int addQuadsFromPagedQueries(URI dataGraphURI, String graphList, RDFHandler rdfHandler)
+            throws OpenRDFException, DataUnitException {
+        AdaptivePageSizeController pageSizeController = getPageSizeController();
         int totalLoadedQuads = 0;
-        int lastLoadedQuads = Integer.MAX_VALUE;
-        for (int offset = 0; lastLoadedQuads >= maxSparqlResultsSize; offset += lastLoadedQuads) {
-            String query = formatQuery(dataGraphURI, maxSparqlResultsSize, offset);
-            lastLoadedQuads = addQuadsFromQuery(dataGraphURI, query, rdfHandler);
-            totalLoadedQuads += lastLoadedQuads;
+        int offset = 0;
+        while (true) {
+            int pageSize = pageSizeController.getPageSize();
+            TupleQuery query = getPageQuery(dataGraphURI, graphList, pageSize, offset);
+            long startTime = System.nanoTime();
+            int loadedQuads;
+            try {
+                loadedQuads = addQuadsFromQuery(query, dataGraphURI, rdfHandler);
+            } catch (QueryInterruptedException e) {
+                if (pageSizeController.pageInterrupted()) {
+                    continue;
+                }
+                throw e;
+            }
+            // only the query and the iteration over its result are timed, the handler may block (e.g. on a full queue)
+            pageSizeController.pageLoaded(loadedQuads, System.nanoTime() - startTime - lastQueryHandlerNanos);
+            offset += loadedQuads;
+            totalLoadedQuads += loadedQuads;
 
-            if ((totalLoadedQuads - lastLoadedQuads) / LOG_LOOP_SIZE != totalLoadedQuads / LOG_LOOP_SIZE) {
+            if (dataGraphURI != null && (totalLoadedQuads - loadedQuads) / LOG_LOOP_SIZE != totalLoadedQuads / LOG_LOOP_SIZE) {
                 LOG.info("ODCS-FusionTool: Loaded {} quads from graph {} so far", totalLoadedQuads, dataGraphURI);
             }
+            if (loadedQuads < pageSize) {
+                return totalLoadedQuads;
+            }
+        }
+    }
+
+    private TupleQuery getPageQuery(URI dataGraphURI, String graphList, int pageSize, int offset)
+            throws OpenRDFException, DataUnitException {
+        if (dataGraphURI != null) {
+            TupleQuery query = getLoadQuery(pageSize, offset);
+            query.setBinding(GRAPH_VARIABLE, dataGraphURI);
+            return query;
+        }
+        String sparqlQuery = String.format(Locale.ROOT, LOAD_GRAPH_GROUP_SPARQL_QUERY, graphList, pageSize, offset);
+        return getConnection().prepareTupleQuery(QueryLanguage.SPARQL, sparqlQuery);
+    }
+
+    private AdaptivePageSizeController getPageSizeController() {
+        if (pageSizeController == null) {
+            pageSizeController = minPageSize > 0
+                    ? new AdaptivePageSizeController(maxSparqlResultsSize, minPageSize, maxPageSize)
+                    : new AdaptivePageSizeController(maxSparqlResultsSize, maxSparqlResultsSize, maxSparqlResultsSize);
+            pageSizeController.setReservedMemory(reservedMemory);
+        }
+        return pageSizeController;
+    }
+
+    private int addQuadsFromStatementCursor(URI dataGraphURI, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
+        int quadCount = 0;
+        RepositoryResult<Statement> statements = getConnection().getStatements(null, null, null, false, dataGraphURI);
+        try {
+            while (statements.hasNext()) {
+                rdfHandler.handleStatement(statements.next());
+                quadCount++;
+                if (quadCount % LOG_LOOP_SIZE == 0) {
+                    LOG.info("ODCS-FusionTool: Loaded {} quads from graph {} so far", quadCount, dataGraphURI);
+                }
+            }
+        } finally {
+            statements.close();
         }
-        return totalLoadedQuads;
+        return quadCount;
     }
 
-    private int addQuadsFromQuery(URI dataGraphURI, String sparqlQuery, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
+    /**
+     * Passes quads from the result of a load query to the handler.
+     * @param query load query
+     * @param dataGraphURI context of the loaded quads or null if it is given by variable {@value #GRAPH_VARIABLE}
+     *      in the query result
+     * @param rdfHandler handler the loaded quads are passed to; time spent in the handler is stored in
+     *      {@link #lastQueryHandlerNanos}
+     * @return number of loaded quads
+     */
+    private int addQuadsFromQuery(TupleQuery query, URI dataGraphURI, RDFHandler rdfHandler) throws OpenRDFException, DataUnitException {
         int quadCount = 0;
-        RepositoryConnection connection = getConnection();
-        TupleQueryResult resultSet = connection.prepareTupleQuery(QueryLanguage.SPARQL, sparqlQuery).evaluate();
+        long handlerNanos = 0;
+        TupleQueryResult resultSet = query.evaluate();
         try {
-            ValueFactory valueFactory = connection.getRepository().getValueFactory();
+            ValueFactory valueFactory = getConnection().getRepository().getValueFactory();
             while (resultSet.hasNext()) {
                 BindingSet bindings = resultSet.next();
                 Statement quad = valueFactory.createStatement(
                         (Resource) bindings.getValue("s"),
                         (URI) bindings.getValue("p"),
                         bindings.getValue("o"),
-                        dataGraphURI);
+                        dataGraphURI != null ? dataGraphURI : (Resource) bindings.getValue(GRAPH_VARIABLE));
+                long handlerStartTime = System.nanoTime();
                 rdfHandler.handleStatement(quad);
+                handlerNanos += System.nanoTime() - handlerStartTime;
                 quadCount++;
             }
+        } catch (QueryInterruptedException e) {
+            if (quadCount > 0) {
+                // quads already passed to the handler would be duplicated if the page was retried
+                throw new QueryEvaluationException("Load query interrupted after " + quadCount + " quads: " + e.getMessage(), e);
+            }
+            throw e;
         } finally {
             resultSet.close();
             //if (connection instanceof VirtuosoRepositoryConnection)
@@ -139,6 +390,7 @@ public class AllTriplesDataUnitLoader implements AllTriplesLoader {
             //    }
             //}
         }
+        lastQueryHandlerNanos = handlerNanos;
         return quadCount;
     }
 
@@ -159,10 +411,41 @@ public class AllTriplesDataUnitLoader implements AllTriplesLoader {
     //    }
     //}
 
-    private String formatQuery(URI graph, int limit, int offset) {
+    /**
+     * Returns the load query for the given page, prepared on the connection of this loader.
+     * Queries are parsed once per page offset and reused for all graphs with the graph bound as a binding,
+     * so that loading many small graphs doesn't parse a new query for each of them.
+     */
+    private TupleQuery getLoadQuery(int limit, int offset) throws OpenRDFException, DataUnitException {
+        if (limit != preparedQueriesLimit) {
+            preparedQueries.clear();
+            preparedQueriesLimit = limit;
+        }
+        TupleQuery query = preparedQueries.get(offset);
+        if (query == null) {
+            if (preparedQueries.size() >= MAX_PREPARED_QUERIES) {
+                preparedQueries.clear();
+            }
+            query = getConnection().prepareTupleQuery(QueryLanguage.SPARQL, formatQuery(limit, offset));
+            preparedQueries.put(offset, query);
+        }
+        return query;
+    }
+
+    private static String formatGraphList(List<URI> graphs) {
+        StringBuilder result = new StringBuilder();
+        for (URI graph : graphs) {
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append('<').append(graph.stringValue()).append('>');
+        }
+        return result.toString();
+    }
+
+    private String formatQuery(int limit, int offset) {
         return String.format(Locale.ROOT,
                 LOAD_SPARQL_QUERY,
-                graph.stringValue(),
                 limit,
                 offset);
     }
@@ -172,8 +455,37 @@ public class AllTriplesDataUnitLoader implements AllTriplesLoader {
         return defaultContext;
     }
 
+    /**
+     * Reads all graphs of the data unit into a producer of a {@link QuadBatchQueue}.
+     */
+    private class PrefetchWorker implements Runnable {
+        private final QuadBatchQueue.Producer producer;
+
+        PrefetchWorker(QuadBatchQueue.Producer producer) {
+            this.producer = producer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                loadAllGraphs(producer);
+                producer.finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                // errors must be signalled too, otherwise the consumer would wait for the end of prefetching forever
+                try {
+                    producer.fail(e);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
     @Override
     public void close() throws LDFusionToolException {
+        preparedQueries.clear();
         try {
             if (_connection != null) {
                 _connection.close();
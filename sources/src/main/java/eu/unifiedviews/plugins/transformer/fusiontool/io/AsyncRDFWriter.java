@@ -0,0 +1,180 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
+import org.openrdf.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decorator of an output writer which writes on a dedicated thread, so that output I/O overlaps with
+ * conflict resolution.
+ * Statements are handed over in batches through a bounded queue; the writing thread blocks when the queue is full.
+ * An error of the underlying writer, including an {@link Error} thrown on the writer thread, is rethrown on the next
+ * write or on {@link #close()}; close() waits until all queued statements are written and closes the underlying writer.
+ * Instances must be used from a single thread.
+ */
+public class AsyncRDFWriter extends CloseableRDFWriterBase {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncRDFWriter.class);
+    /** Empty batch marking the end of output; preallocated so that it can be sent even when memory runs out. */
+    private static final List<Object> END_OF_OUTPUT = Collections.emptyList();
+
+    private final CloseableRDFWriter rdfWriter;
+    private final BlockingQueue<List<Object>> queue;
+    private final int batchSize;
+    private final AtomicReference<Throwable> writerError = new AtomicReference<>();
+    private final Thread writerThread;
+    private List<Object> batch;
+    private boolean isClosed = false;
+
+    /**
+     * @param rdfWriter underlying writer; used only from the writer thread until this writer is closed
+     * @param queueCapacity maximum number of batches waiting to be written
+     * @param batchSize number of statements in a batch
+     */
+    public AsyncRDFWriter(CloseableRDFWriter rdfWriter, int queueCapacity, int batchSize) {
+        this.rdfWriter = rdfWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+        this.writerThread = new Thread(new Writer(), "fusiontool-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void write(Statement quad) throws IOException {
+        add(quad);
+    }
+
+    @Override
+    public void write(ResolvedStatement resolvedStatement) throws IOException {
+        add(resolvedStatement);
+    }
+
+    @Override
+    public void addNamespace(String prefix, String uri) throws IOException {
+        add(new Namespace(prefix, uri));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+            queue.put(END_OF_OUTPUT);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            writerThread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output to be written");
+        } finally {
+            batch = null;
+            closeWriter();
+        }
+        checkWriterError();
+    }
+
+    private void add(Object item) throws IOException {
+        if (isClosed) {
+            throw new IOException("Writer is closed");
+        }
+        batch.add(item);
+        if (batch.size() >= batchSize) {
+            checkWriterError();
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for output to be written");
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        try {
+            rdfWriter.close();
+        } catch (IOException e) {
+            if (writerError.get() == null) {
+                throw e;
+            }
+            LOG.error("Error closing output writer: " + e.getMessage(), e);
+        }
+    }
+
+    private void checkWriterError() throws IOException {
+        Throwable error = writerError.get();
+        if (error instanceof IOException) {
+            throw new IOException("Error writing output: " + error.getMessage(), error);
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+
+    private static void writeItem(CloseableRDFWriter rdfWriter, Object item) throws IOException {
+        if (item instanceof ResolvedStatement) {
+            rdfWriter.write((ResolvedStatement) item);
+        } else if (item instanceof Statement) {
+            rdfWriter.write((Statement) item);
+        } else {
+            Namespace namespace = (Namespace) item;
+            rdfWriter.addNamespace(namespace.prefix, namespace.uri);
+        }
+    }
+
+    /**
+     * Writes batches from the queue until the end of output.
+     * After an error (including an {@link Error}), remaining batches are discarded so that the resolving thread
+     * never blocks on a full queue.
+     */
+    private class Writer implements Runnable {
+        @Override
+        public void run() {
+            try {
+                List<Object> items;
+                while (!(items = queue.take()).isEmpty()) {
+                    if (writerError.get() != null) {
+                        continue;
+                    }
+                    try {
+                        for (Object item : items) {
+                            writeItem(rdfWriter, item);
+                        }
+                    } catch (Throwable e) {
+                        writerError.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Namespace {
+        private final String prefix;
+        private final String uri;
+
+        Namespace(String prefix, String uri) {
+            this.prefix = prefix;
+            this.uri = uri;
+        }
+    }
+}
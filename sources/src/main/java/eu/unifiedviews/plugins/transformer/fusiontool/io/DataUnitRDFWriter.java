@@ -4,8 +4,10 @@ import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
 import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
 import eu.unifiedviews.dataunit.DataUnitException;
 import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
 
@@ -14,16 +16,31 @@ import java.io.IOException;
 public class DataUnitRDFWriter extends CloseableRDFWriterBase {
     private final RepositoryConnection connection;
     private final URI context;
+    private final StatementBatchWriter batchWriter;
+    private final ValueFactory valueFactory;
 
     public DataUnitRDFWriter(WritableRDFDataUnit dataUnit, String dataGraphSymbolicName) throws DataUnitException {
+        this(dataUnit, dataGraphSymbolicName, FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE);
+    }
+
+    /**
+     * @param dataUnit output data unit
+     * @param dataGraphSymbolicName symbolic name of the output data graph
+     * @param writeBatchSize number of statements written in a single transaction; statements are buffered until
+     *      the batch is full or the writer is closed
+     * @throws DataUnitException error accessing the data unit
+     */
+    public DataUnitRDFWriter(WritableRDFDataUnit dataUnit, String dataGraphSymbolicName, int writeBatchSize) throws DataUnitException {
         this.connection = dataUnit.getConnection();
         context = dataUnit.addNewDataGraph(dataGraphSymbolicName);
+        batchWriter = new StatementBatchWriter(connection, writeBatchSize);
+        valueFactory = connection.getValueFactory();
     }
 
     @Override
     public void write(Statement quad) throws IOException {
         try {
-            connection.add(quad, context);
+            batchWriter.add(valueFactory.createStatement(quad.getSubject(), quad.getPredicate(), quad.getObject(), context));
         } catch (RepositoryException e) {
             throw new IOException("Error writing to data unit", e);
         }
@@ -41,6 +58,16 @@ public class DataUnitRDFWriter extends CloseableRDFWriterBase {
 
     @Override
     public void close() throws IOException {
+        try {
+            batchWriter.flush();
+        } catch (RepositoryException e) {
+            throw new IOException("Error writing to data unit", e);
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() throws IOException {
         try {
             connection.close();
         } catch (RepositoryException e) {
@@ -0,0 +1,174 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes resolved statements together with their metadata (quality and source graphs) to a data unit.
+ * Unlike {@link DataUnitRDFWriterWithMetadata}, resolved statements sharing the same quality and set of
+ * source graphs are placed to a single shared named graph, so metadata are written only once for each such group.
+ * All statements are written in transactional batches.
+ */
+public class DataUnitRDFWriterWithCompactMetadata extends CloseableRDFWriterBase {
+    /** Maximum number of metadata groups whose named graphs are remembered for reuse. */
+    public static final int MAX_CACHED_METADATA_GROUPS = 100000;
+
+    private final RepositoryConnection connection;
+    private final URI defaultContext;
+    private final WritableRDFDataUnit dataUnit;
+    private final String dataGraphSymbolicName;
+    private final URI metadataContext;
+    private final ValueFactory valueFactory;
+    private final StatementBatchWriter batchWriter;
+    private final Map<MetadataGroup, URI> groupContexts = new MetadataGroupCache();
+    private long counter = 0;
+
+    /**
+     * @param dataUnit output data unit
+     * @param dataGraphSymbolicName symbolic name of the output data graph; also used as prefix of metadata group graphs
+     * @param metadataGraphSymbolicName symbolic name of the output metadata graph
+     * @param writeBatchSize number of statements written in a single transaction
+     * @throws DataUnitException error accessing the data unit
+     */
+    public DataUnitRDFWriterWithCompactMetadata(
+            WritableRDFDataUnit dataUnit, String dataGraphSymbolicName, String metadataGraphSymbolicName, int writeBatchSize)
+            throws DataUnitException {
+        this.dataUnit = dataUnit;
+        this.dataGraphSymbolicName = dataGraphSymbolicName;
+        connection = dataUnit.getConnection();
+        defaultContext = dataUnit.addNewDataGraph(dataGraphSymbolicName);
+        metadataContext = dataUnit.addNewDataGraph(metadataGraphSymbolicName);
+        valueFactory = connection.getValueFactory();
+        batchWriter = new StatementBatchWriter(connection, writeBatchSize);
+    }
+
+    @Override
+    public void write(Statement quad) throws IOException {
+        try {
+            batchWriter.add(valueFactory.createStatement(quad.getSubject(), quad.getPredicate(), quad.getObject(), defaultContext));
+        } catch (RepositoryException e) {
+            throw new IOException("Error writing to data unit", e);
+        }
+    }
+
+    @Override
+    public void write(ResolvedStatement resolvedStatement) throws IOException {
+        try {
+            URI statementContext = getGroupContext(resolvedStatement.getQuality(), resolvedStatement.getSourceGraphNames());
+            Statement statement = resolvedStatement.getStatement();
+            batchWriter.add(valueFactory.createStatement(
+                    statement.getSubject(), statement.getPredicate(), statement.getObject(), statementContext));
+        } catch (DataUnitException | RepositoryException e) {
+            throw new IOException("Error writing to data unit", e);
+        }
+    }
+
+    private URI getGroupContext(double quality, Collection<Resource> sourceGraphs) throws DataUnitException, RepositoryException {
+        MetadataGroup group = new MetadataGroup(quality, sourceGraphs);
+        URI groupContext = groupContexts.get(group);
+        if (groupContext == null) {
+            groupContext = dataUnit.addNewDataGraph(
+                    dataGraphSymbolicName + DataUnitRDFWriterWithMetadata.DATA_GRAPH_NAME_INFIX + Long.toString(++counter));
+            batchWriter.add(valueFactory.createStatement(
+                    groupContext, ODCS.QUALITY, valueFactory.createLiteral(quality), metadataContext));
+            for (Resource sourceGraph : group.sourceGraphs) {
+                batchWriter.add(valueFactory.createStatement(groupContext, ODCS.SOURCE_GRAPH, sourceGraph, metadataContext));
+            }
+            groupContexts.put(group, groupContext);
+        }
+        return groupContext;
+    }
+
+    @Override
+    public void addNamespace(String prefix, String uri) throws IOException {
+        /* do nothing */
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            batchWriter.flush();
+        } catch (RepositoryException e) {
+            throw new IOException("Error writing to data unit", e);
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() throws IOException {
+        try {
+            connection.close();
+        } catch (RepositoryException e) {
+            throw new IOException("Error closing data unit connection", e);
+        }
+    }
+
+    /**
+     * Key identifying resolved statements with the same quality and set of source graphs.
+     */
+    private static class MetadataGroup {
+        private final long qualityBits;
+        private final Resource[] sourceGraphs;
+        private final int hashCode;
+
+        MetadataGroup(double quality, Collection<Resource> sourceGraphs) {
+            this.qualityBits = Double.doubleToLongBits(quality);
+            TreeMap<String, Resource> sortedSourceGraphs = new TreeMap<>();
+            for (Resource sourceGraph : sourceGraphs) {
+                sortedSourceGraphs.put(sourceGraph.stringValue(), sourceGraph);
+            }
+            this.sourceGraphs = sortedSourceGraphs.values().toArray(new Resource[sortedSourceGraphs.size()]);
+            this.hashCode = 31 * Arrays.hashCode(this.sourceGraphs) + (int) (qualityBits ^ (qualityBits >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MetadataGroup)) {
+                return false;
+            }
+            MetadataGroup other = (MetadataGroup) o;
+            return qualityBits == other.qualityBits && Arrays.equals(sourceGraphs, other.sourceGraphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * LRU cache of named graphs of metadata groups. When a group is evicted, its statements
+     * written later get a new named graph with its own copy of metadata.
+     */
+    private static class MetadataGroupCache extends LinkedHashMap<MetadataGroup, URI> {
+        private static final long serialVersionUID = 1L;
+
+        MetadataGroupCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MetadataGroup, URI> eldest) {
+            return size() > MAX_CACHED_METADATA_GROUPS;
+        }
+    }
+}
@@ -6,55 +6,100 @@ import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
 import cz.cuni.mff.odcleanstore.fusiontool.util.CloseableRepositoryConnection;
 import eu.unifiedviews.dataunit.DataUnitException;
 import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.AbstractIntUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.ProgressReporter;
 import org.openrdf.OpenRDFException;
+import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
-import org.openrdf.query.GraphQueryResult;
-import org.openrdf.query.MalformedQueryException;
-import org.openrdf.query.QueryEvaluationException;
-import org.openrdf.query.QueryLanguage;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Set;
 
+/**
+ * Loads owl:sameAs-like links from a data unit to a URI mapping.
+ * Links are streamed from the repository one link type at a time, so they are never held in memory all at once.
+ */
 public class DataUnitSameAsLinkLoader {
     private static final Logger LOG = LoggerFactory.getLogger(DataUnitSameAsLinkLoader.class);
-    private static RDFDataUnit dataUnit;
-    private static Set<URI> sameAsLinkTypes;
+    private final RDFDataUnit dataUnit;
+    private final Set<URI> sameAsLinkTypes;
+    private ProgressReporter.Stage progressStage = null;
 
     public DataUnitSameAsLinkLoader(RDFDataUnit dataUnit, Set<URI> sameAsLinkTypes) {
         this.dataUnit = dataUnit;
         this.sameAsLinkTypes = sameAsLinkTypes;
     }
 
-    public void loadSameAsLinks(UriMappingIterableImpl uriMapping) throws LDFusionToolException {
+    /**
+     * Sets the progress stage counting loaded links.
+     * @param progressStage progress stage or null if progress is not reported
+     */
+    public void setProgressStage(ProgressReporter.Stage progressStage) {
+        this.progressStage = progressStage;
+    }
+
+    public void loadSameAsLinks(final UriMappingIterableImpl uriMapping) throws LDFusionToolException {
+        loadSameAsLinks(new LinkHandler() {
+            @Override
+            public void addLink(Statement link) {
+                uriMapping.addLink(link);
+            }
+        });
+    }
+
+    /**
+     * Loads links to a URI mapping with integer IDs; paths in the mapping are compressed after all links are loaded.
+     * @param uriMapping URI mapping to add links to
+     * @throws LDFusionToolException error reading links
+     */
+    public void loadSameAsLinks(final AbstractIntUriMapping uriMapping) throws LDFusionToolException {
+        loadSameAsLinks(new LinkHandler() {
+            @Override
+            public void addLink(Statement link) {
+                uriMapping.addLink(link);
+            }
+        });
+        uriMapping.compressPaths();
+    }
+
+    private void loadSameAsLinks(LinkHandler linkHandler) throws LDFusionToolException {
         LOG.info("Loading sameAs links...");
         try (CloseableRepositoryConnection connection = new CloseableRepositoryConnection(dataUnit.getConnection())) {
             long startTime = System.currentTimeMillis();
-            long loadedCount = loadFromConnection(uriMapping, connection.get());
+            long loadedCount = loadFromConnection(linkHandler, connection.get());
             LOG.info(String.format("Loaded & resolved %,d sameAs links in %,d ms", loadedCount, System.currentTimeMillis() - startTime));
         } catch (OpenRDFException | DataUnitException e) {
             throw new LDFusionToolException("Error when loading owl:sameAs links from input", e);
         }
     }
 
-    private long loadFromConnection(UriMappingIterableImpl uriMapping, RepositoryConnection connection)
-            throws QueryEvaluationException, RepositoryException, MalformedQueryException {
-
+    private long loadFromConnection(LinkHandler linkHandler, RepositoryConnection connection) throws RepositoryException {
         long loadedCount = 0;
         for (URI link : sameAsLinkTypes) {
-            String query = String.format("CONSTRUCT {?s <%1$s> ?o} WHERE {?s <%1$s> ?o}", link.stringValue());
-            GraphQueryResult sameAsTriples = connection.prepareGraphQuery(QueryLanguage.SPARQL, query).evaluate();
-            while (sameAsTriples.hasNext()) {
-                uriMapping.addLink(sameAsTriples.next());
-                loadedCount++;
-                if (loadedCount % LDFTConfigConstants.LOG_LOOP_SIZE == 0) {
-                    LOG.info("... loaded {} sameAs links", loadedCount);
+            RepositoryResult<Statement> sameAsTriples = connection.getStatements(null, link, null, false);
+            try {
+                while (sameAsTriples.hasNext()) {
+                    linkHandler.addLink(sameAsTriples.next());
+                    loadedCount++;
+                    if (progressStage != null) {
+                        progressStage.increment();
+                    }
+                    if (loadedCount % LDFTConfigConstants.LOG_LOOP_SIZE == 0) {
+                        LOG.info("... loaded {} sameAs links", loadedCount);
+                    }
                 }
+            } finally {
+                sameAsTriples.close();
             }
         }
         return loadedCount;
     }
+
+    private interface LinkHandler {
+        void addLink(Statement link);
+    }
 }
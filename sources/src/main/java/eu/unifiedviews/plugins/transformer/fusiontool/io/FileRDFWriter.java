@@ -0,0 +1,143 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FileOutput;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFWriter;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.UnsupportedRDFormatException;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer streaming output quads directly to a file in a quad serialization format (N-Quads, TriG or binary RDF).
+ * If metadata are written, each resolved statement is placed in the named graph assigned to it by conflict resolution
+ * and its quality and source graphs are written to the metadata graph; otherwise all statements are placed in
+ * the data graph (or the default graph if the data graph is null).
+ */
+public class FileRDFWriter extends CloseableRDFWriterBase {
+    /** Size of the buffer between serialization and the file channel. */
+    public static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    /** Size of the buffer of the gzip compressor. */
+    public static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream outputStream;
+    private final RDFWriter rdfWriter;
+    private final URI dataContext;
+    private final URI metadataContext;
+    private final boolean writeMetadata;
+    private final ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+
+    /**
+     * Opens a file for the given file output and creates a writer for it.
+     * @param file file to write to
+     * @param fileOutput file output settings
+     * @param writeMetadata true if quality and source graphs of resolved statements should be written
+     * @return new writer; must be closed by the caller
+     * @throws IOException error opening the file
+     */
+    public static FileRDFWriter create(File file, FileOutput fileOutput, boolean writeMetadata) throws IOException {
+        FileOutputStream fileOutputStream = new FileOutputStream(file);
+        try {
+            OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(fileOutputStream.getChannel()), OUTPUT_BUFFER_SIZE);
+            if (fileOutput.isCompressed()) {
+                outputStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            }
+            return new FileRDFWriter(outputStream, fileOutput.getFormat(),
+                    fileOutput.getDataContext(), fileOutput.getMetadataContext(), writeMetadata);
+        } catch (IOException | RuntimeException e) {
+            fileOutputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param outputStream stream to write to; closed when this writer is closed
+     * @param format serialization format; must support named graphs
+     * @param dataContext named graph where resolved statements are placed if metadata are not written;
+     *      null means the default graph
+     * @param metadataContext named graph where metadata are placed; null means the default graph
+     * @param writeMetadata true if quality and source graphs of resolved statements should be written
+     * @throws IOException error writing to the stream
+     */
+    public FileRDFWriter(OutputStream outputStream, RDFFormat format, URI dataContext, URI metadataContext, boolean writeMetadata)
+            throws IOException {
+        if (!format.supportsContexts()) {
+            throw new IllegalArgumentException("Serialization format " + format.getName() + " doesn't support named graphs");
+        }
+        this.outputStream = outputStream;
+        this.dataContext = dataContext;
+        this.metadataContext = metadataContext;
+        this.writeMetadata = writeMetadata;
+        try {
+            this.rdfWriter = Rio.createWriter(format, outputStream);
+            rdfWriter.startRDF();
+        } catch (UnsupportedRDFormatException | RDFHandlerException e) {
+            throw new IOException("Error creating " + format.getName() + " writer", e);
+        }
+    }
+
+    @Override
+    public void write(Statement quad) throws IOException {
+        handleStatement(valueFactory.createStatement(quad.getSubject(), quad.getPredicate(), quad.getObject(), dataContext));
+    }
+
+    @Override
+    public void write(ResolvedStatement resolvedStatement) throws IOException {
+        Statement statement = resolvedStatement.getStatement();
+        if (!writeMetadata || statement.getContext() == null) {
+            write(statement);
+            return;
+        }
+        Resource statementContext = statement.getContext();
+        handleStatement(statement);
+        handleStatement(valueFactory.createStatement(
+                statementContext, ODCS.QUALITY, valueFactory.createLiteral(resolvedStatement.getQuality()), metadataContext));
+        for (Resource sourceGraph : resolvedStatement.getSourceGraphNames()) {
+            handleStatement(valueFactory.createStatement(statementContext, ODCS.SOURCE_GRAPH, sourceGraph, metadataContext));
+        }
+    }
+
+    @Override
+    public void addNamespace(String prefix, String uri) throws IOException {
+        try {
+            rdfWriter.handleNamespace(prefix, uri);
+        } catch (RDFHandlerException e) {
+            throw new IOException("Error writing to file", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            rdfWriter.endRDF();
+        } catch (RDFHandlerException e) {
+            throw new IOException("Error writing to file", e);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private void handleStatement(Statement statement) throws IOException {
+        try {
+            rdfWriter.handleStatement(statement);
+        } catch (RDFHandlerException e) {
+            throw new IOException("Error writing to file", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterable;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.UriHashSet;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Resource;
+
+/**
+ * Set of resources whose quads are loaded when input is filtered at load time.
+ * A quad is accepted if the canonical URI of its subject is among accepted resources, i.e. resources
+ * whose description can pass the input filters, or among their dependent resources (values of resource
+ * description properties) whose descriptions are copied into descriptions of accepted resources.
+ * The filter is shared by loaders created before the URI mapping is known and must be initialized with
+ * {@link #initialize(UriMappingIterable, UriHashSet, UriHashSet)} before any quads are loaded.
+ */
+public class InputSubjectFilter {
+    private volatile UriMappingIterable uriMapping;
+    private volatile UriHashSet acceptedResources;
+    private volatile UriHashSet dependentResources;
+
+    /**
+     * Sets resources accepted by this filter.
+     * @param uriMapping mapping of URIs to canonical URIs
+     * @param acceptedResources keys (see {@link #getKey(Resource)}) of accepted canonical resources
+     * @param dependentResources keys of canonical dependent resources of accepted resources
+     */
+    public void initialize(UriMappingIterable uriMapping, UriHashSet acceptedResources, UriHashSet dependentResources) {
+        this.acceptedResources = acceptedResources;
+        this.dependentResources = dependentResources;
+        this.uriMapping = uriMapping;
+    }
+
+    /**
+     * Returns true if quads with the given subject should be loaded.
+     * @param subject subject of a quad
+     * @return true if the quad can be part of a resource description passing the input filters
+     */
+    public boolean accept(Resource subject) {
+        if (uriMapping == null) {
+            throw new IllegalStateException("Input subject filter is not initialized");
+        }
+        String key = getKey(uriMapping.mapResource(subject));
+        return acceptedResources.contains(key) || dependentResources.contains(key);
+    }
+
+    /**
+     * Returns the string identifying a resource in sets of accepted resources.
+     * @param resource URI resource or blank node
+     * @return key of the resource
+     */
+    public static String getKey(Resource resource) {
+        return resource instanceof BNode
+                ? "_:" + ((BNode) resource).getID()
+                : resource.stringValue();
+    }
+}
@@ -0,0 +1,256 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.fusiontool.config.LDFTConfigConstants;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.data.AllTriplesLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
+import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
+import org.openrdf.model.URI;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads all quads from graphs of several RDF data units, reading multiple graphs in parallel.
+ * Each loading thread uses its own connection to a data unit. Loaded quads are passed to the
+ * single (not thread-safe) {@link RDFHandler} on the calling thread through a bounded queue.
+ */
+public class ParallelAllTriplesDataUnitLoader implements AllTriplesLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelAllTriplesDataUnitLoader.class);
+
+    /** Number of quads passed between threads at once. */
+    private static final int QUAD_BATCH_SIZE = 1000;
+
+    private final List<? extends RDFDataUnit> rdfInputs;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final URI defaultContext;
+    private int maxSparqlResultsSize = LDFTConfigConstants.DEFAULT_SPARQL_RESULT_MAX_ROWS;
+    private boolean useStatementCursor = false;
+    private int minPageSize = 0;
+    private int maxPageSize = 0;
+    private long reservedMemory = 0;
+
+    /**
+     * @param rdfInputs data units to load quads from
+     * @param parallelism number of graphs loaded in parallel
+     * @param queueCapacity maximum number of quad batches waiting to be processed by the handler
+     * @throws DataUnitException error reading data unit
+     */
+    public ParallelAllTriplesDataUnitLoader(List<? extends RDFDataUnit> rdfInputs, int parallelism, int queueCapacity)
+            throws DataUnitException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Loading parallelism must be positive");
+        }
+        this.rdfInputs = rdfInputs;
+        this.parallelism = parallelism;
+        this.queueCapacity = queueCapacity;
+        this.defaultContext = getFirstGraph(rdfInputs);
+    }
+
+    public void setMaxSparqlResultsSize(int maxSparqlResultsSize) {
+        this.maxSparqlResultsSize = maxSparqlResultsSize;
+    }
+
+    /**
+     * Sets whether each graph is read in a single pass with a statement cursor
+     * instead of paged SPARQL queries with LIMIT/OFFSET.
+     * @param useStatementCursor true to read graphs with a statement cursor
+     */
+    public void setUseStatementCursor(boolean useStatementCursor) {
+        this.useStatementCursor = useStatementCursor;
+    }
+
+    /**
+     * Enables adaptive page size of load queries in each loading thread.
+     * @param minPageSize minimum page size
+     * @param maxPageSize maximum page size
+     * @see AllTriplesDataUnitLoader#setAdaptivePageSize(int, int)
+     */
+    public void setAdaptivePageSize(int minPageSize, int maxPageSize) {
+        if (minPageSize < 1 || minPageSize > maxPageSize) {
+            throw new IllegalArgumentException("Invalid page size bounds " + minPageSize + " - " + maxPageSize);
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Sets the amount of heap memory occupied by the consumer of loaded quads by design.
+     * @param reservedMemory reserved memory in bytes
+     * @see AllTriplesDataUnitLoader#setReservedMemory(long)
+     */
+    public void setReservedMemory(long reservedMemory) {
+        this.reservedMemory = reservedMemory;
+    }
+
+    @Override
+    public void loadAllTriples(RDFHandler rdfHandler) throws LDFusionToolException {
+        LOG.info("Loading input quads from {} data units with {} threads", rdfInputs.size(), parallelism);
+        long totalStartTime = System.currentTimeMillis();
+        Queue<GraphToLoad> graphs = getGraphsToLoad();
+        int threadCount = Math.max(1, Math.min(parallelism, graphs.size()));
+        QuadBatchQueue quadQueue = new QuadBatchQueue(queueCapacity, QUAD_BATCH_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new LoaderThreadFactory());
+        try {
+            rdfHandler.startRDF();
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(new GraphLoadingWorker(graphs, quadQueue.newProducer()));
+            }
+            long totalLoadedQuads = quadQueue.drainTo(rdfHandler, threadCount);
+            rdfHandler.endRDF();
+            LOG.info("Loaded {} input quads from data units in {}", totalLoadedQuads, LDFusionToolUtils.formatTime(System.currentTimeMillis() - totalStartTime));
+        } catch (RDFHandlerException e) {
+            throw new LDFusionToolException("Error processing quads from data unit: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LDFusionToolException("Loading of quads from data unit was interrupted", e);
+        } finally {
+            // interrupts workers still blocked on a full queue in case of an error
+            executor.shutdownNow();
+        }
+    }
+
+    private Queue<GraphToLoad> getGraphsToLoad() throws LDFusionToolException {
+        Queue<GraphToLoad> graphs = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < rdfInputs.size(); i++) {
+            RDFDataUnit.Iteration contextsIteration = null;
+            try {
+                contextsIteration = rdfInputs.get(i).getIteration();
+                while (contextsIteration.hasNext()) {
+                    graphs.add(new GraphToLoad(i, contextsIteration.next().getDataGraphURI()));
+                }
+            } catch (DataUnitException e) {
+                throw new LDFusionToolException("Error loading quads from data unit: " + e.getMessage(), e);
+            } finally {
+                if (contextsIteration != null) {
+                    try {
+                        contextsIteration.close();
+                    } catch (DataUnitException e) {
+                        LOG.error(e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return graphs;
+    }
+
+    private static URI getFirstGraph(List<? extends RDFDataUnit> rdfInputs) throws DataUnitException {
+        for (RDFDataUnit rdfInput : rdfInputs) {
+            RDFDataUnit.Iteration iteration = rdfInput.getIteration();
+            try {
+                if (iteration.hasNext()) {
+                    return iteration.next().getDataGraphURI();
+                }
+            } finally {
+                iteration.close();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public URI getDefaultContext() throws LDFusionToolException {
+        return defaultContext;
+    }
+
+    @Override
+    public void close() throws LDFusionToolException {
+        // connections are owned and closed by loading threads
+    }
+
+    /**
+     * Loads graphs from a shared queue until it is empty.
+     * Opens at most one connection per data unit which is closed when the worker ends.
+     */
+    private class GraphLoadingWorker implements Runnable {
+        private final Queue<GraphToLoad> graphs;
+        private final QuadBatchQueue.Producer producer;
+        private final AllTriplesDataUnitLoader[] loaders;
+
+        GraphLoadingWorker(Queue<GraphToLoad> graphs, QuadBatchQueue.Producer producer) {
+            this.graphs = graphs;
+            this.producer = producer;
+            this.loaders = new AllTriplesDataUnitLoader[rdfInputs.size()];
+        }
+
+        @Override
+        public void run() {
+            try {
+                GraphToLoad graph;
+                while ((graph = graphs.poll()) != null && !Thread.currentThread().isInterrupted()) {
+                    getLoader(graph.dataUnitIndex).loadAllTriplesForGraph(graph.graphURI, producer);
+                }
+                producer.finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                // errors must be signalled too, otherwise the consumer would wait for this producer forever
+                failProducer(e);
+            } finally {
+                closeLoaders();
+            }
+        }
+
+        private AllTriplesDataUnitLoader getLoader(int dataUnitIndex) throws DataUnitException {
+            if (loaders[dataUnitIndex] == null) {
+                AllTriplesDataUnitLoader loader = new AllTriplesDataUnitLoader(rdfInputs.get(dataUnitIndex));
+                loader.setMaxSparqlResultsSize(maxSparqlResultsSize);
+                loader.setUseStatementCursor(useStatementCursor);
+                if (minPageSize > 0) {
+                    loader.setAdaptivePageSize(minPageSize, maxPageSize);
+                }
+                loader.setReservedMemory(reservedMemory);
+                loaders[dataUnitIndex] = loader;
+            }
+            return loaders[dataUnitIndex];
+        }
+
+        private void failProducer(Throwable e) {
+            try {
+                producer.fail(e);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void closeLoaders() {
+            for (AllTriplesDataUnitLoader loader : loaders) {
+                if (loader != null) {
+                    LDFusionToolUtils.closeQuietly(loader);
+                }
+            }
+        }
+    }
+
+    private static class GraphToLoad {
+        private final int dataUnitIndex;
+        private final URI graphURI;
+
+        GraphToLoad(int dataUnitIndex, URI graphURI) {
+            this.dataUnitIndex = dataUnitIndex;
+            this.graphURI = graphURI;
+        }
+    }
+
+    private static class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCounter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "fusiontool-loader-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
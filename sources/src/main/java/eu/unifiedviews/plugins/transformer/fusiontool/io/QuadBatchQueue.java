@@ -0,0 +1,134 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded hand-off of quads from producer threads to a single consumer thread.
+ * Each producer writes to its own {@link Producer} handler which passes quads to the queue in batches;
+ * the consumer passes them on to a (not thread-safe) {@link RDFHandler} in {@link #drainTo(RDFHandler, int)}.
+ * Producers block when the queue is full so that memory used by read but unprocessed quads is bounded.
+ */
+class QuadBatchQueue {
+    /** Empty batch marking the end of a producer; preallocated so that it can be sent even when memory runs out. */
+    private static final List<Statement> END_OF_PRODUCER = Collections.emptyList();
+
+    private final BlockingQueue<List<Statement>> queue;
+    private final int batchSize;
+    private final AtomicReference<Throwable> producerError = new AtomicReference<>();
+
+    /**
+     * @param capacity maximum number of batches waiting in the queue
+     * @param batchSize number of quads in a batch
+     */
+    QuadBatchQueue(int capacity, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a handler for a new producer. The handler must be used from a single thread
+     * and the producer must call either {@link Producer#finish()} or {@link Producer#fail(Throwable)} at the end,
+     * including when it ends with an {@link Error}; otherwise the consumer waits for the producer forever.
+     * @return producer handler
+     */
+    Producer newProducer() {
+        return new Producer();
+    }
+
+    /**
+     * Passes quads from the queue to the given handler until all producers finish.
+     * Doesn't call startRDF()/endRDF() on the handler.
+     * @param rdfHandler consumer handler
+     * @param producerCount number of producers writing to the queue
+     * @return number of quads passed to the handler
+     * @throws RDFHandlerException error in the consumer handler
+     * @throws LDFusionToolException a producer failed with an exception
+     * @throws Error a producer failed with an error (rethrown as is)
+     * @throws InterruptedException consumer thread was interrupted
+     */
+    long drainTo(RDFHandler rdfHandler, int producerCount) throws RDFHandlerException, LDFusionToolException, InterruptedException {
+        long quadCount = 0;
+        int finishedProducers = 0;
+        while (finishedProducers < producerCount) {
+            List<Statement> batch = queue.take();
+            if (batch.isEmpty()) {
+                // empty batch marks end of a producer
+                finishedProducers++;
+                checkProducerError();
+                continue;
+            }
+            for (Statement quad : batch) {
+                rdfHandler.handleStatement(quad);
+            }
+            quadCount += batch.size();
+        }
+        return quadCount;
+    }
+
+    private void checkProducerError() throws LDFusionToolException {
+        Throwable error = producerError.get();
+        if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new LDFusionToolException("Error loading quads from data unit: " + error.getMessage(), error);
+        }
+    }
+
+    /**
+     * Handler buffering quads of a single producer thread into batches.
+     */
+    class Producer extends RDFHandlerBase {
+        private List<Statement> batch = new ArrayList<>(batchSize);
+
+        @Override
+        public void handleStatement(Statement quad) throws RDFHandlerException {
+            batch.add(quad);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Passes remaining buffered quads to the queue and signals the end of this producer.
+         * @throws InterruptedException producer thread was interrupted
+         */
+        void finish() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+                batch = new ArrayList<>(0);
+            }
+            queue.put(END_OF_PRODUCER);
+        }
+
+        /**
+         * Signals the end of this producer due to an error; the error is rethrown in the consumer thread.
+         * @param error the error
+         * @throws InterruptedException producer thread was interrupted
+         */
+        void fail(Throwable error) throws InterruptedException {
+            producerError.compareAndSet(null, error);
+            queue.put(END_OF_PRODUCER);
+        }
+
+        private void flush() throws RDFHandlerException {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RDFHandlerException("Loading of quads was interrupted", e);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import org.openrdf.model.Statement;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers statements and adds them to a repository connection in batches,
+ * each batch in a single transaction.
+ * Statements are added to their own context, so the context of output statements must be set by the caller.
+ * Batch size 1 or less means that statements are added immediately, each committed on its own.
+ */
+class StatementBatchWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(StatementBatchWriter.class);
+
+    private final RepositoryConnection connection;
+    private final int batchSize;
+    private final List<Statement> batch;
+
+    /**
+     * @param connection connection statements are added to
+     * @param batchSize number of statements added in a single transaction
+     */
+    StatementBatchWriter(RepositoryConnection connection, int batchSize) {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.batch = batchSize > 1 ? new ArrayList<Statement>(batchSize) : null;
+    }
+
+    /**
+     * Adds a statement to the current batch; the batch is written when full.
+     * @param statement statement to add (including its context)
+     * @throws RepositoryException error writing to the repository
+     */
+    void add(Statement statement) throws RepositoryException {
+        if (batch == null) {
+            connection.add(statement);
+            return;
+        }
+        batch.add(statement);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered statements in a single transaction.
+     * @throws RepositoryException error writing to the repository
+     */
+    void flush() throws RepositoryException {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        connection.begin();
+        try {
+            connection.add(batch);
+            connection.commit();
+        } catch (RepositoryException | RuntimeException e) {
+            rollbackQuietly();
+            throw e;
+        }
+        batch.clear();
+    }
+
+    private void rollbackQuietly() {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Error rolling back output transaction: " + e.getMessage(), e);
+        }
+    }
+}
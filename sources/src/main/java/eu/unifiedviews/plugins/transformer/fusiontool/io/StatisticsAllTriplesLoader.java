@@ -0,0 +1,82 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.data.AllTriplesLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceStatistics;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.ProgressReporter;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerWrapper;
+
+/**
+ * Decorator of a loader which records the number of loaded quads and the loading time in {@link PerformanceStatistics}.
+ * Loading time includes time spent by the handler, i.e. it is the wall time of {@link #loadAllTriples(RDFHandler)}.
+ * Loaded quads are optionally also counted in a {@link ProgressReporter.Stage}.
+ */
+public class StatisticsAllTriplesLoader implements AllTriplesLoader {
+    private final AllTriplesLoader loader;
+    private final PerformanceStatistics statistics;
+    private final ProgressReporter.Stage progressStage;
+
+    /**
+     * @param loader underlying loader
+     * @param statistics statistics to update
+     */
+    public StatisticsAllTriplesLoader(AllTriplesLoader loader, PerformanceStatistics statistics) {
+        this(loader, statistics, null);
+    }
+
+    /**
+     * @param loader underlying loader
+     * @param statistics statistics to update
+     * @param progressStage progress stage counting loaded quads or null if progress is not reported
+     */
+    public StatisticsAllTriplesLoader(AllTriplesLoader loader, PerformanceStatistics statistics,
+            ProgressReporter.Stage progressStage) {
+        this.loader = loader;
+        this.statistics = statistics;
+        this.progressStage = progressStage;
+    }
+
+    @Override
+    public void loadAllTriples(RDFHandler rdfHandler) throws LDFusionToolException {
+        CountingHandler countingHandler = new CountingHandler(rdfHandler, progressStage);
+        long startTime = System.nanoTime();
+        try {
+            loader.loadAllTriples(countingHandler);
+        } finally {
+            statistics.recordLoadedQuads(countingHandler.quadCount, System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public URI getDefaultContext() throws LDFusionToolException {
+        return loader.getDefaultContext();
+    }
+
+    @Override
+    public void close() throws LDFusionToolException {
+        loader.close();
+    }
+
+    private static class CountingHandler extends RDFHandlerWrapper {
+        private final ProgressReporter.Stage progressStage;
+        private long quadCount = 0;
+
+        CountingHandler(RDFHandler rdfHandler, ProgressReporter.Stage progressStage) {
+            super(rdfHandler);
+            this.progressStage = progressStage;
+        }
+
+        @Override
+        public void handleStatement(Statement statement) throws RDFHandlerException {
+            quadCount++;
+            if (progressStage != null) {
+                progressStage.increment();
+            }
+            super.handleStatement(statement);
+        }
+    }
+}
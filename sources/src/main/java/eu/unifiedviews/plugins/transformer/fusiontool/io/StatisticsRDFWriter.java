@@ -0,0 +1,65 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceStatistics;
+import org.openrdf.model.Statement;
+
+import java.io.IOException;
+
+/**
+ * Decorator of an output writer which records the number of written statements and the time spent by the underlying
+ * writer in {@link PerformanceStatistics}. A resolved statement counts as a single statement even if the underlying
+ * writer writes its metadata too. Statistics are updated when the writer is closed.
+ * Instances must be used from a single thread.
+ */
+public class StatisticsRDFWriter extends CloseableRDFWriterBase {
+    private final CloseableRDFWriter rdfWriter;
+    private final PerformanceStatistics statistics;
+    private long quadCount = 0;
+    private long writingNanos = 0;
+
+    /**
+     * @param rdfWriter underlying writer
+     * @param statistics statistics to update
+     */
+    public StatisticsRDFWriter(CloseableRDFWriter rdfWriter, PerformanceStatistics statistics) {
+        this.rdfWriter = rdfWriter;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void write(Statement quad) throws IOException {
+        long startTime = System.nanoTime();
+        rdfWriter.write(quad);
+        writingNanos += System.nanoTime() - startTime;
+        quadCount++;
+    }
+
+    @Override
+    public void write(ResolvedStatement resolvedStatement) throws IOException {
+        long startTime = System.nanoTime();
+        rdfWriter.write(resolvedStatement);
+        writingNanos += System.nanoTime() - startTime;
+        quadCount++;
+    }
+
+    @Override
+    public void addNamespace(String prefix, String uri) throws IOException {
+        rdfWriter.addNamespace(prefix, uri);
+    }
+
+    @Override
+    public void close() throws IOException {
+        long startTime = System.nanoTime();
+        try {
+            rdfWriter.close();
+        } finally {
+            writingNanos += System.nanoTime() - startTime;
+            statistics.recordWrittenQuads(quadCount, writingNanos);
+            quadCount = 0;
+            writingNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.data.AllTriplesLoader;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator of a loader which passes on only quads whose subjects are accepted by an {@link InputSubjectFilter},
+ * so that quads which cannot be part of an output resource description are not sorted at all.
+ */
+public class SubjectFilteringAllTriplesLoader implements AllTriplesLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(SubjectFilteringAllTriplesLoader.class);
+
+    private final AllTriplesLoader loader;
+    private final InputSubjectFilter subjectFilter;
+
+    /**
+     * @param loader underlying loader
+     * @param subjectFilter filter of quad subjects; must be initialized before {@link #loadAllTriples(RDFHandler)}
+     */
+    public SubjectFilteringAllTriplesLoader(AllTriplesLoader loader, InputSubjectFilter subjectFilter) {
+        this.loader = loader;
+        this.subjectFilter = subjectFilter;
+    }
+
+    @Override
+    public void loadAllTriples(RDFHandler rdfHandler) throws LDFusionToolException {
+        FilteringHandler filteringHandler = new FilteringHandler(rdfHandler);
+        loader.loadAllTriples(filteringHandler);
+        LOG.info("Filtered out {} of {} input quads at load time", filteringHandler.filteredQuads, filteringHandler.totalQuads);
+    }
+
+    @Override
+    public URI getDefaultContext() throws LDFusionToolException {
+        return loader.getDefaultContext();
+    }
+
+    @Override
+    public void close() throws LDFusionToolException {
+        loader.close();
+    }
+
+    private class FilteringHandler implements RDFHandler {
+        private final RDFHandler rdfHandler;
+        private long totalQuads = 0;
+        private long filteredQuads = 0;
+
+        FilteringHandler(RDFHandler rdfHandler) {
+            this.rdfHandler = rdfHandler;
+        }
+
+        @Override
+        public void startRDF() throws RDFHandlerException {
+            rdfHandler.startRDF();
+        }
+
+        @Override
+        public void endRDF() throws RDFHandlerException {
+            rdfHandler.endRDF();
+        }
+
+        @Override
+        public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+            rdfHandler.handleNamespace(prefix, uri);
+        }
+
+        @Override
+        public void handleStatement(Statement statement) throws RDFHandlerException {
+            totalQuads++;
+            if (subjectFilter.accept(statement.getSubject())) {
+                rdfHandler.handleStatement(statement);
+            } else {
+                filteredQuads++;
+            }
+        }
+
+        @Override
+        public void handleComment(String comment) throws RDFHandlerException {
+            rdfHandler.handleComment(comment);
+        }
+    }
+}
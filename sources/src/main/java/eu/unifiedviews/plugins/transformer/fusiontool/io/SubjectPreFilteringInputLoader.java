@@ -0,0 +1,206 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterable;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
+import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.UriHashSet;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.repository.RepositoryResult;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decorator of an input loader which, before the underlying loader is initialized, collects resources whose
+ * descriptions can pass the input filters and initializes an {@link InputSubjectFilter} with them.
+ * The filter is used by {@link SubjectFilteringAllTriplesLoader}s of the underlying loader so that other quads
+ * are dropped before they are sorted.
+ * <p>
+ * Accepted resources are canonical resources with rdf:type of the required class (after URI mapping) and/or, if only
+ * mapped subjects should be processed, canonical resources having alternative URIs in the URI mapping.
+ * Values of resource description properties of accepted resources are collected as dependent resources, because
+ * their descriptions are copied into the descriptions of accepted resources.
+ * The collection uses only statements with the given predicates, read by a statement cursor for each input graph.
+ * Input filters are still applied to loaded resource descriptions, so resources accepted due to a hash collision
+ * don't change the result.
+ */
+public class SubjectPreFilteringInputLoader implements InputLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(SubjectPreFilteringInputLoader.class);
+
+    private final InputLoader inputLoader;
+    private final InputSubjectFilter subjectFilter;
+    private final List<? extends RDFDataUnit> rdfInputs;
+    private final Collection<URI> resourceDescriptionProperties;
+    private final URI requiredClass;
+    private final boolean mappedSubjectsOnly;
+
+    /**
+     * @param inputLoader underlying input loader whose quads are filtered by subjectFilter
+     * @param subjectFilter filter to initialize
+     * @param rdfInputs input data units
+     * @param resourceDescriptionProperties properties whose values are resources whose descriptions should be included
+     *      in the description of the referencing resource
+     * @param requiredClass class required for resources to be processed or null if resources are not filtered by class
+     * @param mappedSubjectsOnly whether only resources having alternative URIs in the URI mapping are processed
+     */
+    public SubjectPreFilteringInputLoader(InputLoader inputLoader, InputSubjectFilter subjectFilter,
+            List<? extends RDFDataUnit> rdfInputs, Collection<URI> resourceDescriptionProperties, URI requiredClass,
+            boolean mappedSubjectsOnly) {
+        this.inputLoader = inputLoader;
+        this.subjectFilter = subjectFilter;
+        this.rdfInputs = rdfInputs;
+        this.resourceDescriptionProperties = resourceDescriptionProperties;
+        this.requiredClass = requiredClass;
+        this.mappedSubjectsOnly = mappedSubjectsOnly;
+    }
+
+    @Override
+    public void initialize(UriMappingIterable uriMapping) throws LDFusionToolException {
+        long startTime = System.currentTimeMillis();
+        UriHashSet acceptedResources = collectAcceptedResources(uriMapping);
+        UriHashSet dependentResources = collectDependentResources(uriMapping, acceptedResources);
+        subjectFilter.initialize(uriMapping, acceptedResources, dependentResources);
+        LOG.info("Collected {} resources to process and {} dependent resources in {}",
+                new Object[] { acceptedResources.size(), dependentResources.size(),
+                        LDFusionToolUtils.formatTime(System.currentTimeMillis() - startTime) });
+        inputLoader.initialize(uriMapping);
+    }
+
+    @Override
+    public boolean hasNext() throws LDFusionToolException {
+        return inputLoader.hasNext();
+    }
+
+    @Override
+    public ResourceDescription next() throws LDFusionToolException {
+        return inputLoader.next();
+    }
+
+    @Override
+    public void updateWithResolvedStatements(Collection<ResolvedStatement> resolvedStatements) {
+        inputLoader.updateWithResolvedStatements(resolvedStatements);
+    }
+
+    @Override
+    public void close() throws LDFusionToolException {
+        inputLoader.close();
+    }
+
+    private UriHashSet collectAcceptedResources(UriMappingIterable uriMapping) throws LDFusionToolException {
+        UriHashSet mappedResources = mappedSubjectsOnly ? collectMappedResources(uriMapping) : null;
+        if (requiredClass == null) {
+            return mappedResources != null ? mappedResources : new UriHashSet.Builder().build();
+        }
+        return collectResourcesOfClass(uriMapping, mappedResources);
+    }
+
+    /**
+     * Collects canonical resources with more than one URI. Every URI iterated from the mapping belongs to
+     * a non-trivial equivalence class, so its canonical URI is accepted by {@code MappedResourceFilter}.
+     */
+    private static UriHashSet collectMappedResources(UriMappingIterable uriMapping) {
+        UriHashSet.Builder builder = new UriHashSet.Builder();
+        for (String uri : uriMapping) {
+            builder.add(uriMapping.getCanonicalURI(uri));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Collects canonical resources of the required class; if mappedResources is not null, only resources
+     * contained in it are collected.
+     */
+    private UriHashSet collectResourcesOfClass(final UriMappingIterable uriMapping, final UriHashSet mappedResources)
+            throws LDFusionToolException {
+        final Resource canonicalClass = uriMapping.mapResource(requiredClass);
+        final UriHashSet.Builder builder = new UriHashSet.Builder();
+        scanStatements(RDF.TYPE, new RDFHandlerBase() {
+            @Override
+            public void handleStatement(Statement statement) throws RDFHandlerException {
+                if (statement.getObject() instanceof Resource
+                        && canonicalClass.equals(uriMapping.mapResource((Resource) statement.getObject()))) {
+                    String key = InputSubjectFilter.getKey(uriMapping.mapResource(statement.getSubject()));
+                    if (mappedResources == null || mappedResources.contains(key)) {
+                        builder.add(key);
+                    }
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    private UriHashSet collectDependentResources(final UriMappingIterable uriMapping, final UriHashSet acceptedResources)
+            throws LDFusionToolException {
+        final UriHashSet.Builder builder = new UriHashSet.Builder();
+        RDFHandler handler = new RDFHandlerBase() {
+            @Override
+            public void handleStatement(Statement statement) throws RDFHandlerException {
+                if (statement.getObject() instanceof Resource
+                        && acceptedResources.contains(InputSubjectFilter.getKey(uriMapping.mapResource(statement.getSubject())))) {
+                    builder.add(InputSubjectFilter.getKey(uriMapping.mapResource((Resource) statement.getObject())));
+                }
+            }
+        };
+        for (URI property : resourceDescriptionProperties) {
+            scanStatements(property, handler);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Passes all statements with the given predicate from all input graphs to the handler.
+     */
+    private void scanStatements(URI predicate, RDFHandler handler) throws LDFusionToolException {
+        for (RDFDataUnit rdfInput : rdfInputs) {
+            try {
+                List<URI> graphs = getGraphs(rdfInput);
+                RepositoryConnection connection = rdfInput.getConnection();
+                try {
+                    for (URI graph : graphs) {
+                        RepositoryResult<Statement> statements = connection.getStatements(null, predicate, null, false, graph);
+                        try {
+                            while (statements.hasNext()) {
+                                handler.handleStatement(statements.next());
+                            }
+                        } finally {
+                            statements.close();
+                        }
+                    }
+                } finally {
+                    connection.close();
+                }
+            } catch (DataUnitException | RepositoryException | RDFHandlerException e) {
+                throw new LDFusionToolException("Error reading input data unit: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static List<URI> getGraphs(RDFDataUnit rdfInput) throws DataUnitException {
+        List<URI> graphs = new ArrayList<>();
+        RDFDataUnit.Iteration iteration = rdfInput.getIteration();
+        try {
+            while (iteration.hasNext()) {
+                graphs.add(iteration.next().getDataGraphURI());
+            }
+        } finally {
+            iteration.close();
+        }
+        return graphs;
+    }
+}
@@ -0,0 +1,378 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.impl.ResourceDescriptionImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterable;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.data.AllTriplesLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Input loader which groups input quads to resource descriptions by external sorting, with the same results as
+ * {@link cz.cuni.mff.odcleanstore.fusiontool.loaders.ExternalSortingInputLoader}, but with temporary files in
+ * the compact binary format of {@link BinaryTupleWriter} (dictionary-encoded terms, optionally Deflate-compressed).
+ * <p>
+ * Input quads are written as tuples (canonical subject, subject, predicate, object, graph) and sorted by the first
+ * element. For quads with a resource description property, a dependency (canonical object, canonical subject)
+ * is recorded; after sorting, dependencies are merge-joined with quads so that descriptions of dependent resources
+ * are copied to the descriptions of resources referencing them. Resource descriptions are then streamed from
+ * a merge of the sorted quads and the sorted copies.
+ * <p>
+ * If a hub split threshold is set, descriptions of resources with more quads than the threshold are not held
+ * in memory as a whole. The quads of such a resource are sorted again in a temporary file by their canonical
+ * predicate and returned as several resource descriptions of the same resource, one per property. Quads of
+ * dependent resources and quads with a resource description property are returned together in the last part,
+ * because they are resolved together by nested resource description resolution. Likewise, quads of all properties
+ * taking part in a dependsOn relation of resolution strategies (see {@link #setDependentProperties(Collection)})
+ * share a single part, so that their values are still resolved together. Memory use is then bounded
+ * by the largest set of values of a single part. This bound doesn't cover the dependency join: quads of a resource
+ * referenced by a resource description property are buffered in memory as a whole while they are copied to the
+ * referencing resources, so the bound only holds for hubs no resource description property points to.
+ */
+public class BinarySpillInputLoader implements InputLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(BinarySpillInputLoader.class);
+    private static final ValueFactory VALUE_FACTORY = ValueFactoryImpl.getInstance();
+    private static final int QUAD_ARITY = 5;
+    private static final int DEPENDENCY_ARITY = 2;
+    /** Sort key of the last part of a split resource description (blank nodes are sorted after URIs). */
+    private static final Value NESTED_PART_KEY = VALUE_FACTORY.createBNode("nested");
+    /** Sort key of the part of a split resource description with properties tied by dependsOn. */
+    private static final Value DEPENDENT_PART_KEY = VALUE_FACTORY.createBNode("dependent");
+
+    private final Collection<AllTriplesLoader> dataSources;
+    private final Set<URI> resourceDescriptionProperties;
+    private final File tempDirectory;
+    private final long memoryLimit;
+    private final boolean compress;
+    private final List<ExternalTupleSorter> sorters = new ArrayList<>();
+    private final List<BinaryTupleReader> readers = new ArrayList<>();
+    private File workingDirectory;
+    private ExternalTupleSorter.MergingTupleIterator tupleIterator;
+    private Value[] nextTuple;
+    private long spilledBytes = 0;
+    private long hubSplitThreshold = 0;
+    private Collection<URI> dependentProperties = Collections.emptySet();
+    private Set<Value> canonicalDependentProperties = Collections.emptySet();
+    private UriMappingIterable uriMapping;
+    private ExternalTupleSorter hubSorter;
+    private ExternalTupleSorter.MergingTupleIterator hubIterator;
+    private Resource hubResource;
+    private Value[] nextHubTuple;
+
+    /**
+     * @param dataSources loaders of input quads; closed after their quads are loaded
+     * @param resourceDescriptionProperties properties whose values are resources whose descriptions should be included
+     *      in the description of the referencing resource
+     * @param tempDirectory directory for temporary files
+     * @param memoryLimit approximate maximum size of in-memory buffers for sorting in bytes
+     * @param compress whether temporary files should be compressed
+     */
+    public BinarySpillInputLoader(Collection<AllTriplesLoader> dataSources, Collection<URI> resourceDescriptionProperties,
+            File tempDirectory, long memoryLimit, boolean compress) {
+        this.dataSources = dataSources;
+        this.resourceDescriptionProperties = new HashSet<>(resourceDescriptionProperties);
+        this.tempDirectory = tempDirectory;
+        this.memoryLimit = memoryLimit;
+        this.compress = compress;
+    }
+
+    /**
+     * Sets the number of quads above which a resource description is split to one part per property.
+     * @param hubSplitThreshold maximum number of quads of a resource description returned as a whole;
+     *      not positive value means resource descriptions are never split
+     */
+    public void setHubSplitThreshold(long hubSplitThreshold) {
+        this.hubSplitThreshold = hubSplitThreshold;
+    }
+
+    /**
+     * Sets properties which take part in a dependsOn relation of resolution strategies (on either end).
+     * Their quads are kept in a single part when a resource description is split, because their values
+     * must be resolved together.
+     * @param dependentProperties properties tied by dependsOn
+     */
+    public void setDependentProperties(Collection<URI> dependentProperties) {
+        this.dependentProperties = dependentProperties;
+    }
+
+    @Override
+    public void initialize(UriMappingIterable uriMapping) throws LDFusionToolException {
+        long startTime = System.currentTimeMillis();
+        this.uriMapping = uriMapping;
+        this.canonicalDependentProperties = new HashSet<>();
+        for (URI property : dependentProperties) {
+            canonicalDependentProperties.add(uriMapping.mapResource(property));
+        }
+        try {
+            workingDirectory = Files.createTempDirectory(tempDirectory.toPath(), "binarysort").toFile();
+            ExternalTupleSorter quadSorter = createSorter("quads", QUAD_ARITY, memoryLimit * 3 / 4);
+            ExternalTupleSorter dependencySorter = createSorter("dependencies", DEPENDENCY_ARITY, memoryLimit / 4);
+            loadQuads(uriMapping, quadSorter, dependencySorter);
+            LOG.info(String.format("Loaded %,d quads and %,d dependencies to temporary files",
+                    quadSorter.getTupleCount(), dependencySorter.getTupleCount()));
+
+            ExternalTupleSorter dependentQuadSorter = createSorter("dependent", QUAD_ARITY, memoryLimit);
+            try (ExternalTupleSorter.MergingTupleIterator quads =
+                         new ExternalTupleSorter.MergingTupleIterator(quadSorter.openSortedRuns());
+                 ExternalTupleSorter.MergingTupleIterator dependencies =
+                         new ExternalTupleSorter.MergingTupleIterator(dependencySorter.openSortedRuns())) {
+                joinDependencies(quads, dependencies, dependentQuadSorter);
+            }
+
+            // the last merge of sorted runs is done while reading, sorted quads come before dependent quads
+            readers.addAll(quadSorter.openSortedRuns());
+            readers.addAll(dependentQuadSorter.openSortedRuns());
+            for (ExternalTupleSorter sorter : sorters) {
+                spilledBytes += sorter.getSpilledBytes();
+            }
+            tupleIterator = new ExternalTupleSorter.MergingTupleIterator(readers);
+            nextTuple = tupleIterator.next();
+            LOG.info("Input quads sorted in {}", LDFusionToolUtils.formatTime(System.currentTimeMillis() - startTime));
+        } catch (IOException e) {
+            close();
+            throw new LDFusionToolException("Error sorting input quads in temporary files", e);
+        }
+    }
+
+    /**
+     * Returns total size of temporary files written while sorting input quads.
+     * @return number of bytes written to temporary files; 0 before {@link #initialize(UriMappingIterable)}
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public boolean hasNext() throws LDFusionToolException {
+        if (tupleIterator == null) {
+            throw new IllegalStateException("Input loader not initialized");
+        }
+        return nextTuple != null || hubIterator != null;
+    }
+
+    @Override
+    public ResourceDescription next() throws LDFusionToolException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            if (hubIterator != null) {
+                return nextHubPart();
+            }
+            Resource resource = (Resource) nextTuple[0];
+            List<Statement> describingStatements = new ArrayList<>();
+            while (nextTuple != null && ExternalTupleSorter.compareKeys(resource, nextTuple[0]) == 0) {
+                if (hubSplitThreshold > 0 && describingStatements.size() >= hubSplitThreshold) {
+                    startHubSplit(resource, describingStatements);
+                    return nextHubPart();
+                }
+                describingStatements.add(toStatement(nextTuple));
+                nextTuple = tupleIterator.next();
+            }
+            return new ResourceDescriptionImpl(resource, describingStatements);
+        } catch (IOException e) {
+            throw new LDFusionToolException("Error reading sorted input quads", e);
+        }
+    }
+
+    @Override
+    public void updateWithResolvedStatements(Collection<ResolvedStatement> resolvedStatements) {
+        // do nothing
+    }
+
+    @Override
+    public void close() throws LDFusionToolException {
+        closeHubSplit();
+        for (BinaryTupleReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOG.error("Error closing temporary file: " + e.getMessage(), e);
+            }
+        }
+        readers.clear();
+        for (ExternalTupleSorter sorter : sorters) {
+            sorter.close();
+        }
+        sorters.clear();
+        tupleIterator = null;
+        nextTuple = null;
+        if (workingDirectory != null && !workingDirectory.delete()) {
+            LOG.warn("Cannot delete temporary directory {}", workingDirectory);
+        }
+    }
+
+    /**
+     * Moves quads of the given resource (those already read and the rest of them from the sorted input)
+     * to temporary files sorted by part keys, from which parts of the resource description are read.
+     */
+    private void startHubSplit(Resource resource, List<Statement> readStatements) throws IOException {
+        hubSorter = new ExternalTupleSorter(workingDirectory, "hub", QUAD_ARITY, memoryLimit, compress);
+        for (Statement statement : readStatements) {
+            hubSorter.add(toHubTuple(resource,
+                    statement.getSubject(), statement.getPredicate(), statement.getObject(), statement.getContext()));
+        }
+        readStatements.clear();
+        while (nextTuple != null && ExternalTupleSorter.compareKeys(resource, nextTuple[0]) == 0) {
+            hubSorter.add(toHubTuple(resource, (Resource) nextTuple[1], (URI) nextTuple[2], nextTuple[3], (Resource) nextTuple[4]));
+            nextTuple = tupleIterator.next();
+        }
+        LOG.info(String.format("Splitting description of %s with %,d quads by property", resource, hubSorter.getTupleCount()));
+        hubIterator = new ExternalTupleSorter.MergingTupleIterator(hubSorter.openSortedRuns());
+        hubResource = resource;
+        nextHubTuple = hubIterator.next();
+    }
+
+    /**
+     * Returns the next part of a split resource description, i.e. all quads with the same part key.
+     */
+    private ResourceDescription nextHubPart() throws IOException {
+        Value key = nextHubTuple[0];
+        List<Statement> describingStatements = new ArrayList<>();
+        while (nextHubTuple != null && ExternalTupleSorter.compareKeys(key, nextHubTuple[0]) == 0) {
+            describingStatements.add(toStatement(nextHubTuple));
+            nextHubTuple = hubIterator.next();
+        }
+        Resource resource = hubResource;
+        if (nextHubTuple == null) {
+            spilledBytes += hubSorter.getSpilledBytes();
+            closeHubSplit();
+        }
+        return new ResourceDescriptionImpl(resource, describingStatements);
+    }
+
+    private void closeHubSplit() {
+        if (hubIterator != null) {
+            try {
+                hubIterator.close();
+            } catch (IOException e) {
+                LOG.error("Error closing temporary file: " + e.getMessage(), e);
+            }
+            hubIterator = null;
+        }
+        if (hubSorter != null) {
+            hubSorter.close();
+            hubSorter = null;
+        }
+        hubResource = null;
+        nextHubTuple = null;
+    }
+
+    /**
+     * Creates a quad tuple whose key is the canonical predicate for quads of the resource itself,
+     * {@link #DEPENDENT_PART_KEY} for its quads with a property tied by dependsOn,
+     * or {@link #NESTED_PART_KEY} for quads of dependent resources and quads with a resource description property.
+     */
+    private Value[] toHubTuple(Resource resource, Resource subject, URI predicate, Value object, Resource context) {
+        Value canonicalPredicate = uriMapping.mapResource(predicate);
+        Value partKey;
+        if (!resource.equals(uriMapping.mapResource(subject)) || resourceDescriptionProperties.contains(canonicalPredicate)) {
+            partKey = NESTED_PART_KEY;
+        } else if (canonicalDependentProperties.contains(canonicalPredicate)) {
+            partKey = DEPENDENT_PART_KEY;
+        } else {
+            partKey = canonicalPredicate;
+        }
+        return new Value[] { partKey, subject, predicate, object, context };
+    }
+
+    private ExternalTupleSorter createSorter(String name, int arity, long sorterMemoryLimit) {
+        ExternalTupleSorter sorter = new ExternalTupleSorter(workingDirectory, name, arity, sorterMemoryLimit, compress);
+        sorters.add(sorter);
+        return sorter;
+    }
+
+    private void loadQuads(final UriMappingIterable uriMapping, final ExternalTupleSorter quadSorter,
+            final ExternalTupleSorter dependencySorter) throws LDFusionToolException {
+        RDFHandlerBase handler = new RDFHandlerBase() {
+            @Override
+            public void handleStatement(Statement statement) throws RDFHandlerException {
+                Resource canonicalSubject = uriMapping.mapResource(statement.getSubject());
+                try {
+                    quadSorter.add(new Value[] {
+                            canonicalSubject, statement.getSubject(), statement.getPredicate(), statement.getObject(), statement.getContext() });
+                    if (statement.getObject() instanceof Resource
+                            && resourceDescriptionProperties.contains(uriMapping.mapResource(statement.getPredicate()))) {
+                        Resource canonicalObject = uriMapping.mapResource((Resource) statement.getObject());
+                        dependencySorter.add(new Value[] { canonicalObject, canonicalSubject });
+                    }
+                } catch (IOException e) {
+                    throw new RDFHandlerException("Error writing input quads to temporary file", e);
+                }
+            }
+        };
+        for (AllTriplesLoader dataSource : dataSources) {
+            try {
+                dataSource.loadAllTriples(handler);
+            } finally {
+                dataSource.close();
+            }
+        }
+    }
+
+    /**
+     * For each dependency (resource, referencing resource), copies quads describing the resource
+     * with the referencing resource as the key.
+     */
+    private void joinDependencies(ExternalTupleSorter.MergingTupleIterator quads,
+            ExternalTupleSorter.MergingTupleIterator dependencies, ExternalTupleSorter output) throws IOException {
+        Value[] quad = quads.next();
+        Value[] dependency = dependencies.next();
+        List<Value[]> group = new ArrayList<>();
+        while (quad != null && dependency != null) {
+            int comparison = ExternalTupleSorter.compareKeys(quad[0], dependency[0]);
+            if (comparison < 0) {
+                quad = quads.next();
+            } else if (comparison > 0) {
+                dependency = dependencies.next();
+            } else {
+                Value key = quad[0];
+                group.clear();
+                while (quad != null && ExternalTupleSorter.compareKeys(key, quad[0]) == 0) {
+                    group.add(quad);
+                    quad = quads.next();
+                }
+                Set<Value> processedReferencing = new HashSet<>();
+                while (dependency != null && ExternalTupleSorter.compareKeys(key, dependency[0]) == 0) {
+                    Value referencing = dependency[1];
+                    if (!referencing.equals(key) && processedReferencing.add(referencing)) {
+                        for (Value[] groupQuad : group) {
+                            Value[] copy = Arrays.copyOf(groupQuad, QUAD_ARITY);
+                            copy[0] = referencing;
+                            output.add(copy);
+                        }
+                    }
+                    dependency = dependencies.next();
+                }
+            }
+        }
+    }
+
+    private static Statement toStatement(Value[] tuple) {
+        return VALUE_FACTORY.createStatement((Resource) tuple[1], (URI) tuple[2], tuple[3], (Resource) tuple[4]);
+    }
+}
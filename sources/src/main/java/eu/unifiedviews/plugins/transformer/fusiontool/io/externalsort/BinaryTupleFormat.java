@@ -0,0 +1,54 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and shared helpers of the binary format of temporary files with tuples of RDF terms.
+ * <p>
+ * A file starts with a header (magic number, flags and tuple arity) followed by blocks.
+ * Each block is written as its uncompressed length, stored length, number of tuples and the stored bytes,
+ * which are Deflate-compressed if {@link #FLAG_DEFLATE} is set.
+ * Terms are dictionary-encoded within a block: the first occurrence of a term is written in full and
+ * assigned the next index, later occurrences are written as {@link #TAG_REFERENCE} and the index.
+ * The dictionary is reset for each block so that blocks can be decoded independently.
+ */
+final class BinaryTupleFormat {
+    /** Disable constructor for a utility class. */
+    private BinaryTupleFormat() {
+    }
+
+    static final int MAGIC = 0x46544231; // "FTB1"
+    static final int FLAG_DEFLATE = 1;
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    static final int TAG_REFERENCE = 0;
+    static final int TAG_URI = 1;
+    static final int TAG_BNODE = 2;
+    static final int TAG_LITERAL = 3;
+    static final int TAG_LANG_LITERAL = 4;
+    static final int TAG_TYPED_LITERAL = 5;
+    static final int TAG_NULL = 6;
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer in temporary file");
+    }
+}
@@ -0,0 +1,157 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streaming reader of tuples written by {@link BinaryTupleWriter}.
+ * Only a single block is held in memory at a time.
+ */
+class BinaryTupleReader implements Closeable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final ValueFactory VALUE_FACTORY = ValueFactoryImpl.getInstance();
+
+    private final DataInputStream input;
+    private final int arity;
+    private final Inflater inflater;
+    private final List<Value> dictionary = new ArrayList<>();
+    private byte[] storedBuffer = new byte[0];
+    private DataInputStream block;
+    private int blockTuplesLeft = 0;
+
+    /**
+     * @param file file to read
+     * @throws IOException error opening the file or invalid file header
+     */
+    BinaryTupleReader(File file) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+        try {
+            if (input.readInt() != BinaryTupleFormat.MAGIC) {
+                throw new IOException("Invalid temporary file " + file);
+            }
+            int flags = input.readUnsignedByte();
+            this.arity = input.readUnsignedByte();
+            this.inflater = (flags & BinaryTupleFormat.FLAG_DEFLATE) != 0 ? new Inflater() : null;
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next tuple.
+     * @return next tuple or null if the end of file has been reached
+     * @throws IOException error reading the file
+     */
+    Value[] read() throws IOException {
+        if (blockTuplesLeft == 0 && !readBlock()) {
+            return null;
+        }
+        Value[] tuple = new Value[arity];
+        for (int i = 0; i < arity; i++) {
+            tuple[i] = readTerm();
+        }
+        blockTuplesLeft--;
+        return tuple;
+    }
+
+    private boolean readBlock() throws IOException {
+        int rawLength;
+        try {
+            rawLength = input.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        int storedLength = input.readInt();
+        blockTuplesLeft = input.readInt();
+        if (storedBuffer.length < storedLength) {
+            storedBuffer = new byte[storedLength];
+        }
+        input.readFully(storedBuffer, 0, storedLength);
+        byte[] raw;
+        if (inflater != null) {
+            raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(storedBuffer, 0, storedLength);
+            try {
+                int inflated = 0;
+                while (inflated < rawLength && !inflater.finished()) {
+                    inflated += inflater.inflate(raw, inflated, rawLength - inflated);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted temporary file block", e);
+            }
+        } else {
+            raw = storedBuffer;
+        }
+        block = new DataInputStream(new ByteArrayInputStream(raw, 0, rawLength));
+        dictionary.clear();
+        return true;
+    }
+
+    private Value readTerm() throws IOException {
+        int tag = block.readUnsignedByte();
+        Value value;
+        switch (tag) {
+        case BinaryTupleFormat.TAG_NULL:
+            return null;
+        case BinaryTupleFormat.TAG_REFERENCE:
+            return dictionary.get(BinaryTupleFormat.readVarInt(block));
+        case BinaryTupleFormat.TAG_URI:
+            value = VALUE_FACTORY.createURI(readString());
+            break;
+        case BinaryTupleFormat.TAG_BNODE:
+            value = VALUE_FACTORY.createBNode(readString());
+            break;
+        case BinaryTupleFormat.TAG_LITERAL:
+            value = VALUE_FACTORY.createLiteral(readString());
+            break;
+        case BinaryTupleFormat.TAG_LANG_LITERAL:
+            String label = readString();
+            value = VALUE_FACTORY.createLiteral(label, readString());
+            break;
+        case BinaryTupleFormat.TAG_TYPED_LITERAL:
+            String typedLabel = readString();
+            value = VALUE_FACTORY.createLiteral(typedLabel, (URI) readTerm());
+            break;
+        default:
+            throw new IOException("Invalid term tag " + tag + " in temporary file");
+        }
+        dictionary.add(value);
+        return value;
+    }
+
+    private String readString() throws IOException {
+        int length = BinaryTupleFormat.readVarInt(block);
+        byte[] bytes = new byte[length];
+        block.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            input.close();
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes tuples of RDF terms to a file in the format described in {@link BinaryTupleFormat}.
+ * Elements of tuples may be null.
+ */
+class BinaryTupleWriter implements Closeable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final DataOutputStream output;
+    private final int arity;
+    private final Deflater deflater;
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(BinaryTupleFormat.BLOCK_SIZE + 1024);
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private final Map<Value, Integer> dictionary = new HashMap<>();
+    private byte[] compressBuffer = new byte[0];
+    private int blockTupleCount = 0;
+    private int blockCount = 0;
+
+    /**
+     * @param file output file
+     * @param arity number of elements of each tuple
+     * @param compress whether blocks should be Deflate-compressed
+     * @throws IOException error opening the file
+     */
+    BinaryTupleWriter(File file, int arity, boolean compress) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+        this.arity = arity;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        output.writeInt(BinaryTupleFormat.MAGIC);
+        output.writeByte(compress ? BinaryTupleFormat.FLAG_DEFLATE : 0);
+        output.writeByte(arity);
+    }
+
+    /**
+     * Writes a tuple.
+     * @param tuple tuple with {@code arity} elements
+     * @throws IOException error writing to the file
+     */
+    void write(Value[] tuple) throws IOException {
+        if (tuple.length != arity) {
+            throw new IllegalArgumentException("Expected tuple of length " + arity + ", got " + tuple.length);
+        }
+        for (Value value : tuple) {
+            writeTerm(value);
+        }
+        blockTupleCount++;
+        // block.size() counts all bytes written since the writer was created, blockBytes only the current block
+        if (blockBytes.size() >= BinaryTupleFormat.BLOCK_SIZE) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Returns number of blocks written to the file so far.
+     * @return number of written blocks
+     */
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    private void writeTerm(Value value) throws IOException {
+        if (value == null) {
+            block.writeByte(BinaryTupleFormat.TAG_NULL);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            block.writeByte(BinaryTupleFormat.TAG_REFERENCE);
+            BinaryTupleFormat.writeVarInt(block, index);
+            return;
+        }
+        if (value instanceof URI) {
+            block.writeByte(BinaryTupleFormat.TAG_URI);
+            writeString(value.stringValue());
+        } else if (value instanceof BNode) {
+            block.writeByte(BinaryTupleFormat.TAG_BNODE);
+            writeString(((BNode) value).getID());
+        } else {
+            Literal literal = (Literal) value;
+            if (literal.getLanguage() != null) {
+                block.writeByte(BinaryTupleFormat.TAG_LANG_LITERAL);
+                writeString(literal.getLabel());
+                writeString(literal.getLanguage());
+            } else if (literal.getDatatype() != null) {
+                block.writeByte(BinaryTupleFormat.TAG_TYPED_LITERAL);
+                writeString(literal.getLabel());
+                writeTerm(literal.getDatatype());
+            } else {
+                block.writeByte(BinaryTupleFormat.TAG_LITERAL);
+                writeString(literal.getLabel());
+            }
+        }
+        // the reader assigns indexes in the same order, i.e. after nested datatype terms
+        dictionary.put(value, dictionary.size());
+    }
+
+    private void writeString(String str) throws IOException {
+        byte[] bytes = str.getBytes(UTF8);
+        BinaryTupleFormat.writeVarInt(block, bytes.length);
+        block.write(bytes);
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockTupleCount == 0) {
+            return;
+        }
+        block.flush();
+        int rawLength = blockBytes.size();
+        byte[] raw = blockBytes.toByteArray();
+        output.writeInt(rawLength);
+        if (deflater != null) {
+            if (compressBuffer.length < rawLength + 64) {
+                compressBuffer = new byte[rawLength + rawLength / 8 + 64];
+            }
+            deflater.reset();
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            int storedLength = 0;
+            while (!deflater.finished()) {
+                if (storedLength == compressBuffer.length) {
+                    compressBuffer = Arrays.copyOf(compressBuffer, compressBuffer.length * 2);
+                }
+                storedLength += deflater.deflate(compressBuffer, storedLength, compressBuffer.length - storedLength);
+            }
+            output.writeInt(storedLength);
+            output.writeInt(blockTupleCount);
+            output.write(compressBuffer, 0, storedLength);
+        } else {
+            output.writeInt(rawLength);
+            output.writeInt(blockTupleCount);
+            output.write(raw, 0, rawLength);
+        }
+        blockBytes.reset();
+        dictionary.clear();
+        blockTupleCount = 0;
+        blockCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+        } finally {
+            output.close();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+}
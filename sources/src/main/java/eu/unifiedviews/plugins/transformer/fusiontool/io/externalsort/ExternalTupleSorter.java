@@ -0,0 +1,330 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import org.openrdf.model.BNode;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts tuples of RDF terms by their first element using temporary files in the binary format of
+ * {@link BinaryTupleWriter}. Tuples are buffered in memory up to the given memory limit, then each buffer is sorted
+ * and written as a run to a temporary file. Runs are merged in passes of at most {@link #MERGE_FAN_IN} runs until
+ * no more than that many remain; the last merge is left to the reader of the result ({@link MergingTupleIterator}),
+ * so that no extra sorted copy of all tuples is written.
+ */
+class ExternalTupleSorter implements Closeable {
+    /** Orders tuples by their first element (the key); tuples with equal keys are kept in insertion order. */
+    static final Comparator<Value[]> KEY_COMPARATOR = new Comparator<Value[]>() {
+        @Override
+        public int compare(Value[] tuple1, Value[] tuple2) {
+            return compareKeys(tuple1[0], tuple2[0]);
+        }
+    };
+
+    /** Maximum number of runs merged at once, i.e. maximum number of temporary files open for reading. */
+    static final int MERGE_FAN_IN = 64;
+
+    private static final long TUPLE_OVERHEAD = 48;
+    private static final long VALUE_OVERHEAD = 56;
+
+    private final File directory;
+    private final String name;
+    private final int arity;
+    private final long memoryLimit;
+    private final boolean compress;
+    private final int mergeFanIn;
+    private final List<Value[]> buffer = new ArrayList<>();
+    private final List<File> runs = new ArrayList<>();
+    private long bufferSize = 0;
+    private long tupleCount = 0;
+    private long spilledBytes = 0;
+
+    /**
+     * @param directory directory for temporary files
+     * @param name prefix of temporary file names
+     * @param arity number of elements of each tuple
+     * @param memoryLimit approximate maximum size of in-memory buffer in bytes
+     * @param compress whether temporary files should be compressed
+     */
+    ExternalTupleSorter(File directory, String name, int arity, long memoryLimit, boolean compress) {
+        this(directory, name, arity, memoryLimit, compress, MERGE_FAN_IN);
+    }
+
+    /**
+     * @param directory directory for temporary files
+     * @param name prefix of temporary file names
+     * @param arity number of elements of each tuple
+     * @param memoryLimit approximate maximum size of in-memory buffer in bytes
+     * @param compress whether temporary files should be compressed
+     * @param mergeFanIn maximum number of runs merged at once (at least 2)
+     */
+    ExternalTupleSorter(File directory, String name, int arity, long memoryLimit, boolean compress, int mergeFanIn) {
+        if (mergeFanIn < 2) {
+            throw new IllegalArgumentException("Merge fan-in must be at least 2");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.arity = arity;
+        this.memoryLimit = memoryLimit;
+        this.compress = compress;
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    /**
+     * Adds a tuple to be sorted.
+     * @param tuple tuple with a non-null first element
+     * @throws IOException error writing a run to a temporary file
+     */
+    void add(Value[] tuple) throws IOException {
+        buffer.add(tuple);
+        tupleCount++;
+        bufferSize += estimateSize(tuple);
+        if (bufferSize >= memoryLimit) {
+            writeRun();
+        }
+    }
+
+    /**
+     * Returns number of tuples added so far.
+     * @return number of tuples
+     */
+    long getTupleCount() {
+        return tupleCount;
+    }
+
+    /**
+     * Returns total size of temporary files written so far, including files of intermediate merge passes.
+     * @return number of bytes written to temporary files
+     */
+    long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * Sorts all added tuples and opens readers of the sorted runs.
+     * Runs are merged in passes until at most merge fan-in of them remain; the returned readers are
+     * meant to be merged by {@link MergingTupleIterator}, which keeps the insertion order of tuples with equal keys.
+     * May be called repeatedly to read the sorted tuples again.
+     * @return readers of sorted runs in the order of the runs; the caller is responsible for closing them
+     * @throws IOException error reading or writing temporary files
+     */
+    List<BinaryTupleReader> openSortedRuns() throws IOException {
+        if (!buffer.isEmpty() || runs.isEmpty()) {
+            writeRun();
+        }
+        while (runs.size() > mergeFanIn) {
+            mergePass();
+        }
+        return openReaders(runs);
+    }
+
+    @Override
+    public void close() {
+        buffer.clear();
+        deleteRuns();
+    }
+
+    private void writeRun() throws IOException {
+        Collections.sort(buffer, KEY_COMPARATOR);
+        File run = newFile("run");
+        runs.add(run);
+        try (BinaryTupleWriter writer = new BinaryTupleWriter(run, arity, compress)) {
+            for (Value[] tuple : buffer) {
+                writer.write(tuple);
+            }
+        }
+        spilledBytes += run.length();
+        buffer.clear();
+        bufferSize = 0;
+    }
+
+    /**
+     * Replaces each group of {@link #mergeFanIn} consecutive runs by a single merged run.
+     */
+    private void mergePass() throws IOException {
+        List<File> previousRuns = new ArrayList<>(runs);
+        runs.clear();
+        try {
+            for (int i = 0; i < previousRuns.size(); i += mergeFanIn) {
+                List<File> group = previousRuns.subList(i, Math.min(i + mergeFanIn, previousRuns.size()));
+                runs.add(group.size() == 1 ? group.get(0) : mergeRuns(group));
+            }
+        } finally {
+            previousRuns.removeAll(runs);
+            deleteFiles(previousRuns);
+        }
+    }
+
+    private File mergeRuns(List<File> sourceRuns) throws IOException {
+        File result = newFile("merged");
+        try {
+            try (MergingTupleIterator iterator = new MergingTupleIterator(openReaders(sourceRuns));
+                 BinaryTupleWriter writer = new BinaryTupleWriter(result, arity, compress)) {
+                for (Value[] tuple = iterator.next(); tuple != null; tuple = iterator.next()) {
+                    writer.write(tuple);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteFiles(Collections.singletonList(result));
+            throw e;
+        }
+        spilledBytes += result.length();
+        return result;
+    }
+
+    private static List<BinaryTupleReader> openReaders(List<File> files) throws IOException {
+        List<BinaryTupleReader> readers = new ArrayList<>(files.size());
+        try {
+            for (File file : files) {
+                readers.add(new BinaryTupleReader(file));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(readers);
+            throw e;
+        }
+        return readers;
+    }
+
+    private static void closeQuietly(List<BinaryTupleReader> readers) {
+        for (BinaryTupleReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // ignore, another error is being handled
+            }
+        }
+    }
+
+    private File newFile(String suffix) throws IOException {
+        return File.createTempFile(name + "-" + suffix, ".tmp", directory);
+    }
+
+    private void deleteRuns() {
+        deleteFiles(runs);
+        runs.clear();
+    }
+
+    private static void deleteFiles(List<File> files) {
+        for (File file : files) {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private static long estimateSize(Value[] tuple) {
+        long size = TUPLE_OVERHEAD + 8L * tuple.length;
+        for (Value value : tuple) {
+            if (value != null) {
+                size += VALUE_OVERHEAD + 2L * value.stringValue().length();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Compares keys of tuples; keys of different types (URI, blank node, literal) are never equal.
+     * @param key1 first key
+     * @param key2 second key
+     * @return a negative integer, zero, or a positive integer as the first key is less than, equal to, or greater
+     *      than the second
+     */
+    static int compareKeys(Value key1, Value key2) {
+        int typeComparison = typeOrder(key1) - typeOrder(key2);
+        return typeComparison != 0 ? typeComparison : key1.stringValue().compareTo(key2.stringValue());
+    }
+
+    private static int typeOrder(Value value) {
+        return value instanceof URI ? 0 : value instanceof BNode ? 1 : 2;
+    }
+
+    /**
+     * Merges sorted streams of tuples into a single sorted stream; for equal keys, tuples from readers
+     * earlier in the list come first. Closing the iterator closes all its readers.
+     */
+    static class MergingTupleIterator implements Closeable {
+        private final List<BinaryTupleReader> readers;
+        private final PriorityQueue<Head> queue;
+
+        /**
+         * @param readers readers of sorted streams; closed when the iterator is closed or when it fails to open
+         * @throws IOException error reading a temporary file
+         */
+        MergingTupleIterator(List<BinaryTupleReader> readers) throws IOException {
+            this.readers = readers;
+            this.queue = new PriorityQueue<>(Math.max(1, readers.size()));
+            try {
+                for (int i = 0; i < readers.size(); i++) {
+                    Value[] tuple = readers.get(i).read();
+                    if (tuple != null) {
+                        queue.add(new Head(readers.get(i), i, tuple));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(readers);
+                throw e;
+            }
+        }
+
+        /**
+         * Returns the next tuple in the sort order.
+         * @return next tuple or null if all readers are exhausted
+         * @throws IOException error reading a temporary file
+         */
+        Value[] next() throws IOException {
+            Head head = queue.poll();
+            if (head == null) {
+                return null;
+            }
+            Value[] result = head.tuple;
+            Value[] nextTuple = head.reader.read();
+            if (nextTuple != null) {
+                head.tuple = nextTuple;
+                queue.add(head);
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            queue.clear();
+            IOException error = null;
+            for (BinaryTupleReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private static class Head implements Comparable<Head> {
+            private final BinaryTupleReader reader;
+            private final int order;
+            private Value[] tuple;
+
+            Head(BinaryTupleReader reader, int order, Value[] tuple) {
+                this.reader = reader;
+                this.order = order;
+                this.tuple = tuple;
+            }
+
+            @Override
+            public int compareTo(Head other) {
+                int keyComparison = KEY_COMPARATOR.compare(tuple, other.tuple);
+                return keyComparison != 0 ? keyComparison : order - other.order;
+            }
+        }
+    }
+}
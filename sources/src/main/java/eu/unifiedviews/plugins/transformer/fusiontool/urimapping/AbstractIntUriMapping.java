@@ -0,0 +1,196 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterable;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Base class for URI mappings which intern URIs to consecutive integer IDs and keep
+ * the disjoint-find-union structure as an array of parent IDs.
+ * Subclasses define where the URI dictionary and the parent array are stored.
+ * The choice of canonical URIs follows the same rules as in
+ * {@link cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterableImpl}.
+ * Links must be added from a single thread; after {@link #compressPaths()}, the mapping can be read concurrently.
+ */
+public abstract class AbstractIntUriMapping implements UriMappingIterable {
+    private final Set<String> preferredURIs;
+    private final ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+
+    /**
+     * @param preferredURIs set of URIs preferred as canonical URIs
+     */
+    protected AbstractIntUriMapping(Set<String> preferredURIs) {
+        this.preferredURIs = preferredURIs != null ? preferredURIs : Collections.<String>emptySet();
+    }
+
+    /**
+     * Returns ID of the given URI.
+     * @param uri URI
+     * @return ID of the URI or a negative number if the URI is not in the mapping
+     */
+    protected abstract int getId(String uri);
+
+    /**
+     * Returns ID of the given URI; if the URI is not in the mapping yet, it is added with a new ID
+     * equal to the previous {@link #size()} and its parent is set to itself.
+     * @param uri URI
+     * @return ID of the URI
+     */
+    protected abstract int getOrAddId(String uri);
+
+    /**
+     * Returns URI with the given ID.
+     * @param id URI ID
+     * @return URI
+     */
+    protected abstract String getUri(int id);
+
+    /**
+     * Returns parent ID of the given ID in the disjoint-find-union structure.
+     * @param id URI ID
+     * @return parent ID
+     */
+    protected abstract int getParent(int id);
+
+    /**
+     * Sets parent ID of the given ID in the disjoint-find-union structure.
+     * @param id URI ID
+     * @param parentId new parent ID
+     */
+    protected abstract void setParent(int id, int parentId);
+
+    /**
+     * Returns number of distinct URIs in the mapping, including canonical URIs.
+     * @return number of URIs occurring in added links
+     */
+    public abstract int size();
+
+    /**
+     * Adds owl:sameAs-like link to the mapping; statements whose subject or object is not a URI are ignored.
+     * @param link link statement
+     */
+    public void addLink(Statement link) {
+        if (link.getSubject() instanceof URI && link.getObject() instanceof URI) {
+            addLink(link.getSubject().stringValue(), link.getObject().stringValue());
+        }
+    }
+
+    /**
+     * Adds link between two URIs to the mapping.
+     * @param uri1 first URI
+     * @param uri2 second URI
+     */
+    public void addLink(String uri1, String uri2) {
+        int root1 = findAndHalve(getOrAddId(uri1));
+        int root2 = findAndHalve(getOrAddId(uri2));
+        if (root1 == root2) {
+            return;
+        }
+        if (preferredURIs.contains(getUri(root1))) {
+            setParent(root2, root1);
+        } else {
+            setParent(root1, root2);
+        }
+    }
+
+    /**
+     * Makes every URI point directly to its canonical URI so that subsequent lookups take constant time
+     * and do not modify the structure.
+     */
+    public void compressPaths() {
+        int size = size();
+        for (int id = 0; id < size; id++) {
+            setParent(id, findAndHalve(id));
+        }
+    }
+
+    @Override
+    public Resource mapResource(Resource resource) {
+        if (resource instanceof URI) {
+            String uri = resource.stringValue();
+            String canonicalUri = getCanonicalURI(uri);
+            return canonicalUri.equals(uri) ? resource : valueFactory.createURI(canonicalUri);
+        }
+        return resource;
+    }
+
+    @Override
+    public String getCanonicalURI(String uri) {
+        int id = getId(uri);
+        if (id < 0) {
+            return uri;
+        }
+        int root = findRoot(id);
+        return root == id ? uri : getUri(root);
+    }
+
+    /**
+     * Iterates over URIs mapped to a different canonical URI.
+     * @return iterator over mapped (non-canonical) URIs
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private final int size = size();
+            private int next = skipCanonical(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String uri = getUri(next);
+                next = skipCanonical(next + 1);
+                return uri;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            private int skipCanonical(int from) {
+                int id = from;
+                while (id < size && getParent(id) == id) {
+                    id++;
+                }
+                return id;
+            }
+        };
+    }
+
+    private int findRoot(int id) {
+        int root = id;
+        int parent = getParent(root);
+        while (parent != root) {
+            root = parent;
+            parent = getParent(root);
+        }
+        return root;
+    }
+
+    private int findAndHalve(int id) {
+        int current = id;
+        int parent = getParent(current);
+        while (parent != current) {
+            int grandparent = getParent(parent);
+            setParent(current, grandparent);
+            current = grandparent;
+            parent = getParent(current);
+        }
+        return current;
+    }
+}
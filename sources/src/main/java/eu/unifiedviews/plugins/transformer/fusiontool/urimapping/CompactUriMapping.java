@@ -0,0 +1,61 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Memory-efficient alternative to {@link cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterableImpl}.
+ * URIs are interned to integer IDs in a {@link UriDictionary} and the disjoint-find-union structure
+ * is held in a primitive {@code int[]} array, so that no per-URI objects (map entries, boxed values) are kept on heap.
+ */
+public class CompactUriMapping extends AbstractIntUriMapping {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UriDictionary dictionary = new UriDictionary();
+    private int[] parent = new int[INITIAL_CAPACITY];
+
+    /**
+     * @param preferredURIs set of URIs preferred as canonical URIs
+     */
+    public CompactUriMapping(Set<String> preferredURIs) {
+        super(preferredURIs);
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    protected int getId(String uri) {
+        return dictionary.getId(uri);
+    }
+
+    @Override
+    protected int getOrAddId(String uri) {
+        int size = dictionary.size();
+        int id = dictionary.getOrAddId(uri);
+        if (id == size) {
+            if (id == parent.length) {
+                parent = Arrays.copyOf(parent, parent.length + (parent.length >> 1));
+            }
+            parent[id] = id;
+        }
+        return id;
+    }
+
+    @Override
+    protected String getUri(int id) {
+        return dictionary.getUri(id);
+    }
+
+    @Override
+    protected int getParent(int id) {
+        return parent[id];
+    }
+
+    @Override
+    protected void setParent(int id, int parentId) {
+        parent[id] = parentId;
+    }
+}
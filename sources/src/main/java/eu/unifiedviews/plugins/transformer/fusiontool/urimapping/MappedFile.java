@@ -0,0 +1,153 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * File accessed as a growable memory-mapped array of bytes.
+ * The file is mapped in segments of at most 64 MB which are created on demand by {@link #ensureCapacity(long)};
+ * the last segment is mapped only as large as needed and is remapped with double size when it must grow,
+ * so that small files are not extended to a whole segment.
+ * int and long values must be stored at positions aligned to their size so that they never cross a segment boundary.
+ * Remapping and closing unmap the replaced buffers immediately, so the file must not be accessed concurrently
+ * with {@link #ensureCapacity(long)} or after {@link #close()}.
+ * The file is deleted when closed.
+ */
+class MappedFile implements Closeable {
+    private static final int SEGMENT_SHIFT = 26; // 64 MB
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = (int) (SEGMENT_SIZE - 1);
+    private static final long MIN_MAPPED_SIZE = 1L << 16; // 64 kB
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[4];
+    private long mappedSize = 0;
+
+    /**
+     * @param file file to map; created if it doesn't exist
+     * @throws IOException error opening the file
+     */
+    MappedFile(File file) throws IOException {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.channel = randomAccessFile.getChannel();
+    }
+
+    /**
+     * Maps enough of the file so that positions up to (excluding) {@code size} can be accessed.
+     * Newly mapped space is filled with zeros.
+     * @param size required size in bytes
+     * @throws IOException error mapping the file
+     */
+    void ensureCapacity(long size) throws IOException {
+        while (mappedSize < size) {
+            // the segment containing the first unmapped position is either new or mapped only partially
+            int index = (int) (mappedSize >>> SEGMENT_SHIFT);
+            long segmentStart = (long) index << SEGMENT_SHIFT;
+            long requiredSize = Math.min(size - segmentStart, SEGMENT_SIZE);
+            long grownSize = Math.max(MIN_MAPPED_SIZE, 2 * (mappedSize - segmentStart));
+            long segmentSize = Math.min(SEGMENT_SIZE, Math.max(requiredSize, grownSize));
+            if (index == segments.length) {
+                segments = Arrays.copyOf(segments, segments.length * 2);
+            }
+            MappedByteBuffer oldSegment = segments[index];
+            segments[index] = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentSize);
+            if (oldSegment != null) {
+                unmap(oldSegment);
+            }
+            mappedSize = segmentStart + segmentSize;
+        }
+    }
+
+    byte getByte(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) position & SEGMENT_MASK);
+    }
+
+    void putByte(long position, byte value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].put((int) position & SEGMENT_MASK, value);
+    }
+
+    int getInt(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) position & SEGMENT_MASK);
+    }
+
+    void putInt(long position, int value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putInt((int) position & SEGMENT_MASK, value);
+    }
+
+    long getLong(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) position & SEGMENT_MASK);
+    }
+
+    void putLong(long position, long value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putLong((int) position & SEGMENT_MASK, value);
+    }
+
+    /**
+     * Copies bytes from the file to an array.
+     * @param position position in the file
+     * @param target target array
+     * @param length number of bytes to copy
+     */
+    void getBytes(long position, byte[] target, int length) {
+        for (int i = 0; i < length; i++) {
+            target[i] = getByte(position + i);
+        }
+    }
+
+    /**
+     * Copies bytes from an array to the file; the bytes may cross segment boundaries.
+     * @param position position in the file
+     * @param source source array
+     */
+    void putBytes(long position, byte[] source) {
+        for (int i = 0; i < source.length; i++) {
+            putByte(position + i, source[i]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] != null) {
+                unmap(segments[i]);
+                segments[i] = null;
+            }
+        }
+        mappedSize = 0;
+        try {
+            channel.close();
+            randomAccessFile.close();
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Releases the mapping of a buffer without waiting for garbage collection, where the JVM allows it.
+     * The buffer must not be accessed afterwards.
+     * @param buffer mapped buffer
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not supported by this JVM; the mapping is released when the buffer is garbage collected
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Variant of {@link UriDictionary} with all data kept in memory-mapped files in a given directory,
+ * so that its size is not limited by the heap size.
+ * Lookups compare UTF-8 bytes directly in the mapped files; a string is only created for returned URIs.
+ * Not thread-safe for concurrent modification; concurrent lookups are safe once the dictionary is not modified.
+ */
+class MappedUriDictionary implements Closeable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int INITIAL_SLOT_COUNT = 1 << 16;
+    /** Maximum size of the hash table; slot counts are powers of two indexed by int. */
+    private static final int MAX_SLOT_COUNT = 1 << 30;
+    /** Maximum number of URIs so that the hash table stays at most half full. */
+    private static final int MAX_SIZE = MAX_SLOT_COUNT / 2;
+    private static final int NO_ID = -1;
+
+    private final File directory;
+    /** UTF-8 bytes of URIs. */
+    private final MappedFile data;
+    /** Position of each URI in {@link #data} (long per ID). */
+    private final MappedFile positions;
+    /** Length in bytes and hash of each URI (two ints per ID). */
+    private final MappedFile lengthsAndHashes;
+    /** Hash table of (ID + 1); 0 marks an empty slot. */
+    private MappedFile slots;
+    private int slotCount;
+    private int slotsGeneration = 0;
+    private long dataSize = 0;
+    private int size = 0;
+
+    /**
+     * @param directory directory where the dictionary files are created
+     * @throws IOException error creating the files
+     */
+    MappedUriDictionary(File directory) throws IOException {
+        this.directory = directory;
+        this.data = new MappedFile(new File(directory, "uris.dat"));
+        this.positions = new MappedFile(new File(directory, "positions.dat"));
+        this.lengthsAndHashes = new MappedFile(new File(directory, "lengths.dat"));
+        this.slots = createSlots(INITIAL_SLOT_COUNT);
+        this.slotCount = INITIAL_SLOT_COUNT;
+    }
+
+    /**
+     * Returns ID of the given URI.
+     * @param uri URI
+     * @return ID of the URI or -1 if the URI is not in the dictionary
+     */
+    int getId(String uri) {
+        byte[] bytes = uri.getBytes(UTF8);
+        int hash = hash(uri);
+        int mask = slotCount - 1;
+        for (int slot = hash & mask; getSlot(slot) != 0; slot = (slot + 1) & mask) {
+            int id = getSlot(slot) - 1;
+            if (getHash(id) == hash && bytesEqual(id, bytes)) {
+                return id;
+            }
+        }
+        return NO_ID;
+    }
+
+    /**
+     * Returns ID of the given URI, adding the URI to the dictionary if it is not present.
+     * @param uri URI
+     * @return ID of the URI
+     * @throws IOException error extending the mapped files or the maximum number of URIs is exceeded
+     */
+    int getOrAddId(String uri) throws IOException {
+        byte[] bytes = uri.getBytes(UTF8);
+        int hash = hash(uri);
+        int mask = slotCount - 1;
+        int slot = hash & mask;
+        for (; getSlot(slot) != 0; slot = (slot + 1) & mask) {
+            int id = getSlot(slot) - 1;
+            if (getHash(id) == hash && bytesEqual(id, bytes)) {
+                return id;
+            }
+        }
+
+        if (size >= MAX_SIZE) {
+            throw new IOException("Cannot add more than " + MAX_SIZE + " URIs to the URI dictionary");
+        }
+        int id = size;
+        positions.ensureCapacity((id + 1L) * 8);
+        lengthsAndHashes.ensureCapacity((id + 1L) * 8);
+        data.ensureCapacity(dataSize + bytes.length);
+        data.putBytes(dataSize, bytes);
+        positions.putLong(id * 8L, dataSize);
+        lengthsAndHashes.putInt(id * 8L, bytes.length);
+        lengthsAndHashes.putInt(id * 8L + 4, hash);
+        dataSize += bytes.length;
+        slots.putInt(slot * 4L, id + 1);
+        size++;
+        if (size * 2L > slotCount) {
+            // cannot exceed MAX_SLOT_COUNT because size is at most MAX_SIZE
+            rehash((int) Math.min(slotCount * 2L, MAX_SLOT_COUNT));
+        }
+        return id;
+    }
+
+    /**
+     * Returns URI with the given ID.
+     * @param id URI ID
+     * @return URI
+     */
+    String getUri(int id) {
+        byte[] bytes = new byte[getLength(id)];
+        data.getBytes(positions.getLong(id * 8L), bytes, bytes.length);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Returns number of URIs in the dictionary; IDs are numbers from 0 to size - 1.
+     * @return number of URIs
+     */
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.close();
+            positions.close();
+            lengthsAndHashes.close();
+        } finally {
+            slots.close();
+        }
+    }
+
+    private int getSlot(int slot) {
+        return slots.getInt(slot * 4L);
+    }
+
+    private int getLength(int id) {
+        return lengthsAndHashes.getInt(id * 8L);
+    }
+
+    private int getHash(int id) {
+        return lengthsAndHashes.getInt(id * 8L + 4);
+    }
+
+    private boolean bytesEqual(int id, byte[] bytes) {
+        if (getLength(id) != bytes.length) {
+            return false;
+        }
+        long position = positions.getLong(id * 8L);
+        for (int i = 0; i < bytes.length; i++) {
+            if (data.getByte(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MappedFile createSlots(int newSlotCount) throws IOException {
+        MappedFile newSlots = new MappedFile(new File(directory, "slots-" + (slotsGeneration++) + ".dat"));
+        newSlots.ensureCapacity(newSlotCount * 4L);
+        return newSlots;
+    }
+
+    private void rehash(int newSlotCount) throws IOException {
+        MappedFile newSlots = createSlots(newSlotCount);
+        int mask = newSlotCount - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = getHash(id) & mask;
+            while (newSlots.getInt(slot * 4L) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots.putInt(slot * 4L, id + 1);
+        }
+        MappedFile oldSlots = slots;
+        slots = newSlots;
+        slotCount = newSlotCount;
+        oldSlots.close();
+    }
+
+    private static int hash(String uri) {
+        int h = uri.hashCode();
+        // spread bits so that similar URIs with common prefixes don't cluster in the table
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & Integer.MAX_VALUE;
+    }
+}
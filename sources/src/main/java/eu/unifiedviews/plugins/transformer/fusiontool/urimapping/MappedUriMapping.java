@@ -0,0 +1,92 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+
+/**
+ * URI mapping with the URI dictionary and the disjoint-find-union parent array kept in memory-mapped files,
+ * so that link closures bigger than the heap (or even RAM, at the cost of paging) can be processed.
+ * Files are created in a new temporary subdirectory of the given working directory and deleted on {@link #close()}.
+ * Errors extending the mapped files while links are added are reported as {@link IllegalStateException}.
+ */
+public class MappedUriMapping extends AbstractIntUriMapping implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedUriMapping.class);
+
+    private final File directory;
+    private final MappedUriDictionary dictionary;
+    private final MappedFile parent;
+
+    /**
+     * @param preferredURIs set of URIs preferred as canonical URIs
+     * @param workingDirectory directory where the mapping files are created
+     * @throws IOException error creating the mapping files
+     */
+    public MappedUriMapping(Set<String> preferredURIs, File workingDirectory) throws IOException {
+        super(preferredURIs);
+        this.directory = Files.createTempDirectory(workingDirectory.toPath(), "urimapping").toFile();
+        this.dictionary = new MappedUriDictionary(directory);
+        this.parent = new MappedFile(new File(directory, "parents.dat"));
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    protected int getId(String uri) {
+        return dictionary.getId(uri);
+    }
+
+    @Override
+    protected int getOrAddId(String uri) {
+        try {
+            int size = dictionary.size();
+            int id = dictionary.getOrAddId(uri);
+            if (id == size) {
+                parent.ensureCapacity((id + 1L) * 4);
+                parent.putInt(id * 4L, id);
+            }
+            return id;
+        } catch (IOException e) {
+            throw new IllegalStateException("Error extending memory-mapped URI mapping files in " + directory, e);
+        }
+    }
+
+    @Override
+    protected String getUri(int id) {
+        return dictionary.getUri(id);
+    }
+
+    @Override
+    protected int getParent(int id) {
+        return parent.getInt(id * 4L);
+    }
+
+    @Override
+    protected void setParent(int id, int parentId) {
+        parent.putInt(id * 4L, parentId);
+    }
+
+    /**
+     * Releases the mapped files and deletes them.
+     * @throws IOException error closing the files
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            dictionary.close();
+        } finally {
+            parent.close();
+            if (!directory.delete()) {
+                LOG.warn("Cannot delete URI mapping directory {}", directory);
+            }
+        }
+    }
+}
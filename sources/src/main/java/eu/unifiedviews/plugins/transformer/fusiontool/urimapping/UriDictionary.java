@@ -0,0 +1,156 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Compact dictionary assigning consecutive integer IDs to URIs.
+ * URIs are kept as UTF-8 bytes in large shared byte arrays and looked up through an open-addressing
+ * hash table of IDs, so that no per-URI objects are held on heap.
+ * Not thread-safe for concurrent modification; concurrent lookups are safe once the dictionary is not modified.
+ */
+class UriDictionary {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int CHUNK_SIZE = 1 << 24;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_ID = -1;
+
+    private byte[][] chunks = new byte[4][];
+    private int chunkCount = 0;
+    private int chunkPosition = CHUNK_SIZE;
+
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /** Hash table of (ID + 1); 0 marks an empty slot. */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Returns ID of the given URI.
+     * @param uri URI
+     * @return ID of the URI or -1 if the URI is not in the dictionary
+     */
+    int getId(String uri) {
+        byte[] bytes = uri.getBytes(UTF8);
+        int hash = hash(uri);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && bytesEqual(id, bytes)) {
+                return id;
+            }
+        }
+        return NO_ID;
+    }
+
+    /**
+     * Returns ID of the given URI, adding the URI to the dictionary if it is not present.
+     * @param uri URI
+     * @return ID of the URI
+     */
+    int getOrAddId(String uri) {
+        byte[] bytes = uri.getBytes(UTF8);
+        int hash = hash(uri);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && bytesEqual(id, bytes)) {
+                return id;
+            }
+        }
+
+        int id = size;
+        ensureIdCapacity(id + 1);
+        positions[id] = storeBytes(bytes);
+        lengths[id] = bytes.length;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Returns URI with the given ID.
+     * @param id URI ID
+     * @return URI
+     */
+    String getUri(int id) {
+        long position = positions[id];
+        return new String(chunks[(int) (position >>> 32)], (int) position, lengths[id], UTF8);
+    }
+
+    /**
+     * Returns number of URIs in the dictionary; IDs are numbers from 0 to size - 1.
+     * @return number of URIs
+     */
+    int size() {
+        return size;
+    }
+
+    private long storeBytes(byte[] bytes) {
+        if (bytes.length > CHUNK_SIZE - chunkPosition) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            chunks[chunkCount++] = new byte[Math.max(CHUNK_SIZE, bytes.length)];
+            chunkPosition = 0;
+        }
+        int chunkIndex = chunkCount - 1;
+        System.arraycopy(bytes, 0, chunks[chunkIndex], chunkPosition, bytes.length);
+        long position = ((long) chunkIndex << 32) | chunkPosition;
+        chunkPosition += bytes.length;
+        return position;
+    }
+
+    private boolean bytesEqual(int id, byte[] bytes) {
+        if (lengths[id] != bytes.length) {
+            return false;
+        }
+        long position = positions[id];
+        byte[] chunk = chunks[(int) (position >>> 32)];
+        int offset = (int) position;
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureIdCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int newCapacity = Math.max(capacity, positions.length + (positions.length >> 1));
+            positions = Arrays.copyOf(positions, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+        }
+    }
+
+    private void rehash(int newSlotCount) {
+        int[] newSlots = new int[newSlotCount];
+        int mask = newSlotCount - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (newSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = id + 1;
+        }
+        slots = newSlots;
+    }
+
+    private static int hash(String uri) {
+        int h = uri.hashCode();
+        // spread bits so that similar URIs with common prefixes don't cluster in the table
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & Integer.MAX_VALUE;
+    }
+}
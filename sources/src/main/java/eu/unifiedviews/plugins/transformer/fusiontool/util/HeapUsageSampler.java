@@ -0,0 +1,88 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks peak heap usage of a single run by periodically sampling current heap usage on a daemon thread.
+ * <p>
+ * Unlike peak usage of memory pools, the tracked peak doesn't depend on (and doesn't reset) JVM-wide counters,
+ * which are shared with everything else running in the same JVM. Short spikes between samples are not recorded,
+ * so the result is a lower bound of the real peak.
+ */
+public class HeapUsageSampler implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HeapUsageSampler.class);
+    private static final MemoryMXBean MEMORY_MX_BEAN = ManagementFactory.getMemoryMXBean();
+
+    private ScheduledExecutorService scheduler;
+    private long peakHeapUsage = 0;
+
+    /**
+     * Starts sampling.
+     * @param intervalMillis interval between samples in milliseconds; not positive value disables periodic sampling
+     */
+    public HeapUsageSampler(long intervalMillis) {
+        if (intervalMillis > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "fusiontool-heap-sampler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            scheduler.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        sample();
+                    } catch (RuntimeException e) {
+                        LOG.warn("Error sampling heap usage: {}", e.getMessage());
+                    }
+                }
+            }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the highest heap usage sampled since this sampler was created, including the current usage.
+     * @return peak heap usage in bytes
+     */
+    public synchronized long getPeakHeapUsage() {
+        sample();
+        return peakHeapUsage;
+    }
+
+    /**
+     * Stops sampling; the peak sampled so far is still available.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Records the current heap usage.
+     */
+    synchronized void sample() {
+        peakHeapUsage = Math.max(peakHeapUsage, getCurrentHeapUsage());
+    }
+
+    /**
+     * @return current heap usage in bytes
+     */
+    protected long getCurrentHeapUsage() {
+        return MEMORY_MX_BEAN.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,125 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of non-negative values (typically latencies in nanoseconds) with log-linear buckets:
+ * every power of two is divided into 8 buckets, so percentiles are reported with relative error of at most 12.5 %.
+ * Memory use is constant (under 4 kB) regardless of the number of recorded values.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     * @param value recorded value; negative values are recorded as 0
+     */
+    public void record(long value) {
+        long nonNegativeValue = Math.max(value, 0);
+        buckets.incrementAndGet(getBucketIndex(nonNegativeValue));
+        count.incrementAndGet();
+        total.addAndGet(nonNegativeValue);
+        long currentMax = max.get();
+        while (nonNegativeValue > currentMax && !max.compareAndSet(currentMax, nonNegativeValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Adds all values recorded in another histogram to this histogram.
+     * @param other histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = other.buckets.get(i);
+            if (bucketCount > 0) {
+                buckets.addAndGet(i, bucketCount);
+            }
+        }
+        count.addAndGet(other.getCount());
+        total.addAndGet(other.getTotal());
+        long otherMax = other.getMax();
+        long currentMax = max.get();
+        while (otherMax > currentMax && !max.compareAndSet(currentMax, otherMax)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return sum of recorded values
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return maximum recorded value or 0 if no value was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of recorded values or 0 if no value was recorded
+     */
+    public double getMean() {
+        long valueCount = getCount();
+        return valueCount == 0 ? 0 : (double) getTotal() / valueCount;
+    }
+
+    /**
+     * Returns an upper estimate of the given percentile of recorded values.
+     * @param percentile percentile between 0 and 100
+     * @return the smallest bucket upper bound (capped by the maximum) such that at least the given percentage
+     *      of recorded values is not greater; 0 if no value was recorded
+     */
+    public long getPercentile(double percentile) {
+        long valueCount = getCount();
+        if (valueCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * valueCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += buckets.get(i);
+            if (cumulativeCount >= rank) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int getBucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,113 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+/**
+ * Map from primitive long keys to primitive double values using open addressing with linear probing.
+ * Avoids boxing and per-entry objects; takes 16 bytes per slot with at most half of the slots used.
+ * Not thread-safe for modification; a map that is no longer modified can be read concurrently.
+ */
+public class LongDoubleHashMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size = 0;
+
+    /**
+     * Creates an empty map.
+     */
+    public LongDoubleHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map.
+     * @param expectedSize expected number of entries
+     */
+    public LongDoubleHashMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Associates the value with the key, replacing any previous value.
+     * @param key key
+     * @param value value
+     */
+    public void put(long key, double value) {
+        if (2 * (size + 1) > keys.length) {
+            rehash(keys.length << 1);
+        }
+        int slot = findSlot(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     * @param key key
+     * @param defaultValue value returned when the key is not in the map
+     * @return value for the key or defaultValue
+     */
+    public double get(long key, double defaultValue) {
+        int slot = findSlot(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * @param key key
+     * @return true if the map contains the key
+     */
+    public boolean containsKey(long key) {
+        return used[findSlot(key)];
+    }
+
+    /**
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = findSlot(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new double[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
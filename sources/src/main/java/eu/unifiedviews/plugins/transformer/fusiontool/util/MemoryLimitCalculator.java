@@ -0,0 +1,59 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculates the memory limit for in-memory buffers (e.g. of the external sorting input loader)
+ * from the heap available to the JVM.
+ */
+public final class MemoryLimitCalculator {
+    private static final Logger LOG = LoggerFactory.getLogger(MemoryLimitCalculator.class);
+
+    /** Minimum memory limit so that buffers are usable even when the heap is almost exhausted. */
+    public static final long MIN_MEMORY_LIMIT = 16 * 1024 * 1024;
+
+    /** Disable constructor for a utility class. */
+    private MemoryLimitCalculator() {
+    }
+
+    /**
+     * Returns memory limit for the current JVM.
+     * @param configuredLimit explicitly configured limit in bytes or null for adaptive sizing
+     * @param maxFreeMemoryUsage maximum fraction of the free heap that can be used
+     * @return memory limit in bytes
+     * @see #calculateMemoryLimit(Long, float, long, long)
+     */
+    public static long calculateMemoryLimit(Long configuredLimit, float maxFreeMemoryUsage) {
+        Runtime runtime = Runtime.getRuntime();
+        return calculateMemoryLimit(configuredLimit, maxFreeMemoryUsage, runtime.maxMemory(), runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Returns memory limit for the given heap state.
+     * The adaptive limit is the given fraction of heap which can still be allocated (maximum heap size minus
+     * currently used memory). An explicitly configured limit is used as is unless it exceeds the free heap,
+     * in which case it is capped to the adaptive limit so that the buffer does not cause OutOfMemoryError.
+     * The result is never lower than {@link #MIN_MEMORY_LIMIT}.
+     * @param configuredLimit explicitly configured limit in bytes or null for adaptive sizing
+     * @param maxFreeMemoryUsage maximum fraction of the free heap that can be used
+     * @param maxMemory maximum heap size in bytes
+     * @param usedMemory currently used heap in bytes
+     * @return memory limit in bytes
+     */
+    public static long calculateMemoryLimit(Long configuredLimit, float maxFreeMemoryUsage, long maxMemory, long usedMemory) {
+        long freeMemory = Math.max(0, maxMemory - usedMemory);
+        long adaptiveLimit = Math.max(MIN_MEMORY_LIMIT, (long) (maxFreeMemoryUsage * freeMemory));
+        if (configuredLimit == null) {
+            LOG.info("Using memory limit {} MB ({}% of {} MB free heap)",
+                    new Object[] { adaptiveLimit >> 20, Math.round(maxFreeMemoryUsage * 100), freeMemory >> 20 });
+            return adaptiveLimit;
+        } else if (configuredLimit > freeMemory) {
+            LOG.warn("Configured memory limit {} MB exceeds free heap {} MB, using {} MB instead",
+                    new Object[] { configuredLimit >> 20, freeMemory >> 20, adaptiveLimit >> 20 });
+            return adaptiveLimit;
+        } else {
+            return Math.max(MIN_MEMORY_LIMIT, configuredLimit);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import com.google.common.base.CaseFormat;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Machine-readable summary of a single run: wall time of processing stages, throughput of loading and writing,
+ * number of resolved resource descriptions, volume of temporary files and peak heap usage.
+ * The report can be serialized as JSON or as RDF statements.
+ */
+public class PerformanceReport {
+    /** Namespace of properties used in the RDF form of the report. */
+    public static final String NAMESPACE = "http://unifiedviews.eu/ontology/t-fusionTool/performance/";
+
+    private static final ValueFactory VALUE_FACTORY = ValueFactoryImpl.getInstance();
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long timestamp;
+    private final long totalTime;
+    private final Map<String, Long> stageTimes;
+    private final long loadedQuads;
+    private final long loadingTime;
+    private final long writtenQuads;
+    private final long writingTime;
+    private final long resolvedResourceDescriptions;
+    private final Long spilledBytes;
+    private final long peakHeapBytes;
+    private final double loadingQuadsPerSecond;
+    private final double writingQuadsPerSecond;
+
+    /**
+     * @param timestamp time when the run finished in milliseconds since the epoch
+     * @param totalTime wall time of the whole run in milliseconds
+     * @param stageTimes wall time of processing stages in milliseconds; keys should be UPPER_UNDERSCORE enum names
+     * @param statistics statistics collected during the run
+     * @param spilledBytes total size of temporary files or null if unknown
+     * @param peakHeapBytes peak heap usage of the run in bytes
+     */
+    public PerformanceReport(long timestamp, long totalTime, Map<String, Long> stageTimes, PerformanceStatistics statistics,
+            Long spilledBytes, long peakHeapBytes) {
+        this.timestamp = timestamp;
+        this.totalTime = totalTime;
+        this.stageTimes = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : stageTimes.entrySet()) {
+            this.stageTimes.put(CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.LOWER_CAMEL, entry.getKey()), entry.getValue());
+        }
+        this.loadedQuads = statistics.getLoadedQuads();
+        this.loadingTime = statistics.getLoadingNanos() / 1000000;
+        this.writtenQuads = statistics.getWrittenQuads();
+        this.writingTime = statistics.getWritingNanos() / 1000000;
+        this.resolvedResourceDescriptions = statistics.getResolvedResourceDescriptions();
+        this.spilledBytes = spilledBytes;
+        this.peakHeapBytes = peakHeapBytes;
+        this.loadingQuadsPerSecond = perSecond(statistics.getLoadedQuads(), statistics.getLoadingNanos());
+        this.writingQuadsPerSecond = perSecond(statistics.getWrittenQuads(), statistics.getWritingNanos());
+    }
+
+    /**
+     * @return wall time of processing stages in milliseconds by lowerCamelCase stage name
+     */
+    public Map<String, Long> getStageTimes() {
+        return Collections.unmodifiableMap(stageTimes);
+    }
+
+    /**
+     * @return number of quads read from input
+     */
+    public long getLoadedQuads() {
+        return loadedQuads;
+    }
+
+    /**
+     * @return input quads loaded per second of loading time
+     */
+    public double getLoadingQuadsPerSecond() {
+        return loadingQuadsPerSecond;
+    }
+
+    /**
+     * @return number of quads written to output
+     */
+    public long getWrittenQuads() {
+        return writtenQuads;
+    }
+
+    /**
+     * @return output quads written per second of writing time
+     */
+    public double getWritingQuadsPerSecond() {
+        return writingQuadsPerSecond;
+    }
+
+    /**
+     * @return number of resource descriptions whose conflicts were resolved
+     */
+    public long getResolvedResourceDescriptions() {
+        return resolvedResourceDescriptions;
+    }
+
+    /**
+     * Serializes the report as a JSON object.
+     * @return JSON representation of the report
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        appendJsonField(json, "timestamp", timestamp);
+        appendJsonField(json, "totalTimeMs", totalTime);
+        json.append("  \"stageTimesMs\": {");
+        String separator = "\n";
+        for (Map.Entry<String, Long> entry : stageTimes.entrySet()) {
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": ").append(entry.getValue());
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+        appendJsonField(json, "loadedQuads", loadedQuads);
+        appendJsonField(json, "loadingTimeMs", loadingTime);
+        appendJsonField(json, "loadingQuadsPerSecond", formatDouble(loadingQuadsPerSecond));
+        appendJsonField(json, "writtenQuads", writtenQuads);
+        appendJsonField(json, "writingTimeMs", writingTime);
+        appendJsonField(json, "writingQuadsPerSecond", formatDouble(writingQuadsPerSecond));
+        appendJsonField(json, "resolvedResourceDescriptions", resolvedResourceDescriptions);
+        appendJsonField(json, "spilledBytes", spilledBytes);
+        json.append("  \"peakHeapBytes\": ").append(peakHeapBytes).append("\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Writes the JSON representation of the report to a file.
+     * @param file output file; overwritten if it exists
+     * @throws IOException error writing the file
+     */
+    public void writeJson(File file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+    }
+
+    /**
+     * Returns the report as RDF statements (without context) about the given resource.
+     * @param report resource representing the report
+     * @return statements of the report
+     */
+    public List<Statement> toStatements(Resource report) {
+        List<Statement> statements = new ArrayList<>();
+        statements.add(createStatement(report, "timestamp", VALUE_FACTORY.createLiteral(new Date(timestamp))));
+        statements.add(createStatement(report, "totalTimeMs", VALUE_FACTORY.createLiteral(totalTime)));
+        for (Map.Entry<String, Long> entry : stageTimes.entrySet()) {
+            statements.add(createStatement(report, entry.getKey() + "TimeMs", VALUE_FACTORY.createLiteral(entry.getValue())));
+        }
+        statements.add(createStatement(report, "loadedQuads", VALUE_FACTORY.createLiteral(loadedQuads)));
+        statements.add(createStatement(report, "loadingTimeMs", VALUE_FACTORY.createLiteral(loadingTime)));
+        statements.add(createStatement(report, "loadingQuadsPerSecond", VALUE_FACTORY.createLiteral(loadingQuadsPerSecond)));
+        statements.add(createStatement(report, "writtenQuads", VALUE_FACTORY.createLiteral(writtenQuads)));
+        statements.add(createStatement(report, "writingTimeMs", VALUE_FACTORY.createLiteral(writingTime)));
+        statements.add(createStatement(report, "writingQuadsPerSecond", VALUE_FACTORY.createLiteral(writingQuadsPerSecond)));
+        statements.add(createStatement(report, "resolvedResourceDescriptions",
+                VALUE_FACTORY.createLiteral(resolvedResourceDescriptions)));
+        if (spilledBytes != null) {
+            statements.add(createStatement(report, "spilledBytes", VALUE_FACTORY.createLiteral(spilledBytes.longValue())));
+        }
+        statements.add(createStatement(report, "peakHeapBytes", VALUE_FACTORY.createLiteral(peakHeapBytes)));
+        return statements;
+    }
+
+    private static Statement createStatement(Resource subject, String property, Value value) {
+        URI predicate = VALUE_FACTORY.createURI(NAMESPACE, property);
+        return VALUE_FACTORY.createStatement(subject, predicate, value);
+    }
+
+    private static void appendJsonField(StringBuilder json, String name, Object value) {
+        json.append("  \"").append(name).append("\": ").append(value == null ? "null" : value).append(",\n");
+    }
+
+    private static String formatDouble(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos > 0 ? count * NANOS_PER_SECOND / nanos : 0;
+    }
+}
@@ -0,0 +1,77 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counters of processed data collected during a single run for the performance report.
+ * Updates are cheap enough to be made for every processed batch or resource description.
+ */
+public class PerformanceStatistics {
+    private final AtomicLong loadedQuads = new AtomicLong();
+    private final AtomicLong loadingNanos = new AtomicLong();
+    private final AtomicLong writtenQuads = new AtomicLong();
+    private final AtomicLong writingNanos = new AtomicLong();
+    private final AtomicLong resolvedResourceDescriptions = new AtomicLong();
+
+    /**
+     * Records quads read from input.
+     * @param quadCount number of loaded quads
+     * @param nanos time spent loading the quads in nanoseconds
+     */
+    public void recordLoadedQuads(long quadCount, long nanos) {
+        loadedQuads.addAndGet(quadCount);
+        loadingNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records quads written to output.
+     * @param quadCount number of written quads
+     * @param nanos time spent writing the quads in nanoseconds
+     */
+    public void recordWrittenQuads(long quadCount, long nanos) {
+        writtenQuads.addAndGet(quadCount);
+        writingNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records a resource description whose conflicts were resolved.
+     */
+    public void recordResolvedResourceDescription() {
+        resolvedResourceDescriptions.incrementAndGet();
+    }
+
+    /**
+     * @return number of quads read from input
+     */
+    public long getLoadedQuads() {
+        return loadedQuads.get();
+    }
+
+    /**
+     * @return time spent loading input quads in nanoseconds
+     */
+    public long getLoadingNanos() {
+        return loadingNanos.get();
+    }
+
+    /**
+     * @return number of quads written to output
+     */
+    public long getWrittenQuads() {
+        return writtenQuads.get();
+    }
+
+    /**
+     * @return time spent writing output quads in nanoseconds
+     */
+    public long getWritingNanos() {
+        return writingNanos.get();
+    }
+
+    /**
+     * @return number of resource descriptions whose conflicts were resolved
+     */
+    public long getResolvedResourceDescriptions() {
+        return resolvedResourceDescriptions.get();
+    }
+}
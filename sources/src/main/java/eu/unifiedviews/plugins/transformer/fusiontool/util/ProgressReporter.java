@@ -0,0 +1,231 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import cz.cuni.mff.odcleanstore.fusiontool.util.LDFusionToolUtils;
+import eu.unifiedviews.dpu.DPUContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically publishes progress of the current processing stage (items processed, rate and estimated remaining time)
+ * as DPU messages, so that it can be watched in the UnifiedViews UI.
+ * <p>
+ * Processing code only increments the counter of its {@link Stage}; a stage becomes the current one when its first item
+ * is counted. Messages are sent from a daemon thread started with the first stage, so there is no overhead
+ * in the processing threads other than an atomic increment. If the reporting interval is not positive,
+ * nothing is published.
+ */
+public class ProgressReporter implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ProgressReporter.class);
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private final DPUContext context;
+    private final long intervalMillis;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService estimationExecutor;
+    private volatile Stage currentStage;
+    private long lastReportedCount = -1;
+    private Stage lastReportedStage;
+    private long lastReportTime;
+
+    /**
+     * @param context DPU context used to send messages
+     * @param intervalMillis interval between progress messages in milliseconds; not positive value disables reporting
+     */
+    public ProgressReporter(DPUContext context, long intervalMillis) {
+        this.context = context;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Creates a new processing stage. The stage becomes the current one when its first item is counted.
+     * @param name human-readable name of the stage, e.g. "Loading input quads"
+     * @param itemName human-readable name of processed items in plural, e.g. "quads"
+     * @return new stage
+     */
+    public Stage createStage(String name, String itemName) {
+        return new Stage(name, itemName);
+    }
+
+    /**
+     * Computes the expected number of items of a stage on a separate daemon thread, so that the (possibly expensive)
+     * estimation delays neither processing nor progress messages. Does nothing if reporting is disabled.
+     * @param stage stage
+     * @param estimator computes the expected number of items
+     */
+    public synchronized void estimateExpectedItems(final Stage stage, final Callable<Long> estimator) {
+        if (!ensureStarted()) {
+            return;
+        }
+        if (estimationExecutor == null) {
+            estimationExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("fusiontool-progress-estimation"));
+        }
+        estimationExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    stage.setExpectedItems(estimator.call());
+                } catch (Exception e) {
+                    LOG.warn("Cannot estimate number of items of stage {}: {}", stage.name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops reporting.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (estimationExecutor != null) {
+            estimationExecutor.shutdownNow();
+            estimationExecutor = null;
+        }
+    }
+
+    /**
+     * Sends a message with progress of the current stage.
+     */
+    void report() {
+        Stage stage = currentStage;
+        if (stage == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long count = stage.getCount();
+        String message;
+        if (stage == lastReportedStage && count == lastReportedCount) {
+            message = String.format(Locale.ROOT, "%s: %,d %s, no progress in the last %s",
+                    stage.name, count, stage.itemName, LDFusionToolUtils.formatTime((now - lastReportTime) / NANOS_PER_MILLI));
+        } else {
+            long elapsedNanos = Math.max(now - stage.startTime, 1);
+            double rate = count * 1e9 / elapsedNanos;
+            message = String.format(Locale.ROOT, "%s: %,d %s in %s (%,.0f %s/s)",
+                    stage.name, count, stage.itemName, LDFusionToolUtils.formatTime(elapsedNanos / NANOS_PER_MILLI),
+                    rate, stage.itemName);
+            long expectedItems = stage.expectedItems;
+            if (expectedItems > count && rate > 0) {
+                long remainingMillis = (long) ((expectedItems - count) * 1000 / rate);
+                message += String.format(Locale.ROOT, ", %.0f %% done, about %s remaining",
+                        100d * count / expectedItems, LDFusionToolUtils.formatTime(remainingMillis));
+            }
+            lastReportTime = now;
+            lastReportedStage = stage;
+            lastReportedCount = count;
+        }
+        LOG.debug(message);
+        context.sendMessage(DPUContext.MessageType.INFO, message);
+    }
+
+    private synchronized void stageStarted(Stage stage) {
+        currentStage = stage;
+        ensureStarted();
+    }
+
+    private boolean ensureStarted() {
+        if (intervalMillis <= 0) {
+            return false;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("fusiontool-progress"));
+            scheduler.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        report();
+                    } catch (RuntimeException e) {
+                        LOG.warn("Error reporting progress: {}", e.getMessage());
+                    }
+                }
+            }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String threadName) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Processing stage with a counter of processed items. Thread-safe.
+     */
+    public final class Stage {
+        private final String name;
+        private final String itemName;
+        private final AtomicLong count = new AtomicLong();
+        private volatile long startTime;
+        private volatile long expectedItems = -1;
+
+        private Stage(String name, String itemName) {
+            this.name = name;
+            this.itemName = itemName;
+        }
+
+        /**
+         * Counts a processed item.
+         */
+        public void increment() {
+            add(1);
+        }
+
+        /**
+         * Counts processed items.
+         * @param itemCount number of processed items
+         */
+        public void add(long itemCount) {
+            // start time is set before the count so that a concurrent report never sees items without a start time
+            boolean isFirst = startTime == 0 && markStarted();
+            count.getAndAdd(itemCount);
+            if (isFirst) {
+                stageStarted(this);
+            }
+        }
+
+        /**
+         * @return number of items processed so far
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Sets the start time if it is not set yet.
+         * @return true if the start time was set by this call
+         */
+        private synchronized boolean markStarted() {
+            if (startTime != 0) {
+                return false;
+            }
+            startTime = System.nanoTime();
+            return true;
+        }
+
+        /**
+         * Sets the expected total number of items, which is used to estimate remaining time.
+         * @param expectedItems expected number of items; not positive value means unknown
+         */
+        public void setExpectedItems(long expectedItems) {
+            this.expectedItems = expectedItems;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable set of strings (URIs) represented by a sorted array of their 64-bit hashes.
+ * Takes 8 bytes per element. {@link #contains(String)} never returns a false negative; a false positive
+ * happens only for a hash collision, so the set is suitable for pre-filtering where an exact check follows.
+ */
+public final class UriHashSet {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] hashes;
+
+    private UriHashSet(long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    /**
+     * Returns true if the string is (very probably) in the set.
+     * @param value string to test
+     * @return false if the value is not in the set, true if it is in the set or collides with an element
+     */
+    public boolean contains(String value) {
+        return Arrays.binarySearch(hashes, hash(value)) >= 0;
+    }
+
+    /**
+     * @return number of distinct hashes in the set
+     */
+    public int size() {
+        return hashes.length;
+    }
+
+    /**
+     * Computes the 64-bit hash of a string used by this set (FNV-1a over UTF-16 code units with a final mix).
+     * @param value string
+     * @return hash
+     */
+    public static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // finalization step of MurmurHash3 to spread the bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Builder of a {@link UriHashSet}. Not thread-safe.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] hashes = new long[INITIAL_CAPACITY];
+        private int size = 0;
+
+        /**
+         * Adds a string to the set being built.
+         * @param value string to add
+         * @return this builder
+         */
+        public Builder add(String value) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            }
+            hashes[size++] = hash(value);
+            return this;
+        }
+
+        /**
+         * Creates the set from strings added so far.
+         * @return new set
+         */
+        public UriHashSet build() {
+            long[] sorted = Arrays.copyOf(hashes, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return new UriHashSet(Arrays.copyOf(sorted, distinct));
+        }
+    }
+}
@@ -22,15 +22,27 @@ import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMapp
 import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
 import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
 import cz.cuni.mff.odcleanstore.fusiontool.loaders.fiter.ResourceDescriptionFilter;
+import cz.cuni.mff.odcleanstore.fusiontool.util.EnumFusionCounters;
+import cz.cuni.mff.odcleanstore.fusiontool.util.ProfilingTimeCounter;
 import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
 import cz.cuni.mff.odcleanstore.fusiontool.writers.UriMappingWriter;
 import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.dataunit.files.WritableFilesDataUnit;
 import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
 import eu.unifiedviews.dpu.DPUContext;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainer;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.ConfigContainerImpl;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FileOutputImpl;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.ParallelFusionExecutor;
+import eu.unifiedviews.plugins.transformer.fusiontool.execution.ThreadLocalConflictResolver;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.AsyncRDFWriter;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.SubjectPreFilteringInputLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort.BinarySpillInputLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.CompactUriMapping;
+import eu.unifiedviews.plugins.transformer.fusiontool.urimapping.MappedUriMapping;
 import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.PerformanceReport;
 import org.hamcrest.MatcherAssert;
 import org.junit.After;
 import org.junit.Before;
@@ -41,14 +53,17 @@ import org.openrdf.model.Model;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
+import org.openrdf.model.Value;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.model.vocabulary.OWL;
 import org.openrdf.model.vocabulary.RDF;
 import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.RDFFormat;
 
 import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -64,6 +79,9 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
@@ -121,6 +139,33 @@ public class FusionToolDpuComponentFactoryTest {
         assertThat(metadata, containsInAnyOrder(Lists.transform(expectedStatements, STATEMENT_TO_MATCHER)));
     }
 
+    @Test
+    public void getsIndexedMetadataWithSourceQualityStatementsOnly() throws Exception {
+        // Arrange
+        Statement scoreStatement = VF.createStatement(
+                createHttpUri("source1"), ODCS.SCORE, VF.createLiteral(0.8), createHttpUri("metadataGraph"));
+        Statement publishedByStatement = VF.createStatement(
+                createHttpUri("source1"), ODCS.PUBLISHED_BY, createHttpUri("publisher1"), createHttpUri("metadataGraph"));
+        Statement publisherScoreStatement = VF.createStatement(
+                createHttpUri("publisher1"), ODCS.PUBLISHER_SCORE, VF.createLiteral(0.5), createHttpUri("metadataGraph"));
+        metadataDataUnit.close();
+        metadataDataUnit = new MockRDFDataUnit(ImmutableList.of(
+                scoreStatement, publishedByStatement, publisherScoreStatement, createStatement()));
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.getIndexedMetadata()).thenReturn(true);
+
+        // Act
+        Model metadata = getComponentFactory(config).getMetadata();
+
+        // Assert
+        assertThat(metadata, containsInAnyOrder(
+                contextAwareStatementIsEqual(scoreStatement),
+                contextAwareStatementIsEqual(publishedByStatement),
+                contextAwareStatementIsEqual(publisherScoreStatement)));
+        assertThat(Iterables.getOnlyElement(metadata.filter(createHttpUri("source1"), ODCS.SCORE, null)).getObject(),
+                is((Value) VF.createLiteral(0.8)));
+    }
+
     @Test
     public void getsExecutorTimeProfiler() throws Exception {
         FusionToolDpuComponentFactory componentFactory = getComponentFactory();
@@ -228,42 +273,131 @@ public class FusionToolDpuComponentFactoryTest {
     }
 
     @Test
-    public void getsUriMapping() throws Exception {
+    public void getsFileRDFWriterWhenFileOutputIsConfigured() throws Exception {
+        File outputFile = new File(testDir.newFolder("files"), "output.nq");
+        WritableFilesDataUnit fileOutputDataUnit = mock(WritableFilesDataUnit.class);
+        when(fileOutputDataUnit.addNewFile("output.nq")).thenReturn(outputFile.toURI().toString());
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.getFileOutput()).thenReturn(new FileOutputImpl(new File("output.nq"), RDFFormat.NQUADS));
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = new FusionToolDpuComponentFactory(
+                config, dpuContext, rdfInputs, sameAsDataUnit, metadataDataUnit, outputDataUnit, fileOutputDataUnit);
+        try (CloseableRDFWriter writer = componentFactory.getRDFWriter()) {
+            writer.write(createHttpStatement("s", "p", "o"));
+        }
+
+        // Assert
+        assertTrue(outputFile.length() > 0);
+        assertThat(outputDataUnit.getAllStatements().isEmpty(), is(true));
+    }
+
+    @Test
+    public void getsAsyncRDFWriterWhenAsyncOutputIsEnabled() throws Exception {
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.getAsyncOutput()).thenReturn(true);
+        when(config.getDataGraphSymbolicName()).thenReturn(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME);
+        Statement statement = createStatement();
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        CloseableRDFWriter writer = componentFactory.getRDFWriter();
+        writer.write(new ResolvedStatementImpl(statement, 0.5, ImmutableList.of((Resource) getUniqueURI())));
+        writer.close();
+
+        // Assert
+        assertThat(writer, instanceOf(AsyncRDFWriter.class));
+        Statement actualStatement = Iterables.getOnlyElement(outputDataUnit.getAllStatements());
+        MatcherAssert.assertThat(actualStatement, is(statement));
+    }
+
+    @Test
+    public void writesPerformanceReportWithStatisticsOfCreatedComponents() throws Exception {
         // Arrange
-        sameAsDataUnit = new MockRDFDataUnit(ImmutableList.of(
-                VF.createStatement(createHttpUri("a1"), OWL.SAMEAS, createHttpUri("a2")),
-                VF.createStatement(createHttpUri("a2"), OWL.SAMEAS, createHttpUri("a3")),
-                VF.createStatement(createHttpUri("b1"), OWL.SAMEAS, createHttpUri("b2")),
-                VF.createStatement(createHttpUri("b2"), OWL.SAMEAS, createHttpUri("b3")),
-                VF.createStatement(createHttpUri("p1"), OWL.SAMEAS, createHttpUri("p2")),
-                VF.createStatement(createHttpUri("p2"), OWL.SAMEAS, createHttpUri("p3"))
-        ));
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.getDataGraphSymbolicName()).thenReturn(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME);
+        when(config.getResultDataURIPrefix()).thenReturn(FTConfigConstants.DEFAULT_RESULT_DATA_URI_PREFIX);
+        when(config.getWritePerformanceReport()).thenReturn(true);
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        try (CloseableRDFWriter writer = componentFactory.getRDFWriter()) {
+            writer.write(new ResolvedStatementImpl(createStatement(), 0.5, ImmutableList.of((Resource) getUniqueURI())));
+        }
 
-        File resultDir = testDir.newFolder("dpuInstanceDir");
-        when(dpuContext.getDpuInstanceDirectory()).thenReturn(resultDir.toURI().toString());
+        // Act
+        PerformanceReport report = componentFactory.createPerformanceReport(
+                ProfilingTimeCounter.createInstance(EnumFusionCounters.class, true), 100);
+        componentFactory.writePerformanceReport(report);
 
+        // Assert
+        assertThat(report.getWrittenQuads(), is(1L));
+        assertThat(report.getStageTimes().keySet(), hasItem("conflictResolution"));
+        File reportFile = new File(workingDir, FTConfigConstants.PERFORMANCE_REPORT_FILE_NAME);
+        String json = new String(Files.readAllBytes(reportFile.toPath()), Charset.forName("UTF-8"));
+        assertThat(json, containsString("\"writtenQuads\": 1,"));
+        URI writtenQuadsProperty = VF.createURI(PerformanceReport.NAMESPACE, "writtenQuads");
+        boolean hasWrittenQuadsStatement = false;
+        for (Statement statement : outputDataUnit.getAllStatements()) {
+            hasWrittenQuadsStatement |= statement.getPredicate().equals(writtenQuadsProperty);
+        }
+        assertTrue(hasWrittenQuadsStatement);
+    }
+
+    @Test(expected = LDFusionToolException.class)
+    public void getRDFWriterRequiresFileOutputDataUnitWhenFileOutputIsConfigured() throws Exception {
         ConfigContainer config = mock(ConfigContainer.class);
-        when(config.getSameAsLinkTypes()).thenReturn(ImmutableSet.of(OWL.SAMEAS));
-        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(createHttpUri("p2"), new ResolutionStrategyImpl()));
-        when(config.getPreferredCanonicalURIs()).thenReturn(ImmutableSet.of(createHttpUri("a2").stringValue()));
-        Files.write(new File(resultDir, "canonicalUris.txt").toPath(), ImmutableList.of(createHttpUri("b2").stringValue()), Charset.defaultCharset());
-        when(config.getCanonicalURIsFileName()).thenReturn("canonicalUris.txt");
+        when(config.getFileOutput()).thenReturn(new FileOutputImpl(new File("output.nq"), RDFFormat.NQUADS));
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        componentFactory.getRDFWriter();
+    }
+
+    @Test
+    public void getsUriMapping() throws Exception {
+        // Arrange
+        ConfigContainer config = createUriMappingConfig();
 
         // Act
         FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
         UriMappingIterable uriMappingIterable = componentFactory.getUriMapping();
 
         // Assert
-        assertThat(uriMappingIterable.mapResource(createHttpUri("a1")), is((Resource) createHttpUri("a2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("a2")), is((Resource) createHttpUri("a2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("a3")), is((Resource) createHttpUri("a2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("b1")), is((Resource) createHttpUri("b2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("b2")), is((Resource) createHttpUri("b2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("b3")), is((Resource) createHttpUri("b2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("p1")), is((Resource) createHttpUri("p2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("p2")), is((Resource) createHttpUri("p2")));
-        assertThat(uriMappingIterable.mapResource(createHttpUri("p3")), is((Resource) createHttpUri("p2")));
-        assertThat(Iterables.size(uriMappingIterable), is(6));
+        assertMapsUriMappingConfig(uriMappingIterable);
+    }
+
+    @Test
+    public void getsCompactUriMapping() throws Exception {
+        // Arrange
+        ConfigContainer config = createUriMappingConfig();
+        when(config.getCompactUriMapping()).thenReturn(true);
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        UriMappingIterable uriMappingIterable = componentFactory.getUriMapping();
+
+        // Assert
+        assertMapsUriMappingConfig(uriMappingIterable);
+        assertThat(uriMappingIterable, instanceOf(CompactUriMapping.class));
+    }
+
+    @Test
+    public void getsMemoryMappedUriMappingAndReleasesItsFiles() throws Exception {
+        // Arrange
+        ConfigContainer config = createUriMappingConfig();
+        when(config.getMemoryMappedUriMapping()).thenReturn(true);
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        UriMappingIterable uriMappingIterable = componentFactory.getUriMapping();
+        componentFactory.releaseResources();
+
+        // Assert
+        assertThat(uriMappingIterable, instanceOf(MappedUriMapping.class));
+        assertThat(workingDir.list(), is(new String[0]));
     }
 
     @Test
@@ -310,6 +444,21 @@ public class FusionToolDpuComponentFactoryTest {
                 ImmutableList.of(VF.createStatement(createHttpUri("b2"), RDF.TYPE, createHttpUri("c"))))));
     }
 
+    @Test
+    public void getsParallelExecutorAndThreadLocalConflictResolverWhenResolutionParallelismIsGreaterThanOne() throws Exception {
+        ConfigContainerImpl config = new ConfigContainerImpl();
+        config.setResolutionParallelism(4);
+
+        // Act
+        FusionToolDpuComponentFactory componentFactory = getComponentFactory(config);
+        FusionExecutor executor = componentFactory.getExecutor(uriMapping);
+        ResourceDescriptionConflictResolver conflictResolver = componentFactory.getConflictResolver(new EmptyMetadataModel(), uriMapping);
+
+        // Assert
+        assertThat(executor, instanceOf(ParallelFusionExecutor.class));
+        assertThat(conflictResolver, instanceOf(ThreadLocalConflictResolver.class));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void getInputLoaderRequiresLocalCopyProcessing() throws Exception {
         ConfigContainer config = mock(ConfigContainer.class);
@@ -364,6 +513,232 @@ public class FusionToolDpuComponentFactoryTest {
                 contextAwareStatementIsEqual(createHttpStatement("dependent", "pd", "od", "dataGraph2"))));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getsBinarySpillInputLoaderWithSameResults() throws Exception {
+        // Arrange
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.isLocalCopyProcessing()).thenReturn(true);
+        when(config.getParserConfig()).thenReturn(FTConfigConstants.DEFAULT_FILE_PARSER_CONFIG);
+        when(config.getMemoryLimit()).thenReturn(1024L * 1024 * 1024);
+        when(config.getBinarySpill()).thenReturn(true);
+        when(config.getCompressSpill()).thenReturn(true);
+        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(
+                createHttpUri("resourceDescriptionProperty"), new ResolutionStrategyImpl(NestedResourceDescriptionResolution.getName())
+        ));
+        ImmutableList<Statement> inputTriples1 = ImmutableList.of(
+                createHttpStatement("a1", "pa1", "oa1", "dataGraph1"),
+                createHttpStatement("b1", "resourceDescriptionProperty", "dependent", "dataGraph1"),
+                createHttpStatement("c1", "pc1", "oc1", "otherGraphShouldBeIgnored")
+        );
+        ImmutableList<Statement> inputTriples2 = ImmutableList.of(
+                createHttpStatement("a2", "pa2", "oa2", "dataGraph2"),
+                createHttpStatement("dependent", "pd", "od", "dataGraph2")
+        );
+
+        // Act
+        Map<URI, Collection<Statement>> resourceDescriptions;
+        try (MockRDFDataUnit source1 = dataUnitWithGraph(inputTriples1, createHttpUri("dataGraph1"));
+             MockRDFDataUnit source2 = dataUnitWithGraph(inputTriples2, createHttpUri("dataGraph2"));
+             InputLoader inputLoader = getComponentFactory(config, ImmutableList.of(source1, source2)).getInputLoader()
+        ) {
+            assertThat(inputLoader, instanceOf(BinarySpillInputLoader.class));
+            inputLoader.initialize(uriMapping);
+            resourceDescriptions = collectResourcesDescriptions(inputLoader);
+        }
+
+        // Assert
+        assertThat(resourceDescriptions.keySet(), containsInAnyOrder(createHttpUri("a1"), createHttpUri("b1"), createHttpUri("dependent")));
+        assertThat(resourceDescriptions.get(createHttpUri("a1")), containsInAnyOrder(
+                contextAwareStatementIsEqual(createHttpStatement("a1", "pa1", "oa1", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("a2", "pa2", "oa2", "dataGraph2"))));
+        assertThat(resourceDescriptions.get(createHttpUri("b1")), containsInAnyOrder(
+                contextAwareStatementIsEqual(createHttpStatement("b1", "resourceDescriptionProperty", "dependent", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("dependent", "pd", "od", "dataGraph2"))));
+        assertThat(resourceDescriptions.get(createHttpUri("dependent")), contains(
+                contextAwareStatementIsEqual(createHttpStatement("dependent", "pd", "od", "dataGraph2"))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void splitsLargeResourceDescriptionsByProperty() throws Exception {
+        // Arrange
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.isLocalCopyProcessing()).thenReturn(true);
+        when(config.getMemoryLimit()).thenReturn(1024L * 1024 * 1024);
+        when(config.getBinarySpill()).thenReturn(true);
+        when(config.getHubSplitThreshold()).thenReturn(2);
+        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(
+                createHttpUri("resourceDescriptionProperty"), new ResolutionStrategyImpl(NestedResourceDescriptionResolution.getName())
+        ));
+        ImmutableList<Statement> inputTriples1 = ImmutableList.of(
+                createHttpStatement("a1", "pa", "o1", "dataGraph1"),
+                createHttpStatement("a1", "pa", "o2", "dataGraph1"),
+                createHttpStatement("a1", "resourceDescriptionProperty", "dependent", "dataGraph1"),
+                createHttpStatement("c1", "pc", "oc", "dataGraph1")
+        );
+        ImmutableList<Statement> inputTriples2 = ImmutableList.of(
+                createHttpStatement("a2", "pb", "o3", "dataGraph2"),
+                createHttpStatement("dependent", "pd", "od", "dataGraph2")
+        );
+
+        // Act
+        List<ResourceDescription> resourceDescriptions = new ArrayList<>();
+        try (MockRDFDataUnit source1 = dataUnitWithGraph(inputTriples1, createHttpUri("dataGraph1"));
+             MockRDFDataUnit source2 = dataUnitWithGraph(inputTriples2, createHttpUri("dataGraph2"));
+             InputLoader inputLoader = getComponentFactory(config, ImmutableList.of(source1, source2)).getInputLoader()
+        ) {
+            inputLoader.initialize(uriMapping);
+            while (inputLoader.hasNext()) {
+                resourceDescriptions.add(inputLoader.next());
+            }
+        }
+
+        // Assert
+        assertThat(resourceDescriptions, hasSize(5));
+        assertThat(resourceDescriptions.get(0).getResource(), is((Resource) createHttpUri("a1")));
+        assertThat(resourceDescriptions.get(0).getDescribingStatements(), containsInAnyOrder(
+                contextAwareStatementIsEqual(createHttpStatement("a1", "pa", "o1", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("a1", "pa", "o2", "dataGraph1"))));
+        assertThat(resourceDescriptions.get(1).getResource(), is((Resource) createHttpUri("a1")));
+        assertThat(resourceDescriptions.get(1).getDescribingStatements(), contains(
+                contextAwareStatementIsEqual(createHttpStatement("a2", "pb", "o3", "dataGraph2"))));
+        assertThat(resourceDescriptions.get(2).getResource(), is((Resource) createHttpUri("a1")));
+        assertThat(resourceDescriptions.get(2).getDescribingStatements(), containsInAnyOrder(
+                contextAwareStatementIsEqual(createHttpStatement("a1", "resourceDescriptionProperty", "dependent", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("dependent", "pd", "od", "dataGraph2"))));
+        assertThat(resourceDescriptions.get(3).getResource(), is((Resource) createHttpUri("c1")));
+        assertThat(resourceDescriptions.get(4).getResource(), is((Resource) createHttpUri("dependent")));
+    }
+
+    @Test
+    public void keepsPropertiesTiedByDependsOnInOnePartWhenSplitting() throws Exception {
+        // Arrange
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.isLocalCopyProcessing()).thenReturn(true);
+        when(config.getMemoryLimit()).thenReturn(1024L * 1024 * 1024);
+        when(config.getBinarySpill()).thenReturn(true);
+        when(config.getHubSplitThreshold()).thenReturn(2);
+        ResolutionStrategyImpl longitudeStrategy = new ResolutionStrategyImpl();
+        longitudeStrategy.setDependsOn(createHttpUri("latitude"));
+        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(
+                createHttpUri("longitude"), longitudeStrategy
+        ));
+        ImmutableList<Statement> inputTriples = ImmutableList.of(
+                createHttpStatement("x", "latitude", "lat1", "dataGraph1"),
+                createHttpStatement("x", "longitude", "lon1", "dataGraph1"),
+                createHttpStatement("x", "name", "n1", "dataGraph1"),
+                createHttpStatement("x", "latitude", "lat2", "dataGraph1"),
+                createHttpStatement("x", "longitude", "lon2", "dataGraph1")
+        );
+
+        // Act
+        List<ResourceDescription> resourceDescriptions = new ArrayList<>();
+        try (MockRDFDataUnit source = dataUnitWithGraph(inputTriples, createHttpUri("dataGraph1"));
+             InputLoader inputLoader = getComponentFactory(config, ImmutableList.of(source)).getInputLoader()
+        ) {
+            inputLoader.initialize(uriMapping);
+            while (inputLoader.hasNext()) {
+                resourceDescriptions.add(inputLoader.next());
+            }
+        }
+
+        // Assert
+        assertThat(resourceDescriptions, hasSize(2));
+        assertThat(resourceDescriptions.get(0).getDescribingStatements(), contains(
+                contextAwareStatementIsEqual(createHttpStatement("x", "name", "n1", "dataGraph1"))));
+        assertThat(resourceDescriptions.get(1).getResource(), is((Resource) createHttpUri("x")));
+        assertThat(resourceDescriptions.get(1).getDescribingStatements(), containsInAnyOrder(
+                contextAwareStatementIsEqual(createHttpStatement("x", "latitude", "lat1", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("x", "longitude", "lon1", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("x", "latitude", "lat2", "dataGraph1")),
+                contextAwareStatementIsEqual(createHttpStatement("x", "longitude", "lon2", "dataGraph1"))));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void filtersInputWhileLoadingWhenRequiredClassIsGiven() throws Exception {
+        // Arrange
+        File workingDir = testDir.newFolder("wd");
+        when(dpuContext.getWorkingDir()).thenReturn(workingDir);
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.isLocalCopyProcessing()).thenReturn(true);
+        when(config.getParserConfig()).thenReturn(FTConfigConstants.DEFAULT_FILE_PARSER_CONFIG);
+        when(config.getFilterInputWhileLoading()).thenReturn(true);
+        when(config.getRequiredClassOfProcessedResources()).thenReturn(createHttpUri("RequiredClass"));
+        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(
+                createHttpUri("resourceDescriptionProperty"), new ResolutionStrategyImpl(NestedResourceDescriptionResolution.getName())
+        ));
+        ImmutableList<Statement> inputTriples1 = ImmutableList.of(
+                VF.createStatement(createHttpUri("a1"), RDF.TYPE, createHttpUri("RequiredClass"), createHttpUri("dataGraph1")),
+                createHttpStatement("a1", "resourceDescriptionProperty", "dependent", "dataGraph1"),
+                createHttpStatement("b1", "pb1", "ob1", "dataGraph1")
+        );
+        ImmutableList<Statement> inputTriples2 = ImmutableList.of(
+                createHttpStatement("a2", "pa2", "oa2", "dataGraph2"),
+                createHttpStatement("dependent", "pd", "od", "dataGraph2")
+        );
+
+        // Act
+        Map<URI, Collection<Statement>> resourceDescriptions;
+        try (MockRDFDataUnit source1 = dataUnitWithGraph(inputTriples1, createHttpUri("dataGraph1"));
+             MockRDFDataUnit source2 = dataUnitWithGraph(inputTriples2, createHttpUri("dataGraph2"));
+             InputLoader inputLoader = getComponentFactory(config, ImmutableList.of(source1, source2)).getInputLoader()
+        ) {
+            assertThat(inputLoader, instanceOf(SubjectPreFilteringInputLoader.class));
+            inputLoader.initialize(uriMapping);
+            resourceDescriptions = collectResourcesDescriptions(inputLoader);
+        }
+
+        // Assert
+        assertThat(resourceDescriptions.keySet(), containsInAnyOrder(createHttpUri("a1"), createHttpUri("dependent")));
+    }
+
+    /**
+     * Creates configuration with sameAs links of three groups (a, b, p) whose canonical URIs are chosen by a preferred URI,
+     * a canonical URI file and a property with a resolution strategy, respectively.
+     */
+    private ConfigContainer createUriMappingConfig() throws Exception {
+        sameAsDataUnit = new MockRDFDataUnit(ImmutableList.of(
+                VF.createStatement(createHttpUri("a1"), OWL.SAMEAS, createHttpUri("a2")),
+                VF.createStatement(createHttpUri("a2"), OWL.SAMEAS, createHttpUri("a3")),
+                VF.createStatement(createHttpUri("b1"), OWL.SAMEAS, createHttpUri("b2")),
+                VF.createStatement(createHttpUri("b2"), OWL.SAMEAS, createHttpUri("b3")),
+                VF.createStatement(createHttpUri("p1"), OWL.SAMEAS, createHttpUri("p2")),
+                VF.createStatement(createHttpUri("p2"), OWL.SAMEAS, createHttpUri("p3"))
+        ));
+
+        File resultDir = testDir.newFolder("dpuInstanceDir");
+        when(dpuContext.getDpuInstanceDirectory()).thenReturn(resultDir.toURI().toString());
+
+        ConfigContainer config = mock(ConfigContainer.class);
+        when(config.getSameAsLinkTypes()).thenReturn(ImmutableSet.of(OWL.SAMEAS));
+        when(config.getPropertyResolutionStrategies()).thenReturn(ImmutableMap.<URI, ResolutionStrategy>of(createHttpUri("p2"), new ResolutionStrategyImpl()));
+        when(config.getPreferredCanonicalURIs()).thenReturn(ImmutableSet.of(createHttpUri("a2").stringValue()));
+        Files.write(new File(resultDir, "canonicalUris.txt").toPath(), ImmutableList.of(createHttpUri("b2").stringValue()), Charset.defaultCharset());
+        when(config.getCanonicalURIsFileName()).thenReturn("canonicalUris.txt");
+        return config;
+    }
+
+    private void assertMapsUriMappingConfig(UriMappingIterable uriMappingIterable) {
+        assertThat(uriMappingIterable.mapResource(createHttpUri("a1")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("a2")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("a3")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("b1")), is((Resource) createHttpUri("b2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("b2")), is((Resource) createHttpUri("b2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("b3")), is((Resource) createHttpUri("b2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("p1")), is((Resource) createHttpUri("p2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("p2")), is((Resource) createHttpUri("p2")));
+        assertThat(uriMappingIterable.mapResource(createHttpUri("p3")), is((Resource) createHttpUri("p2")));
+        assertThat(Iterables.size(uriMappingIterable), is(6));
+    }
+
     private MockRDFDataUnit dataUnitWithGraph(ImmutableList<Statement> inputTriples1, URI dataGraphUri) throws RepositoryException {
         MockRDFDataUnit dataUnit = new MockRDFDataUnit(inputTriples1);
         dataUnit.setDataGraphURI(dataGraphUri);
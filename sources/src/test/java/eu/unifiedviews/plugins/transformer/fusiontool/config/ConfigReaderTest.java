@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.openrdf.model.URI;
 import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.vocabulary.RDFS;
+import org.openrdf.rio.RDFFormat;
 
 import java.io.InputStreamReader;
 import java.util.Collections;
@@ -68,6 +69,31 @@ public class ConfigReaderTest {
         assertThat(config.getWriteMetadata(), is(FTConfigConstants.WRITE_METADATA));
         assertThat(config.getDataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME));
         assertThat(config.getMetadataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME));
+        assertThat(config.getStreamInputGraphs(), is(FTConfigConstants.DEFAULT_STREAM_INPUT_GRAPHS));
+        assertThat(config.getLoadingParallelism(), is(FTConfigConstants.DEFAULT_LOADING_PARALLELISM));
+        assertThat(config.getWriteBatchSize(), is(FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE));
+        assertThat(config.getCompactMetadata(), is(FTConfigConstants.DEFAULT_COMPACT_METADATA));
+        assertThat(config.getCompactUriMapping(), is(FTConfigConstants.DEFAULT_COMPACT_URI_MAPPING));
+        assertThat(config.getMemoryMappedUriMapping(), is(FTConfigConstants.DEFAULT_MEMORY_MAPPED_URI_MAPPING));
+        assertThat(config.getBinarySpill(), is(FTConfigConstants.DEFAULT_BINARY_SPILL));
+        assertThat(config.getCompressSpill(), is(FTConfigConstants.DEFAULT_COMPRESS_SPILL));
+        assertThat(config.getResolutionParallelism(), is(FTConfigConstants.DEFAULT_RESOLUTION_PARALLELISM));
+        assertThat(config.getPreserveOutputOrder(), is(FTConfigConstants.DEFAULT_PRESERVE_OUTPUT_ORDER));
+        assertThat(config.getFileOutput(), nullValue());
+        assertThat(config.getAsyncOutput(), is(FTConfigConstants.DEFAULT_ASYNC_OUTPUT));
+        assertThat(config.getPrefetchBatches(), is(FTConfigConstants.DEFAULT_PREFETCH_BATCHES));
+        assertThat(config.getGroupInputGraphs(), is(FTConfigConstants.DEFAULT_GROUP_INPUT_GRAPHS));
+        assertThat(config.getLoadPageSize(), is(FTConfigConstants.DEFAULT_LOAD_PAGE_SIZE));
+        assertThat(config.getAdaptiveLoadPageSize(), is(FTConfigConstants.DEFAULT_ADAPTIVE_LOAD_PAGE_SIZE));
+        assertThat(config.getMinLoadPageSize(), is(FTConfigConstants.DEFAULT_MIN_LOAD_PAGE_SIZE));
+        assertThat(config.getMaxLoadPageSize(), is(FTConfigConstants.DEFAULT_MAX_LOAD_PAGE_SIZE));
+        assertThat(config.getFilterInputWhileLoading(), is(FTConfigConstants.DEFAULT_FILTER_INPUT_WHILE_LOADING));
+        assertThat(config.getIndexedMetadata(), is(FTConfigConstants.DEFAULT_INDEXED_METADATA));
+        assertThat(config.getWritePerformanceReport(), is(FTConfigConstants.DEFAULT_WRITE_PERFORMANCE_REPORT));
+        assertThat(config.getProgressReportInterval(), is(FTConfigConstants.DEFAULT_PROGRESS_REPORT_INTERVAL));
+        assertThat(config.getProfileResolutionFunctions(), is(FTConfigConstants.DEFAULT_PROFILE_RESOLUTION_FUNCTIONS));
+        assertThat(config.getSlowResourceDescriptionThreshold(), is(FTConfigConstants.DEFAULT_SLOW_RESOURCE_DESCRIPTION_THRESHOLD));
+        assertThat(config.getHubSplitThreshold(), is(FTConfigConstants.DEFAULT_HUB_SPLIT_THRESHOLD));
     }
 
     @Test
@@ -106,7 +132,7 @@ public class ConfigReaderTest {
         assertThat(config.getPropertyResolutionStrategies().get(FB_LATITUDE).getDependsOn(), equalTo(FB_LATITUDE));
 
         assertThat(config.getMaxDateDifference(), equalTo(FTConfigConstants.MAX_DATE_DIFFERENCE));
-        assertThat(config.getOutputMappedSubjectsOnly(), equalTo(false));
+        assertThat(config.getOutputMappedSubjectsOnly(), equalTo(true));
         assertThat(config.getPreferredCanonicalURIs(), equalTo(FTConfigConstants.DEFAULT_PREFERRED_CANONICAL_URIS));
         assertThat(config.getResultDataURIPrefix(), notNullValue());
         assertThat(config.getPublisherScoreWeight(), equalTo(FTConfigConstants.PUBLISHER_SCORE_WEIGHT));
@@ -114,15 +140,44 @@ public class ConfigReaderTest {
         assertThat(config.getQueryTimeout(), equalTo(FTConfigConstants.DEFAULT_QUERY_TIMEOUT));
         assertThat(config.getScoreIfUnknown(), equalTo(FTConfigConstants.SCORE_IF_UNKNOWN));
         assertThat(config.isProfilingOn(), equalTo(false));
-        assertThat(config.getMaxFreeMemoryUsage(), equalTo(FTConfigConstants.MAX_FREE_MEMORY_USAGE));
-        assertThat(config.getMemoryLimit(), equalTo(null));
+        assertThat(config.getMaxFreeMemoryUsage(), equalTo(0.5f));
+        assertThat(config.getMemoryLimit(), equalTo(512L * 1024 * 1024));
         assertThat(config.getParserConfig(), equalTo(FTConfigConstants.DEFAULT_FILE_PARSER_CONFIG));
 
         assertThat(config.getCanonicalURIsFileName(), is(FTConfigConstants.CANONICAL_URI_FILE_NAME));
         assertThat(config.getSameAsLinkTypes(), is(FTConfigConstants.SAME_AS_LINK_TYPES));
-        assertThat(config.getWriteMetadata(), is(FTConfigConstants.WRITE_METADATA));
+        assertThat(config.getWriteMetadata(), is(true));
         assertThat(config.getDataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME));
         assertThat(config.getMetadataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME));
+        assertThat(config.getStreamInputGraphs(), is(true));
+        assertThat(config.getLoadingParallelism(), is(4));
+        assertThat(config.getWriteBatchSize(), is(5000));
+        assertThat(config.getCompactMetadata(), is(true));
+        assertThat(config.getCompactUriMapping(), is(true));
+        assertThat(config.getMemoryMappedUriMapping(), is(true));
+        assertThat(config.getBinarySpill(), is(true));
+        assertThat(config.getCompressSpill(), is(true));
+        assertThat(config.getResolutionParallelism(), is(8));
+        assertThat(config.getPreserveOutputOrder(), is(false));
+        assertThat(config.getFileOutput().getFormat(), is(RDFFormat.TRIG));
+        assertThat(config.getFileOutput().isCompressed(), is(true));
+        assertThat(config.getFileOutput().getPath().getName(), is(FTConfigConstants.DEFAULT_FILE_OUTPUT_NAME + ".trig.gz"));
+        assertThat(config.getFileOutput().getDataContext(), nullValue());
+        assertThat(config.getFileOutput().getMetadataContext(), notNullValue());
+        assertThat(config.getAsyncOutput(), is(true));
+        assertThat(config.getPrefetchBatches(), is(4));
+        assertThat(config.getGroupInputGraphs(), is(true));
+        assertThat(config.getLoadPageSize(), is(5000));
+        assertThat(config.getAdaptiveLoadPageSize(), is(true));
+        assertThat(config.getMinLoadPageSize(), is(500));
+        assertThat(config.getMaxLoadPageSize(), is(200000));
+        assertThat(config.getFilterInputWhileLoading(), is(true));
+        assertThat(config.getIndexedMetadata(), is(true));
+        assertThat(config.getWritePerformanceReport(), is(true));
+        assertThat(config.getProgressReportInterval(), is(30));
+        assertThat(config.getProfileResolutionFunctions(), is(true));
+        assertThat(config.getSlowResourceDescriptionThreshold(), is(2000));
+        assertThat(config.getHubSplitThreshold(), is(500000));
     }
 
     @Test
@@ -161,6 +216,84 @@ public class ConfigReaderTest {
         assertThat(config.getWriteMetadata(), is(FTConfigConstants.WRITE_METADATA));
         assertThat(config.getDataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME));
         assertThat(config.getMetadataGraphSymbolicName(), is(FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME));
+        assertThat(config.getStreamInputGraphs(), is(FTConfigConstants.DEFAULT_STREAM_INPUT_GRAPHS));
+        assertThat(config.getLoadingParallelism(), is(FTConfigConstants.DEFAULT_LOADING_PARALLELISM));
+        assertThat(config.getWriteBatchSize(), is(FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE));
+        assertThat(config.getCompactMetadata(), is(FTConfigConstants.DEFAULT_COMPACT_METADATA));
+        assertThat(config.getCompactUriMapping(), is(FTConfigConstants.DEFAULT_COMPACT_URI_MAPPING));
+        assertThat(config.getMemoryMappedUriMapping(), is(FTConfigConstants.DEFAULT_MEMORY_MAPPED_URI_MAPPING));
+        assertThat(config.getBinarySpill(), is(FTConfigConstants.DEFAULT_BINARY_SPILL));
+        assertThat(config.getCompressSpill(), is(FTConfigConstants.DEFAULT_COMPRESS_SPILL));
+        assertThat(config.getResolutionParallelism(), is(FTConfigConstants.DEFAULT_RESOLUTION_PARALLELISM));
+        assertThat(config.getPreserveOutputOrder(), is(FTConfigConstants.DEFAULT_PRESERVE_OUTPUT_ORDER));
+        assertThat(config.getFileOutput(), nullValue());
+        assertThat(config.getAsyncOutput(), is(FTConfigConstants.DEFAULT_ASYNC_OUTPUT));
+        assertThat(config.getPrefetchBatches(), is(FTConfigConstants.DEFAULT_PREFETCH_BATCHES));
+        assertThat(config.getGroupInputGraphs(), is(FTConfigConstants.DEFAULT_GROUP_INPUT_GRAPHS));
+        assertThat(config.getLoadPageSize(), is(FTConfigConstants.DEFAULT_LOAD_PAGE_SIZE));
+        assertThat(config.getAdaptiveLoadPageSize(), is(FTConfigConstants.DEFAULT_ADAPTIVE_LOAD_PAGE_SIZE));
+        assertThat(config.getMinLoadPageSize(), is(FTConfigConstants.DEFAULT_MIN_LOAD_PAGE_SIZE));
+        assertThat(config.getMaxLoadPageSize(), is(FTConfigConstants.DEFAULT_MAX_LOAD_PAGE_SIZE));
+        assertThat(config.getFilterInputWhileLoading(), is(FTConfigConstants.DEFAULT_FILTER_INPUT_WHILE_LOADING));
+        assertThat(config.getIndexedMetadata(), is(FTConfigConstants.DEFAULT_INDEXED_METADATA));
+        assertThat(config.getWritePerformanceReport(), is(FTConfigConstants.DEFAULT_WRITE_PERFORMANCE_REPORT));
+        assertThat(config.getProgressReportInterval(), is(FTConfigConstants.DEFAULT_PROGRESS_REPORT_INTERVAL));
+        assertThat(config.getProfileResolutionFunctions(), is(FTConfigConstants.DEFAULT_PROFILE_RESOLUTION_FUNCTIONS));
+        assertThat(config.getSlowResourceDescriptionThreshold(), is(FTConfigConstants.DEFAULT_SLOW_RESOURCE_DESCRIPTION_THRESHOLD));
+        assertThat(config.getHubSplitThreshold(), is(FTConfigConstants.DEFAULT_HUB_SPLIT_THRESHOLD));
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenBooleanParamInvalid() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"streamInputGraphs\" value=\"yes\" /></DataProcessing></Config>");
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenLoadingParallelismNotPositive() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"loadingParallelism\" value=\"0\" /></DataProcessing></Config>");
+    }
+
+    @Test
+    public void parsesMemoryLimitInBytes() throws Exception {
+        ConfigContainer config = ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"memoryLimit\" value=\"1000000\" /></DataProcessing></Config>");
+        assertThat(config.getMemoryLimit(), equalTo(1000000L));
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenMemoryLimitInvalid() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"memoryLimit\" value=\"2T\" /></DataProcessing></Config>");
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenMaxFreeMemoryUsageOutOfRange() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"maxFreeMemoryUsage\" value=\"1.5\" /></DataProcessing></Config>");
+    }
+
+    @Test
+    public void parsesFileOutputWithName() throws Exception {
+        ConfigContainer config = ConfigReader.parseConfigXml("<Config><DataProcessing>"
+                + "<Param name=\"fileOutputFormat\" value=\"binary\" /><Param name=\"fileOutputName\" value=\"out.brf\" />"
+                + "</DataProcessing></Config>");
+        assertThat(config.getFileOutput().getFormat(), is(RDFFormat.BINARY));
+        assertThat(config.getFileOutput().isCompressed(), is(false));
+        assertThat(config.getFileOutput().getPath().getName(), is("out.brf"));
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenFileOutputFormatInvalid() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"fileOutputFormat\" value=\"rdfxml\" /></DataProcessing></Config>");
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenFileOutputNameGivenWithoutFormat() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing><Param name=\"fileOutputName\" value=\"out.nq\" /></DataProcessing></Config>");
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void throwsInvalidInputExceptionWhenMinLoadPageSizeIsGreaterThanMax() throws Exception {
+        ConfigReader.parseConfigXml("<Config><DataProcessing>"
+                + "<Param name=\"minLoadPageSize\" value=\"2000\" /><Param name=\"maxLoadPageSize\" value=\"1000\" />"
+                + "</DataProcessing></Config>");
     }
 
     @Test(expected = InvalidInputException.class)
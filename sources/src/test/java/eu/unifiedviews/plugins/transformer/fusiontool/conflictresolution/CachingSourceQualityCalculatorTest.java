@@ -0,0 +1,85 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import cz.cuni.mff.odcleanstore.conflictresolution.quality.SourceQualityCalculator;
+import cz.cuni.mff.odcleanstore.conflictresolution.quality.impl.ODCSSourceQualityCalculator;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.TreeModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingSourceQualityCalculatorTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    private Model metadata;
+
+    @Before
+    public void setUp() throws Exception {
+        metadata = new TreeModel();
+        metadata.add(createHttpUri("source1"), ODCS.SCORE, VF.createLiteral(0.9));
+        metadata.add(createHttpUri("source2"), ODCS.SCORE, VF.createLiteral(0.4));
+        metadata.add(createHttpUri("source2"), ODCS.PUBLISHED_BY, createHttpUri("publisher"));
+        metadata.add(createHttpUri("source3"), ODCS.PUBLISHED_BY, createHttpUri("publisher"));
+        metadata.add(createHttpUri("publisher"), ODCS.PUBLISHER_SCORE, VF.createLiteral(0.2));
+    }
+
+    @Test
+    public void returnsSameQualityAsUnderlyingCalculator() throws Exception {
+        SourceQualityCalculator odcsCalculator = new ODCSSourceQualityCalculator(0.5, 0.3);
+        CachingSourceQualityCalculator cachingCalculator = new CachingSourceQualityCalculator(odcsCalculator, metadata);
+
+        for (String source : new String[] { "source1", "source2", "source3", "unknown1", "unknown2" }) {
+            URI sourceUri = createHttpUri(source);
+            assertThat(source, cachingCalculator.getSourceQuality(sourceUri, metadata),
+                    is(odcsCalculator.getSourceQuality(sourceUri, metadata)));
+        }
+    }
+
+    @Test
+    public void computesQualityOfEachSourceOnlyOnce() throws Exception {
+        SourceQualityCalculator underlyingCalculator = mock(SourceQualityCalculator.class);
+        when(underlyingCalculator.getSourceQuality(any(Resource.class), eq(metadata))).thenReturn(0.7);
+        CachingSourceQualityCalculator cachingCalculator = new CachingSourceQualityCalculator(underlyingCalculator, metadata);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            cachingCalculator.getSourceQuality(createHttpUri("source1"), metadata);
+            cachingCalculator.getSourceQuality(createHttpUri("source2"), metadata);
+            cachingCalculator.getSourceQuality(createHttpUri("unknown1"), metadata);
+            cachingCalculator.getSourceQuality(createHttpUri("unknown2"), metadata);
+        }
+
+        // Assert
+        verify(underlyingCalculator, times(1)).getSourceQuality(createHttpUri("source1"), metadata);
+        verify(underlyingCalculator, times(1)).getSourceQuality(createHttpUri("source2"), metadata);
+        verify(underlyingCalculator, times(1)).getSourceQuality(createHttpUri("unknown1"), metadata);
+        verify(underlyingCalculator, times(0)).getSourceQuality(createHttpUri("unknown2"), metadata);
+    }
+
+    @Test
+    public void delegatesRequestsForOtherMetadata() throws Exception {
+        SourceQualityCalculator underlyingCalculator = mock(SourceQualityCalculator.class);
+        Model otherMetadata = new TreeModel();
+        when(underlyingCalculator.getSourceQuality(createHttpUri("source1"), otherMetadata)).thenReturn(0.1);
+        CachingSourceQualityCalculator cachingCalculator = new CachingSourceQualityCalculator(underlyingCalculator, metadata);
+
+        // Act
+        double quality = cachingCalculator.getSourceQuality(createHttpUri("source1"), otherMetadata);
+
+        // Assert
+        assertThat(quality, is(0.1));
+    }
+}
@@ -0,0 +1,77 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+public class IndexedMetadataModelTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+    private static final URI METADATA_GRAPH = createHttpUri("metadataGraph");
+
+    private Statement source1Score;
+    private Statement source1PublishedBy;
+    private Statement source2Score;
+    private Statement publisherScore;
+    private IndexedMetadataModel model;
+
+    @Before
+    public void setUp() throws Exception {
+        source1Score = VF.createStatement(createHttpUri("source1"), ODCS.SCORE, VF.createLiteral(0.8), METADATA_GRAPH);
+        source1PublishedBy = VF.createStatement(createHttpUri("source1"), ODCS.PUBLISHED_BY, createHttpUri("publisher"), METADATA_GRAPH);
+        source2Score = VF.createStatement(createHttpUri("source2"), ODCS.SCORE, VF.createLiteral(0.3));
+        publisherScore = VF.createStatement(createHttpUri("publisher"), ODCS.PUBLISHER_SCORE, VF.createLiteral(0.5), METADATA_GRAPH);
+        model = new IndexedMetadataModel.Builder()
+                .add(source1Score)
+                .add(source1PublishedBy)
+                .add(source2Score)
+                .add(publisherScore)
+                .add(source1Score)
+                .build();
+    }
+
+    @Test
+    public void containsAllDistinctStatements() throws Exception {
+        assertThat(model.size(), is(4));
+        assertThat(model, containsInAnyOrder(source1Score, source1PublishedBy, source2Score, publisherScore));
+    }
+
+    @Test
+    public void filtersBySubjectAndPredicate() throws Exception {
+        assertThat(model.filter(createHttpUri("source1"), ODCS.SCORE, null), contains(source1Score));
+        assertThat(model.filter(createHttpUri("source1"), null, null), containsInAnyOrder(source1Score, source1PublishedBy));
+        assertThat(model.filter(null, ODCS.SCORE, null), containsInAnyOrder(source1Score, source2Score));
+        assertThat(model.filter(createHttpUri("publisher"), ODCS.SCORE, null), empty());
+        assertThat(model.filter(createHttpUri("unknown"), null, null), empty());
+    }
+
+    @Test
+    public void filtersByContext() throws Exception {
+        assertThat(model.filter(null, ODCS.SCORE, null, METADATA_GRAPH), contains(source1Score));
+        assertThat(model.filter(null, ODCS.SCORE, null, (URI) null), contains(source2Score));
+        assertThat(model.contains(createHttpUri("source2"), null, null, METADATA_GRAPH), is(false));
+        assertThat(model.contains(createHttpUri("source2"), null, null), is(true));
+    }
+
+    @Test
+    public void filtersByObject() throws Exception {
+        Model result = model.filter(null, null, createHttpUri("publisher"));
+
+        assertThat(result, contains(source1PublishedBy));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void isReadOnly() throws Exception {
+        model.add(createHttpUri("source3"), ODCS.SCORE, VF.createLiteral(1d));
+    }
+}
@@ -0,0 +1,101 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.conflictresolution;
+
+import com.google.common.collect.Iterables;
+import cz.cuni.mff.odcleanstore.conflictresolution.CRContext;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionFunction;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolutionFunctionRegistry;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Model;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfilingResolutionFunctionRegistryTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+    private static final URI PROPERTY = VF.createURI("http://example.com/p");
+
+    private ResolutionFunction resolutionFunction;
+    private ResolutionFunctionRegistry registry;
+    private ResolutionFunctionProfile profile;
+
+    @Before
+    public void setUp() throws Exception {
+        resolutionFunction = mock(ResolutionFunction.class);
+        when(resolutionFunction.resolve(any(Model.class), any(CRContext.class)))
+                .thenReturn(Collections.<ResolvedStatement>emptyList());
+        registry = mock(ResolutionFunctionRegistry.class);
+        when(registry.get("BEST")).thenReturn(resolutionFunction);
+        profile = new ResolutionFunctionProfile();
+    }
+
+    @Test
+    public void recordsCallsPerFunctionAndProperty() throws Exception {
+        ProfilingResolutionFunctionRegistry profilingRegistry = new ProfilingResolutionFunctionRegistry(registry, profile);
+        Model statements = createStatements(3);
+        CRContext crContext = mock(CRContext.class);
+
+        // Act
+        Collection<ResolvedStatement> result = profilingRegistry.get("BEST").resolve(statements, crContext);
+        profilingRegistry.get("BEST").resolve(createStatements(1), crContext);
+
+        // Assert
+        assertThat(result, hasSize(0));
+        verify(resolutionFunction).resolve(statements, crContext);
+        ResolutionFunctionProfile.Entry entry = Iterables.getOnlyElement(profile.getEntries());
+        assertThat(entry.getFunctionName(), is("BEST"));
+        assertThat(entry.getPropertyName(), is(PROPERTY.stringValue()));
+        assertThat(entry.getLatency().getCount(), is(2L));
+        assertThat(entry.getInputStatements(), is(4L));
+        assertThat(entry.getMaxInputStatements(), is(3L));
+        assertThat(entry.getAverageInputStatements(), is(2d));
+    }
+
+    @Test
+    public void reusesProfilingFunction() throws Exception {
+        ProfilingResolutionFunctionRegistry profilingRegistry = new ProfilingResolutionFunctionRegistry(registry, profile);
+
+        // Act & Assert
+        assertThat(profilingRegistry.get("BEST"), sameInstance(profilingRegistry.get("best")));
+    }
+
+    @Test
+    public void aggregatesEntriesPerFunction() throws Exception {
+        profile.record("BEST", PROPERTY, 2, 1000);
+        profile.record("BEST", VF.createURI("http://example.com/q"), 4, 3000);
+        profile.record("ALL", PROPERTY, 1, 500);
+
+        // Act
+        List<String> lines = ResolutionFunctionProfile.formatTopEntries(profile.getFunctionEntries(), 1);
+
+        // Assert
+        assertThat(profile.getEntries(), hasSize(3));
+        assertThat(profile.getFunctionEntries(), hasSize(2));
+        assertThat(lines, hasSize(2));
+        assertThat(lines.get(1), containsString("BEST"));
+        assertThat(lines.get(1), containsString("3.0  *"));
+    }
+
+    private static Model createStatements(int count) {
+        Model statements = new LinkedHashModel();
+        for (int i = 0; i < count; i++) {
+            statements.add(VF.createURI("http://example.com/s"), PROPERTY, VF.createLiteral(i));
+        }
+        return statements;
+    }
+}
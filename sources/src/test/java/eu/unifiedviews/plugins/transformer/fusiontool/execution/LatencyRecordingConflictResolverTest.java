@@ -0,0 +1,42 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import com.google.common.collect.ImmutableList;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.impl.ResourceDescriptionImpl;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.LatencyHistogram;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpStatement;
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LatencyRecordingConflictResolverTest {
+    @Test
+    public void recordsResolutionTimeOfEachResourceDescription() throws Exception {
+        ResourceDescription resourceDescription = new ResourceDescriptionImpl(createHttpUri("r"), ImmutableList.of(
+                createHttpStatement("r", "p", "o1", "g1"),
+                createHttpStatement("r", "p", "o2", "g2")));
+        Collection<ResolvedStatement> resolvedStatements = Collections.emptyList();
+        ResourceDescriptionConflictResolver conflictResolver = mock(ResourceDescriptionConflictResolver.class);
+        when(conflictResolver.resolveConflicts(resourceDescription)).thenReturn(resolvedStatements);
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        LatencyRecordingConflictResolver latencyRecordingResolver = new LatencyRecordingConflictResolver(conflictResolver, histogram, 1);
+        Collection<ResolvedStatement> result1 = latencyRecordingResolver.resolveConflicts(resourceDescription);
+        latencyRecordingResolver.resolveConflicts(resourceDescription);
+
+        // Assert
+        assertThat(result1, sameInstance(resolvedStatements));
+        assertThat(histogram.getCount(), is(2L));
+    }
+}
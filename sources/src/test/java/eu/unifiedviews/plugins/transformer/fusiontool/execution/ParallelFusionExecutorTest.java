@@ -0,0 +1,232 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.execution;
+
+import com.google.common.collect.ImmutableList;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.exceptions.ConflictResolutionException;
+import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescription;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.ResourceDescriptionConflictResolver;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.impl.ResourceDescriptionImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.fiter.ResourceDescriptionFilter;
+import cz.cuni.mff.odcleanstore.fusiontool.util.EnumFusionCounters;
+import cz.cuni.mff.odcleanstore.fusiontool.util.IsCanceledCallback;
+import cz.cuni.mff.odcleanstore.fusiontool.util.ProfilingTimeCounter;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpStatement;
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelFusionExecutorTest {
+    private static final ResourceDescriptionFilter ACCEPT_ALL = new ResourceDescriptionFilter() {
+        @Override
+        public boolean accept(ResourceDescription resourceDescription) {
+            return true;
+        }
+    };
+
+    @Test
+    public void writesResultsInInputOrderWhenOrderIsPreserved() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(200);
+        CloseableRDFWriter writer = mock(CloseableRDFWriter.class);
+        ParallelFusionExecutor executor = createExecutor(4, null, ACCEPT_ALL, true);
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), createInputLoader(input), writer);
+
+        // Assert
+        assertThat(getWrittenSubjects(writer), is(getSubjects(input)));
+    }
+
+    @Test
+    public void writesAllResultsWhenOrderIsNotPreserved() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(200);
+        CloseableRDFWriter writer = mock(CloseableRDFWriter.class);
+        ParallelFusionExecutor executor = createExecutor(4, null, ACCEPT_ALL, false);
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), createInputLoader(input), writer);
+
+        // Assert
+        assertThat(getWrittenSubjects(writer), containsInAnyOrder(getSubjects(input).toArray()));
+    }
+
+    @Test
+    public void updatesInputLoaderWithResolvedStatements() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(10);
+        InputLoader inputLoader = createInputLoader(input);
+        ParallelFusionExecutor executor = createExecutor(2, null, ACCEPT_ALL, true);
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), inputLoader, mock(CloseableRDFWriter.class));
+
+        // Assert
+        verify(inputLoader, atLeastOnce()).updateWithResolvedStatements(any(Collection.class));
+    }
+
+    @Test
+    public void skipsFilteredResourceDescriptions() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(10);
+        final Resource rejected = input.get(3).getResource();
+        ResourceDescriptionFilter filter = new ResourceDescriptionFilter() {
+            @Override
+            public boolean accept(ResourceDescription resourceDescription) {
+                return !resourceDescription.getResource().equals(rejected);
+            }
+        };
+        CloseableRDFWriter writer = mock(CloseableRDFWriter.class);
+        ParallelFusionExecutor executor = createExecutor(2, null, filter, true);
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), createInputLoader(input), writer);
+
+        // Assert
+        List<Resource> expected = new ArrayList<>(getSubjects(input));
+        expected.remove(rejected);
+        assertThat(getWrittenSubjects(writer), is(expected));
+    }
+
+    @Test
+    public void stopsWhenMaxOutputTriplesReached() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(100);
+        CloseableRDFWriter writer = mock(CloseableRDFWriter.class);
+        ParallelFusionExecutor executor = createExecutor(4, 10L, ACCEPT_ALL, true);
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), createInputLoader(input), writer);
+
+        // Assert
+        assertThat(getWrittenSubjects(writer), is(getSubjects(input).subList(0, 10)));
+    }
+
+    @Test
+    public void stopsWhenCanceled() throws Exception {
+        // Arrange
+        List<ResourceDescription> input = createResourceDescriptions(100);
+        CloseableRDFWriter writer = mock(CloseableRDFWriter.class);
+        ParallelFusionExecutor executor = createExecutor(4, null, ACCEPT_ALL, true);
+        executor.setIsCanceledCallback(new IsCanceledCallback() {
+            @Override
+            public boolean isCanceled() {
+                return true;
+            }
+        });
+
+        // Act
+        executor.fuse(new SlowCopyingResolver(), createInputLoader(input), writer);
+
+        // Assert
+        verify(writer, never()).write(any(ResolvedStatement.class));
+    }
+
+    @Test(expected = ConflictResolutionException.class)
+    public void propagatesConflictResolutionException() throws Exception {
+        // Arrange
+        ResourceDescriptionConflictResolver resolver = mock(ResourceDescriptionConflictResolver.class);
+        when(resolver.resolveConflicts(any(ResourceDescription.class))).thenThrow(new ConflictResolutionException("test"));
+        ParallelFusionExecutor executor = createExecutor(2, null, ACCEPT_ALL, true);
+
+        // Act
+        executor.fuse(resolver, createInputLoader(createResourceDescriptions(10)), mock(CloseableRDFWriter.class));
+    }
+
+    private static ParallelFusionExecutor createExecutor(
+            int threadCount, Long maxOutputTriples, ResourceDescriptionFilter filter, boolean preserveOutputOrder) {
+        return new ParallelFusionExecutor(threadCount, maxOutputTriples, filter, preserveOutputOrder,
+                ProfilingTimeCounter.createInstance(EnumFusionCounters.class, false));
+    }
+
+    private static List<ResourceDescription> createResourceDescriptions(int count) {
+        List<ResourceDescription> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new ResourceDescriptionImpl(createHttpUri("s" + i),
+                    ImmutableList.of(createHttpStatement("s" + i, "p", "o" + i))));
+        }
+        return result;
+    }
+
+    private static List<Resource> getSubjects(List<ResourceDescription> resourceDescriptions) {
+        List<Resource> result = new ArrayList<>();
+        for (ResourceDescription resourceDescription : resourceDescriptions) {
+            result.add(resourceDescription.getResource());
+        }
+        return result;
+    }
+
+    private static List<Resource> getWrittenSubjects(CloseableRDFWriter writer) throws Exception {
+        ArgumentCaptor<ResolvedStatement> captor = ArgumentCaptor.forClass(ResolvedStatement.class);
+        verify(writer, atLeastOnce()).write(captor.capture());
+        List<Resource> result = new ArrayList<>();
+        for (ResolvedStatement resolvedStatement : captor.getAllValues()) {
+            result.add(resolvedStatement.getStatement().getSubject());
+        }
+        return result;
+    }
+
+    private static InputLoader createInputLoader(List<ResourceDescription> resourceDescriptions) throws Exception {
+        final Iterator<ResourceDescription> iterator = resourceDescriptions.iterator();
+        InputLoader inputLoader = mock(InputLoader.class);
+        when(inputLoader.hasNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return iterator.hasNext();
+            }
+        });
+        when(inputLoader.next()).thenAnswer(new Answer<ResourceDescription>() {
+            @Override
+            public ResourceDescription answer(InvocationOnMock invocation) throws Throwable {
+                return iterator.next();
+            }
+        });
+        return inputLoader;
+    }
+
+    /** Resolves each statement to itself after a random delay so that resolution finishes out of order. */
+    private static class SlowCopyingResolver implements ResourceDescriptionConflictResolver {
+        private final Random random = new Random(0);
+
+        @Override
+        public Collection<ResolvedStatement> resolveConflicts(ResourceDescription resourceDescription) throws ConflictResolutionException {
+            try {
+                Thread.sleep(nextDelay());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<ResolvedStatement> result = new ArrayList<>();
+            for (Statement statement : resourceDescription.getDescribingStatements()) {
+                result.add(new ResolvedStatementImpl(statement, 1d, ImmutableList.of(statement.getContext())));
+            }
+            return result;
+        }
+
+        private synchronized int nextDelay() {
+            return random.nextInt(3);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AdaptivePageSizeControllerTest {
+    @Test
+    public void growsPageSizeWhileTimePerRowImproves() throws Exception {
+        TestController controller = new TestController(100, 10, 1000);
+
+        // Act & Assert
+        controller.pageLoaded(100, 1000);
+        assertThat(controller.getPageSize(), is(200));
+        controller.pageLoaded(200, 1000);
+        assertThat(controller.getPageSize(), is(400));
+        controller.pageLoaded(400, 1000);
+        assertThat(controller.getPageSize(), is(800));
+        controller.pageLoaded(800, 1000);
+        assertThat(controller.getPageSize(), is(1000));
+        controller.pageLoaded(1000, 1000);
+        assertThat(controller.getPageSize(), is(1000));
+    }
+
+    @Test
+    public void stopsGrowingWhenTimePerRowDoesNotImprove() throws Exception {
+        TestController controller = new TestController(100, 10, 1000);
+
+        // Act
+        controller.pageLoaded(100, 1000);
+        controller.pageLoaded(200, 2000);
+        controller.pageLoaded(200, 100);
+
+        // Assert
+        assertThat(controller.getPageSize(), is(200));
+    }
+
+    @Test
+    public void ignoresLastPageOfResult() throws Exception {
+        TestController controller = new TestController(100, 10, 1000);
+
+        // Act
+        controller.pageLoaded(50, 1000);
+
+        // Assert
+        assertThat(controller.getPageSize(), is(100));
+    }
+
+    @Test
+    public void shrinksPageSizeWhenQueryIsInterrupted() throws Exception {
+        TestController controller = new TestController(100, 30, 1000);
+
+        // Act & Assert
+        assertThat(controller.pageInterrupted(), is(true));
+        assertThat(controller.getPageSize(), is(50));
+        assertThat(controller.pageInterrupted(), is(true));
+        assertThat(controller.getPageSize(), is(30));
+        assertThat(controller.pageInterrupted(), is(false));
+        assertThat(controller.getPageSize(), is(30));
+    }
+
+    @Test
+    public void resumesGrowingAfterTransientInterrupt() throws Exception {
+        TestController controller = new TestController(400, 10, 1000);
+        controller.pageInterrupted();
+
+        // Act & Assert
+        for (int i = 0; i < AdaptivePageSizeController.REPROBE_INTERVAL; i++) {
+            assertThat(controller.getPageSize(), is(200));
+            controller.pageLoaded(200, pageTime(200));
+        }
+        assertThat(controller.getPageSize(), is(400));
+        controller.pageLoaded(400, pageTime(400));
+        assertThat(controller.getPageSize(), is(800));
+        controller.pageLoaded(800, pageTime(800));
+        assertThat(controller.getPageSize(), is(1000));
+    }
+
+    @Test
+    public void revertsProbedPageSizeWhenTimePerRowDoesNotImprove() throws Exception {
+        TestController controller = new TestController(100, 10, 1000);
+        controller.pageLoaded(100, 1000);
+        controller.pageLoaded(200, 2000);
+
+        // Act
+        for (int i = 0; i < AdaptivePageSizeController.REPROBE_INTERVAL - 1; i++) {
+            controller.pageLoaded(200, 2000);
+        }
+        int probedPageSize = controller.getPageSize();
+        controller.pageLoaded(probedPageSize, probedPageSize * 10);
+
+        // Assert
+        assertThat(probedPageSize, is(400));
+        assertThat(controller.getPageSize(), is(200));
+    }
+
+    @Test
+    public void shrinksPageSizeWhenMemoryIsLow() throws Exception {
+        TestController controller = new TestController(100, 10, 1000);
+        controller.isMemoryLow = true;
+
+        // Act
+        controller.pageLoaded(100, 1000);
+
+        // Assert
+        assertThat(controller.getPageSize(), is(50));
+    }
+
+    @Test
+    public void keepsFixedPageSizeWhenBoundsAreEqual() throws Exception {
+        TestController controller = new TestController(100, 100, 100);
+
+        // Act
+        controller.pageLoaded(100, 1000);
+        boolean retry = controller.pageInterrupted();
+
+        // Assert
+        assertThat(retry, is(false));
+        assertThat(controller.getPageSize(), is(100));
+    }
+
+    @Test
+    public void adjustsInitialPageSizeToBounds() throws Exception {
+        assertThat(new TestController(5, 10, 1000).getPageSize(), is(10));
+        assertThat(new TestController(5000, 10, 1000).getPageSize(), is(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwsWhenBoundsAreInvalid() throws Exception {
+        new AdaptivePageSizeController(100, 1000, 10);
+    }
+
+    /** Time of a page with fixed per-query overhead, so that larger pages have lower time per row. */
+    private static long pageTime(int rowCount) {
+        return 10000 + 10L * rowCount;
+    }
+
+    private static class TestController extends AdaptivePageSizeController {
+        private boolean isMemoryLow = false;
+
+        TestController(int initialPageSize, int minPageSize, int maxPageSize) {
+            super(initialPageSize, minPageSize, maxPageSize);
+        }
+
+        @Override
+        protected boolean isMemoryLow() {
+            return isMemoryLow;
+        }
+    }
+}
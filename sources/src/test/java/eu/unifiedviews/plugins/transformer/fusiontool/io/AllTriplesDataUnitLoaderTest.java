@@ -1,10 +1,13 @@
 package eu.unifiedviews.plugins.transformer.fusiontool.io;
 
+import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import cz.cuni.mff.odcleanstore.core.ODCSUtils;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
 import eu.unifiedviews.dataunit.DataUnitException;
 import eu.unifiedviews.dataunit.rdf.RDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.ContextAwareStatementIsEqual;
 import eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils;
 import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
 import org.junit.Test;
@@ -15,13 +18,18 @@ import org.openrdf.repository.Repository;
 import org.openrdf.repository.RepositoryConnection;
 import org.openrdf.repository.RepositoryException;
 import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
 import org.openrdf.rio.helpers.StatementCollector;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
 import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpStatement;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -105,6 +113,196 @@ public class AllTriplesDataUnitLoaderTest {
         assertThat(result, is(statements));
     }
 
+    @Test
+    public void loadsAllTriplesWithStatementCursor() throws Exception {
+        // Arrange
+        Collection<Statement> statements = ImmutableSet.of(
+                createHttpStatement("s1", "p", "o", "g1"),
+                createHttpStatement("s2", "p", "o", "g1"),
+                createHttpStatement("s3", "p", "o", "g1"),
+                createHttpStatement("s4", "p", "o", "g2"),
+                createHttpStatement("s5", "p", "o", "g3")
+        );
+
+        // Act
+        Collection<Statement> result = new HashSet<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 2)
+        ) {
+            loader.setUseStatementCursor(true);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result, containsInAnyOrder(Collections2.transform(statements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void loadsGraphsGivenByIterationOnlyWithStatementCursor() throws Exception {
+        // Arrange
+        Collection<Statement> statements = ImmutableSet.of(
+                createHttpStatement("s1", "p", "o", "g1"),
+                createHttpStatement("s2", "p", "o", "g2")
+        );
+        Collection<Statement> extraStatements = ImmutableSet.of(
+                createHttpStatement("s3", "p", "o", "g3"),
+                createHttpStatement("s4", "p", "o", "g4")
+        );
+
+        // Act
+        Collection<Statement> result = new HashSet<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 2)
+        ) {
+            RepositoryConnection connection = rdfDataUnit.getConnection();
+            connection.add(extraStatements);
+            connection.close();
+            loader.setUseStatementCursor(true);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result, is(statements));
+    }
+
+    @Test
+    public void statementCursorLoadsSameQuadsAsPagedQueries() throws Exception {
+        // Arrange
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            statements.add(createHttpStatement("s" + i, "p" + (i % 3), "o" + i, "g" + (i % 4)));
+        }
+
+        // Act
+        Collection<Statement> pagedResult = new ArrayList<>();
+        Collection<Statement> cursorResult = new ArrayList<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader pagedLoader = getLoader(rdfDataUnit, 4);
+             AllTriplesDataUnitLoader cursorLoader = getLoader(rdfDataUnit, 4)
+        ) {
+            pagedLoader.loadAllTriples(new StatementCollector(pagedResult));
+            cursorLoader.setUseStatementCursor(true);
+            cursorLoader.loadAllTriples(new StatementCollector(cursorResult));
+        }
+
+        // Assert
+        assertThat(cursorResult.size(), is(pagedResult.size()));
+        assertThat(cursorResult, containsInAnyOrder(Collections2.transform(pagedResult, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void loadsAllQuadsWithTheirContextsWhenGraphsAreGrouped() throws Exception {
+        // Arrange
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            statements.add(createHttpStatement("s" + i, "p" + (i % 3), "o" + i, "g" + (i % 10)));
+        }
+
+        // Act
+        Collection<Statement> result = new ArrayList<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 5)
+        ) {
+            loader.setGraphGroupSize(3);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result.size(), is(statements.size()));
+        assertThat(result, containsInAnyOrder(Collections2.transform(statements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void loadsAllTriplesWithAdaptivePageSize() throws Exception {
+        // Arrange
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            statements.add(createHttpStatement("s" + i, "p", "o" + i, "g" + (i % 2)));
+        }
+
+        // Act
+        Collection<Statement> result = new ArrayList<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 2)
+        ) {
+            loader.setAdaptivePageSize(2, 16);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result.size(), is(statements.size()));
+        assertThat(result, containsInAnyOrder(Collections2.transform(statements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void prefetchingLoadsSameQuadsInSameOrder() throws Exception {
+        // Arrange
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            statements.add(createHttpStatement("s" + i, "p" + (i % 3), "o" + i, "g" + (i % 4)));
+        }
+
+        // Act
+        List<Statement> result = new ArrayList<>();
+        List<Statement> prefetchedResult = new ArrayList<>();
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 100);
+             AllTriplesDataUnitLoader prefetchingLoader = getLoader(rdfDataUnit, 100)
+        ) {
+            loader.loadAllTriples(new StatementCollector(result));
+            prefetchingLoader.setPrefetchBatches(1);
+            prefetchingLoader.loadAllTriples(new StatementCollector(prefetchedResult));
+        }
+
+        // Assert
+        assertThat(prefetchedResult.size(), is(statements.size()));
+        assertThat(prefetchedResult, is(result));
+    }
+
+    @Test(expected = LDFusionToolException.class)
+    public void prefetchingThrowsWhenHandlerFails() throws Exception {
+        // Arrange
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            statements.add(createHttpStatement("s" + i, "p", "o", "g"));
+        }
+        RDFHandler failingHandler = new RDFHandlerBase() {
+            @Override
+            public void handleStatement(Statement st) throws RDFHandlerException {
+                throw new RDFHandlerException("test");
+            }
+        };
+
+        // Act
+        try (MockRDFDataUnit rdfDataUnit = getDataUnit(statements);
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 100)
+        ) {
+            loader.setPrefetchBatches(1);
+            loader.loadAllTriples(failingHandler);
+        }
+    }
+
+    @Test(expected = OutOfMemoryError.class, timeout = 10000)
+    public void prefetchingPropagatesErrorOfPrefetchingThread() throws Exception {
+        // Arrange
+        List<Statement> statements = ImmutableList.of(createHttpStatement("s", "p", "o", "g"));
+        MockRDFDataUnit failingDataUnit = new MockRDFDataUnit(statements) {
+            @Override
+            public RepositoryConnection getConnection() throws DataUnitException {
+                throw new OutOfMemoryError("test");
+            }
+        };
+        failingDataUnit.addExistingDataGraph("g", (URI) statements.get(0).getContext());
+
+        // Act
+        try (MockRDFDataUnit rdfDataUnit = failingDataUnit;
+             AllTriplesDataUnitLoader loader = getLoader(rdfDataUnit, 100)
+        ) {
+            loader.setPrefetchBatches(1);
+            loader.loadAllTriples(new StatementCollector());
+        }
+    }
+
     @Test
     public void returnsEmptyResultWhenNoMatchingTriplesExist() throws Exception {
         // Arrange
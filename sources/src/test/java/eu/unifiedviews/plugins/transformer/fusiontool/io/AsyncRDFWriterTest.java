@@ -0,0 +1,135 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import com.google.common.collect.ImmutableList;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriter;
+import cz.cuni.mff.odcleanstore.fusiontool.writers.CloseableRDFWriterBase;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class AsyncRDFWriterTest {
+    @Test
+    public void writesAllStatementsInOrderAndClosesUnderlyingWriter() throws Exception {
+        CollectingRDFWriter underlyingWriter = new CollectingRDFWriter();
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            statements.add(FTDPUTestUtils.createHttpStatement("s" + i, "p", "o" + i));
+        }
+
+        // Act
+        AsyncRDFWriter writer = new AsyncRDFWriter(underlyingWriter, 2, 3);
+        for (Statement statement : statements) {
+            writer.write(statement);
+        }
+        writer.close();
+
+        // Assert
+        assertThat(underlyingWriter.statements, contains(statements.toArray()));
+        assertThat(underlyingWriter.isClosed, is(true));
+    }
+
+    @Test
+    public void forwardsResolvedStatementsAndNamespaces() throws Exception {
+        CloseableRDFWriter underlyingWriter = mock(CloseableRDFWriter.class);
+        ResolvedStatement resolvedStatement = new ResolvedStatementImpl(
+                FTDPUTestUtils.createHttpStatement("s", "p", "o"),
+                0.5,
+                ImmutableList.<Resource>of(FTDPUTestUtils.createHttpUri("source")));
+
+        // Act
+        try (AsyncRDFWriter writer = new AsyncRDFWriter(underlyingWriter, 2, 10)) {
+            writer.addNamespace("ex", "http://example.com/");
+            writer.write(resolvedStatement);
+        }
+
+        // Assert
+        InOrder inOrder = inOrder(underlyingWriter);
+        inOrder.verify(underlyingWriter).addNamespace("ex", "http://example.com/");
+        inOrder.verify(underlyingWriter).write(resolvedStatement);
+        inOrder.verify(underlyingWriter).close();
+    }
+
+    @Test
+    public void rethrowsErrorOfUnderlyingWriter() throws Exception {
+        CloseableRDFWriter underlyingWriter = mock(CloseableRDFWriter.class);
+        doThrow(new IOException("test")).when(underlyingWriter).write(any(Statement.class));
+
+        // Act
+        AsyncRDFWriter writer = new AsyncRDFWriter(underlyingWriter, 1, 1);
+        try {
+            for (int i = 0; i < 100; i++) {
+                writer.write(FTDPUTestUtils.createHttpStatement("s" + i, "p", "o"));
+            }
+            writer.close();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // Assert
+        writer.close();
+        verify(underlyingWriter).close();
+    }
+
+    @Test(expected = OutOfMemoryError.class, timeout = 10000)
+    public void rethrowsErrorOfWriterThreadWithoutBlocking() throws Exception {
+        CloseableRDFWriter underlyingWriter = mock(CloseableRDFWriter.class);
+        doThrow(new OutOfMemoryError("test")).when(underlyingWriter).write(any(Statement.class));
+
+        // Act
+        try (AsyncRDFWriter writer = new AsyncRDFWriter(underlyingWriter, 1, 1)) {
+            for (int i = 0; i < 100; i++) {
+                writer.write(FTDPUTestUtils.createHttpStatement("s" + i, "p", "o"));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void throwsExceptionWhenWritingAfterClose() throws Exception {
+        AsyncRDFWriter writer = new AsyncRDFWriter(new CollectingRDFWriter(), 1, 1);
+        writer.close();
+        writer.write(FTDPUTestUtils.createHttpStatement("s", "p", "o"));
+    }
+
+    private static class CollectingRDFWriter extends CloseableRDFWriterBase {
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean isClosed = false;
+
+        @Override
+        public void write(Statement quad) throws IOException {
+            statements.add(quad);
+        }
+
+        @Override
+        public void write(ResolvedStatement resolvedStatement) throws IOException {
+            statements.add(resolvedStatement.getStatement());
+        }
+
+        @Override
+        public void addNamespace(String prefix, String uri) throws IOException {
+        }
+
+        @Override
+        public void close() throws IOException {
+            isClosed = true;
+        }
+    }
+}
@@ -2,22 +2,30 @@ package eu.unifiedviews.plugins.transformer.fusiontool.io;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
 import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
 import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
 import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.ContextAwareStatementIsEqual;
 import eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.repository.Repository;
 import org.openrdf.repository.RepositoryConnection;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.mockito.Mockito.*;
 
 public class DataUnitRDFWriterTest {
@@ -49,6 +57,7 @@ public class DataUnitRDFWriterTest {
         Statement statement = FTDPUTestUtils.createStatement();
 
         writer.write(statement);
+        writer.close();
 
         Statement actualStatement = Iterables.getOnlyElement(FTDPUTestUtils.getAllStatements(repository));
         assertThat(actualStatement, is(statement));
@@ -61,6 +70,7 @@ public class DataUnitRDFWriterTest {
         ResolvedStatement resolvedStatement = new ResolvedStatementImpl(statement, 0.5, ImmutableList.of((Resource) FTDPUTestUtils.getUniqueURI()));
 
         writer.write(resolvedStatement);
+        writer.close();
 
         Statement actualStatement = Iterables.getOnlyElement(FTDPUTestUtils.getAllStatements(repository));
         assertThat(actualStatement, is(statement));
@@ -83,6 +93,75 @@ public class DataUnitRDFWriterTest {
         verify(connection).close();
     }
 
+    @Test
+    public void writesStatementsInTransactionalBatches() throws Exception {
+        // Arrange
+        WritableRDFDataUnit dataUnit = mock(WritableRDFDataUnit.class);
+        RepositoryConnection connection = mock(RepositoryConnection.class);
+        when(connection.getValueFactory()).thenReturn(ValueFactoryImpl.getInstance());
+        when(dataUnit.getConnection()).thenReturn(connection);
+        when(dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME)).thenReturn(DEFAULT_CONTEXT);
+        writer = new DataUnitRDFWriter(dataUnit, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, 2);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            writer.write(FTDPUTestUtils.createStatement());
+        }
+        verify(connection, times(2)).commit();
+        writer.close();
+
+        // Assert
+        verify(connection, times(3)).begin();
+        verify(connection, times(3)).add(Matchers.<Iterable<Statement>>any());
+        verify(connection, times(3)).commit();
+        verify(connection, never()).add(any(Statement.class));
+    }
+
+    @Test
+    public void writesAllStatementsInBatchesToDefaultGraph() throws Exception {
+        // Arrange
+        WritableRDFDataUnit dataUnit = mock(WritableRDFDataUnit.class);
+        when(dataUnit.getConnection()).thenReturn(repository.getConnection());
+        when(dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME)).thenReturn(DEFAULT_CONTEXT);
+        writer = new DataUnitRDFWriter(dataUnit, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, 3);
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            statements.add(FTDPUTestUtils.createStatement());
+        }
+
+        // Act
+        for (Statement statement : statements) {
+            writer.write(statement);
+        }
+        writer.close();
+
+        // Assert
+        List<Statement> expectedStatements = new ArrayList<>();
+        for (Statement statement : statements) {
+            expectedStatements.add(FTDPUTestUtils.setContext(statement, DEFAULT_CONTEXT));
+        }
+        assertThat(FTDPUTestUtils.getAllStatements(repository),
+                containsInAnyOrder(Lists.transform(expectedStatements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void writesStatementsImmediatelyWhenBatchSizeIsOne() throws Exception {
+        // Arrange
+        WritableRDFDataUnit dataUnit = mock(WritableRDFDataUnit.class);
+        when(dataUnit.getConnection()).thenReturn(connection);
+        when(dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME)).thenReturn(DEFAULT_CONTEXT);
+        writer = new DataUnitRDFWriter(dataUnit, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, 1);
+        Statement statement = FTDPUTestUtils.createStatement();
+
+        // Act
+        writer.write(statement);
+
+        // Assert
+        Statement actualStatement = Iterables.getOnlyElement(FTDPUTestUtils.getAllStatements(repository));
+        assertThat(actualStatement, is(statement));
+        assertThat(actualStatement.getContext(), is((Resource) DEFAULT_CONTEXT));
+    }
+
     @Test
     public void addNamespaceDoesNotThrow() throws Exception {
         writer.addNamespace("prefix", "url");
@@ -0,0 +1,150 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.dataunit.rdf.WritableRDFDataUnit;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FTConfigConstants;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.ContextAwareStatementIsEqual;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.repository.RepositoryConnection;
+
+import java.util.List;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DataUnitRDFWriterWithCompactMetadataTest {
+    public static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+    private DataUnitRDFWriterWithCompactMetadata writer;
+    private MockRDFDataUnit dataUnit;
+
+    @Before
+    public void setUp() throws Exception {
+        dataUnit = new MockRDFDataUnit();
+        writer = new DataUnitRDFWriterWithCompactMetadata(
+                dataUnit, FTConfigConstants.DEFAULT_DATA_GRAPH_NAME, FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME, 3);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writer.close();
+        dataUnit.close();
+    }
+
+    @Test
+    public void writesStatementToDataGraph() throws Exception {
+        Statement statement = FTDPUTestUtils.createStatement();
+
+        writer.write(statement);
+        writer.close();
+
+        Statement actualStatement = Iterables.getOnlyElement(dataUnit.getAllStatements());
+        Resource dataGraph = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME);
+        assertThat(actualStatement, is(statement));
+        assertThat(actualStatement.getContext(), is(dataGraph));
+    }
+
+    @Test
+    public void writesResolvedStatementsWithSameMetadataToSharedGraph() throws Exception {
+        // Arrange
+        Statement statement1 = FTDPUTestUtils.createStatement();
+        Statement statement2 = FTDPUTestUtils.createStatement();
+        Statement statement3 = FTDPUTestUtils.createStatement();
+        List<Resource> sources = ImmutableList.<Resource>of(createHttpUri("source1"), createHttpUri("source2"));
+        List<Resource> reorderedSources = ImmutableList.<Resource>of(createHttpUri("source2"), createHttpUri("source1"));
+        List<Resource> otherSources = ImmutableList.<Resource>of(createHttpUri("source1"));
+
+        // Act
+        writer.write(new ResolvedStatementImpl(statement1, 0.5, sources));
+        writer.write(new ResolvedStatementImpl(statement2, 0.5, reorderedSources));
+        writer.write(new ResolvedStatementImpl(statement3, 0.5, otherSources));
+        writer.close();
+
+        // Assert
+        URI metadataGraph = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME);
+        URI sharedGraph = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME + "-1");
+        URI otherGraph = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME + "-2");
+
+        List<Statement> expectedStatements = ImmutableList.of(
+                FTDPUTestUtils.setContext(statement1, sharedGraph),
+                FTDPUTestUtils.setContext(statement2, sharedGraph),
+                FTDPUTestUtils.setContext(statement3, otherGraph),
+                VF.createStatement(sharedGraph, ODCS.QUALITY, VF.createLiteral(0.5), metadataGraph),
+                VF.createStatement(sharedGraph, ODCS.SOURCE_GRAPH, createHttpUri("source1"), metadataGraph),
+                VF.createStatement(sharedGraph, ODCS.SOURCE_GRAPH, createHttpUri("source2"), metadataGraph),
+                VF.createStatement(otherGraph, ODCS.QUALITY, VF.createLiteral(0.5), metadataGraph),
+                VF.createStatement(otherGraph, ODCS.SOURCE_GRAPH, createHttpUri("source1"), metadataGraph)
+        );
+        List<Statement> actualStatements = dataUnit.getAllStatements();
+        assertThat(actualStatements, containsInAnyOrder(Lists.transform(expectedStatements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void writesResolvedStatementsWithDifferentQualityToDifferentGraphs() throws Exception {
+        // Arrange
+        Statement statement1 = FTDPUTestUtils.createStatement();
+        Statement statement2 = FTDPUTestUtils.createStatement();
+        List<Resource> sources = ImmutableList.<Resource>of(createHttpUri("source1"));
+
+        // Act
+        writer.write(new ResolvedStatementImpl(statement1, 0.5, sources));
+        writer.write(new ResolvedStatementImpl(statement2, 0.9, sources));
+        writer.close();
+
+        // Assert
+        URI metadataGraph = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME);
+        URI graph1 = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME + "-1");
+        URI graph2 = dataUnit.addNewDataGraph(FTConfigConstants.DEFAULT_DATA_GRAPH_NAME + "-2");
+
+        List<Statement> expectedStatements = ImmutableList.of(
+                FTDPUTestUtils.setContext(statement1, graph1),
+                FTDPUTestUtils.setContext(statement2, graph2),
+                VF.createStatement(graph1, ODCS.QUALITY, VF.createLiteral(0.5), metadataGraph),
+                VF.createStatement(graph1, ODCS.SOURCE_GRAPH, createHttpUri("source1"), metadataGraph),
+                VF.createStatement(graph2, ODCS.QUALITY, VF.createLiteral(0.9), metadataGraph),
+                VF.createStatement(graph2, ODCS.SOURCE_GRAPH, createHttpUri("source1"), metadataGraph)
+        );
+        List<Statement> actualStatements = dataUnit.getAllStatements();
+        assertThat(actualStatements, containsInAnyOrder(Lists.transform(expectedStatements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+
+    @Test
+    public void closesConnection() throws Exception {
+        // Arrange
+        WritableRDFDataUnit dataUnit = mock(WritableRDFDataUnit.class);
+        RepositoryConnection connection = mock(RepositoryConnection.class);
+        when(dataUnit.getConnection()).thenReturn(connection);
+        DataUnitRDFWriterWithCompactMetadata writer = new DataUnitRDFWriterWithCompactMetadata(
+                dataUnit,
+                FTConfigConstants.DEFAULT_DATA_GRAPH_NAME,
+                FTConfigConstants.DEFAULT_METADATA_GRAPH_NAME,
+                FTConfigConstants.DEFAULT_WRITE_BATCH_SIZE);
+
+        // Act
+        writer.close();
+
+        // Assert
+        verify(connection).close();
+    }
+
+    @Test
+    public void addNamespaceDoesNotThrow() throws Exception {
+        writer.addNamespace("prefix", "url");
+    }
+}
@@ -0,0 +1,115 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import cz.cuni.mff.odcleanstore.conflictresolution.ResolvedStatement;
+import cz.cuni.mff.odcleanstore.conflictresolution.impl.ResolvedStatementImpl;
+import cz.cuni.mff.odcleanstore.vocabulary.ODCS;
+import eu.unifiedviews.plugins.transformer.fusiontool.config.FileOutputImpl;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.ContextAwareStatementIsEqual;
+import eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Model;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.Rio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+public class FileRDFWriterTest {
+    public static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void writesStatementsToDataGraph() throws Exception {
+        URI dataGraph = FTDPUTestUtils.createHttpUri("data");
+        Statement statement = FTDPUTestUtils.createHttpStatement("s", "p", "o", "g");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        try (FileRDFWriter writer = new FileRDFWriter(outputStream, RDFFormat.NQUADS, dataGraph, null, false)) {
+            writer.write(new ResolvedStatementImpl(statement, 0.5, ImmutableList.<Resource>of(FTDPUTestUtils.createHttpUri("source1"))));
+        }
+
+        // Assert
+        List<Statement> expectedStatements = ImmutableList.of(
+                VF.createStatement(statement.getSubject(), statement.getPredicate(), statement.getObject(), dataGraph));
+        assertContainsStatements(parse(outputStream, RDFFormat.NQUADS), expectedStatements);
+    }
+
+    @Test
+    public void writesResolvedStatementsWithMetadata() throws Exception {
+        URI metadataGraph = FTDPUTestUtils.createHttpUri("metadata");
+        Statement statement = FTDPUTestUtils.createHttpStatement("s", "p", "o", "g");
+        ResolvedStatement resolvedStatement = new ResolvedStatementImpl(
+                statement,
+                0.5,
+                ImmutableList.<Resource>of(FTDPUTestUtils.createHttpUri("source1"), FTDPUTestUtils.createHttpUri("source2")));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Act
+        try (FileRDFWriter writer = new FileRDFWriter(outputStream, RDFFormat.TRIG, null, metadataGraph, true)) {
+            writer.write(resolvedStatement);
+        }
+
+        // Assert
+        Resource statementGraph = statement.getContext();
+        List<Statement> expectedStatements = ImmutableList.of(
+                statement,
+                VF.createStatement(statementGraph, ODCS.QUALITY, VF.createLiteral(0.5), metadataGraph),
+                VF.createStatement(statementGraph, ODCS.SOURCE_GRAPH, FTDPUTestUtils.createHttpUri("source1"), metadataGraph),
+                VF.createStatement(statementGraph, ODCS.SOURCE_GRAPH, FTDPUTestUtils.createHttpUri("source2"), metadataGraph));
+        assertContainsStatements(parse(outputStream, RDFFormat.TRIG), expectedStatements);
+    }
+
+    @Test
+    public void writesCompressedBinaryFile() throws Exception {
+        File file = testDir.newFile("output.brf.gz");
+        FileOutputImpl fileOutput = new FileOutputImpl(file, RDFFormat.BINARY);
+        fileOutput.setCompressed(true);
+        List<Statement> statements = ImmutableList.of(
+                FTDPUTestUtils.createHttpStatement("s1", "p", "o1"),
+                FTDPUTestUtils.createHttpStatement("s2", "p", "o2"));
+
+        // Act
+        try (FileRDFWriter writer = FileRDFWriter.create(file, fileOutput, false)) {
+            for (Statement statement : statements) {
+                writer.write(statement);
+            }
+        }
+
+        // Assert
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(file))) {
+            assertContainsStatements(Rio.parse(inputStream, "", RDFFormat.BINARY), statements);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresFormatWithNamedGraphs() throws Exception {
+        new FileRDFWriter(new ByteArrayOutputStream(), RDFFormat.NTRIPLES, null, null, false);
+    }
+
+    private static Model parse(ByteArrayOutputStream outputStream, RDFFormat format) throws Exception {
+        return Rio.parse(new ByteArrayInputStream(outputStream.toByteArray()), "", format);
+    }
+
+    private static void assertContainsStatements(Model actualStatements, List<Statement> expectedStatements) {
+        assertThat(actualStatements, containsInAnyOrder(Lists.transform(expectedStatements, ContextAwareStatementIsEqual.STATEMENT_TO_MATCHER)));
+    }
+}
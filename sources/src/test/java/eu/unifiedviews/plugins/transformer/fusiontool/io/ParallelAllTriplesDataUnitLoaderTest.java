@@ -0,0 +1,164 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import com.google.common.collect.ImmutableList;
+import cz.cuni.mff.odcleanstore.fusiontool.exceptions.LDFusionToolException;
+import eu.unifiedviews.dataunit.DataUnitException;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.repository.RepositoryException;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.openrdf.rio.helpers.StatementCollector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpStatement;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ParallelAllTriplesDataUnitLoaderTest {
+
+    @Test
+    public void loadsAllTriplesFromAllDataUnits() throws Exception {
+        // Arrange
+        List<Statement> statements1 = createStatements("a", 5, 2500);
+        List<Statement> statements2 = createStatements("b", 3, 10);
+
+        // Act
+        Collection<Statement> result = new ArrayList<>();
+        try (MockRDFDataUnit dataUnit1 = getDataUnit(statements1);
+             MockRDFDataUnit dataUnit2 = getDataUnit(statements2);
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit1, dataUnit2), 3, 2)
+        ) {
+            loader.setMaxSparqlResultsSize(1000);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        Collection<Statement> expected = new HashSet<>(statements1);
+        expected.addAll(statements2);
+        assertThat(result.size(), is(expected.size()));
+        assertThat(new HashSet<>(result), is(expected));
+    }
+
+    @Test
+    public void loadsAllTriplesWithStatementCursor() throws Exception {
+        // Arrange
+        List<Statement> statements = createStatements("a", 4, 100);
+
+        // Act
+        Collection<Statement> result = new HashSet<>();
+        try (MockRDFDataUnit dataUnit = getDataUnit(statements);
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit), 2, 2)
+        ) {
+            loader.setUseStatementCursor(true);
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result, is((Collection<Statement>) new HashSet<>(statements)));
+    }
+
+    @Test
+    public void returnsEmptyResultWhenNoMatchingTriplesExist() throws Exception {
+        // Act
+        Collection<Statement> result = new HashSet<>();
+        try (MockRDFDataUnit dataUnit = new MockRDFDataUnit();
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit), 2, 2)
+        ) {
+            loader.loadAllTriples(new StatementCollector(result));
+        }
+
+        // Assert
+        assertThat(result, empty());
+    }
+
+    @Test
+    public void callsStartRDFAndEndRDFOnGivenHandler() throws Exception {
+        // Arrange
+        RDFHandler rdfHandler = mock(RDFHandler.class);
+        List<Statement> statements = createStatements("a", 2, 1);
+
+        // Act
+        try (MockRDFDataUnit dataUnit = getDataUnit(statements);
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit), 2, 2)
+        ) {
+            loader.loadAllTriples(rdfHandler);
+        }
+
+        // Assert
+        Mockito.verify(rdfHandler).startRDF();
+        Mockito.verify(rdfHandler).endRDF();
+    }
+
+    @Test(expected = LDFusionToolException.class)
+    public void throwsWhenHandlerFails() throws Exception {
+        // Arrange
+        List<Statement> statements = createStatements("a", 4, 5000);
+        RDFHandler failingHandler = new RDFHandlerBase() {
+            @Override
+            public void handleStatement(Statement st) throws RDFHandlerException {
+                throw new RDFHandlerException("test");
+            }
+        };
+
+        // Act
+        try (MockRDFDataUnit dataUnit = getDataUnit(statements);
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit), 2, 1)
+        ) {
+            loader.loadAllTriples(failingHandler);
+        }
+    }
+
+    @Test(expected = OutOfMemoryError.class, timeout = 10000)
+    public void propagatesErrorOfLoadingThread() throws Exception {
+        // Arrange
+        List<Statement> statements = createStatements("a", 2, 10);
+        MockRDFDataUnit failingDataUnit = new MockRDFDataUnit(statements) {
+            @Override
+            public RepositoryConnection getConnection() throws DataUnitException {
+                throw new OutOfMemoryError("test");
+            }
+        };
+        for (Statement statement : statements) {
+            URI graphName = (URI) statement.getContext();
+            failingDataUnit.addExistingDataGraph(graphName.stringValue(), graphName);
+        }
+
+        // Act
+        try (MockRDFDataUnit dataUnit = failingDataUnit;
+             ParallelAllTriplesDataUnitLoader loader = new ParallelAllTriplesDataUnitLoader(ImmutableList.of(dataUnit), 2, 2)
+        ) {
+            loader.loadAllTriples(new StatementCollector());
+        }
+    }
+
+    private List<Statement> createStatements(String prefix, int graphCount, int statementsPerGraph) {
+        List<Statement> statements = new ArrayList<>();
+        for (int g = 0; g < graphCount; g++) {
+            for (int i = 0; i < statementsPerGraph; i++) {
+                statements.add(createHttpStatement(prefix + "s" + i, "p", "o" + i, prefix + "g" + g));
+            }
+        }
+        return statements;
+    }
+
+    private MockRDFDataUnit getDataUnit(Collection<Statement> statements) throws RepositoryException, DataUnitException {
+        MockRDFDataUnit rdfDataUnit = new MockRDFDataUnit(statements);
+        for (Statement statement : statements) {
+            URI graphName = (URI) statement.getContext();
+            rdfDataUnit.addExistingDataGraph(graphName.stringValue(), graphName);
+        }
+        return rdfDataUnit;
+    }
+}
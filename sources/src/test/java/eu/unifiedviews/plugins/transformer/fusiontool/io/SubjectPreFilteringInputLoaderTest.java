@@ -0,0 +1,113 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterableImpl;
+import cz.cuni.mff.odcleanstore.fusiontool.loaders.InputLoader;
+import eu.unifiedviews.plugins.transformer.fusiontool.util.MockRDFDataUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+
+import java.util.Collections;
+import java.util.List;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class SubjectPreFilteringInputLoaderTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+    private static final URI REQUIRED_CLASS = createHttpUri("Address");
+    private static final URI GRAPH = createHttpUri("g");
+    private static final URI DEPENDS_ON = createHttpUri("dependsOn");
+
+    private List<Statement> statements;
+    private UriMappingIterableImpl uriMapping;
+    private InputLoader inputLoader;
+    private InputSubjectFilter subjectFilter;
+
+    @Before
+    public void setUp() throws Exception {
+        statements = ImmutableList.of(
+                VF.createStatement(createHttpUri("a1"), RDF.TYPE, REQUIRED_CLASS, GRAPH),
+                VF.createStatement(createHttpUri("b1"), RDF.TYPE, createHttpUri("Person"), GRAPH),
+                VF.createStatement(createHttpUri("c1"), RDF.TYPE, createHttpUri("AddressAlias"), GRAPH),
+                VF.createStatement(createHttpUri("a1"), DEPENDS_ON, createHttpUri("d1"), GRAPH),
+                VF.createStatement(createHttpUri("b1"), DEPENDS_ON, createHttpUri("e1"), GRAPH),
+                VF.createStatement(createHttpUri("f1"), DEPENDS_ON, createHttpUri("g1"), GRAPH));
+        uriMapping = new UriMappingIterableImpl(ImmutableSet.of(
+                createHttpUri("a1").stringValue(), REQUIRED_CLASS.stringValue()));
+        uriMapping.addLink(createHttpUri("a1"), createHttpUri("a2"));
+        uriMapping.addLink(createHttpUri("f1"), createHttpUri("f2"));
+        uriMapping.addLink(REQUIRED_CLASS, createHttpUri("AddressAlias"));
+        inputLoader = mock(InputLoader.class);
+        subjectFilter = new InputSubjectFilter();
+    }
+
+    @Test
+    public void acceptsResourcesOfRequiredClassAndTheirDependentResources() throws Exception {
+        // Act
+        initializeLoader(REQUIRED_CLASS, false);
+
+        // Assert
+        verify(inputLoader).initialize(uriMapping);
+        assertThat(subjectFilter.accept(createHttpUri("a1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("a2")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("c1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("d1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("b1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("e1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("f1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("x")), is(false));
+    }
+
+    @Test
+    public void acceptsMappedResourcesAndTheirDependentResources() throws Exception {
+        // Act
+        initializeLoader(null, true);
+
+        // Assert
+        verify(inputLoader).initialize(uriMapping);
+        assertThat(subjectFilter.accept(createHttpUri("a1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("a2")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("f2")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("d1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("g1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("b1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("c1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("e1")), is(false));
+    }
+
+    @Test
+    public void acceptsMappedResourcesOfRequiredClassWhenBothFiltersAreUsed() throws Exception {
+        // Act
+        initializeLoader(REQUIRED_CLASS, true);
+
+        // Assert
+        assertThat(subjectFilter.accept(createHttpUri("a2")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("d1")), is(true));
+        assertThat(subjectFilter.accept(createHttpUri("c1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("f1")), is(false));
+        assertThat(subjectFilter.accept(createHttpUri("g1")), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void filterMustBeInitialized() throws Exception {
+        new InputSubjectFilter().accept(createHttpUri("a1"));
+    }
+
+    private void initializeLoader(URI requiredClass, boolean mappedSubjectsOnly) throws Exception {
+        try (MockRDFDataUnit dataUnit = new MockRDFDataUnit(statements)) {
+            dataUnit.addExistingDataGraph(GRAPH.stringValue(), GRAPH);
+            SubjectPreFilteringInputLoader loader = new SubjectPreFilteringInputLoader(inputLoader, subjectFilter,
+                    ImmutableList.of(dataUnit), Collections.singleton(DEPENDS_ON), requiredClass, mappedSubjectsOnly);
+            loader.initialize(uriMapping);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BinaryTupleWriterTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void readsWrittenTuplesUncompressed() throws Exception {
+        assertRoundTrip(false);
+    }
+
+    @Test
+    public void readsWrittenTuplesCompressed() throws Exception {
+        assertRoundTrip(true);
+    }
+
+    @Test
+    public void compressedFileIsSmallerForRepetitiveData() throws Exception {
+        List<Value[]> tuples = createTuples(20000);
+        File plain = writeTuples(tuples, false);
+        File compressed = writeTuples(tuples, true);
+
+        assertThat(compressed.length() < plain.length(), is(true));
+    }
+
+    @Test
+    public void fillsBlocksUpToBlockSize() throws Exception {
+        File file = testDir.newFile();
+        BinaryTupleWriter writer = new BinaryTupleWriter(file, 4, false);
+        try {
+            for (int i = 0; i < 200000; i++) {
+                writer.write(new Value[] {
+                        createHttpUri("subject" + (i % 50)), createHttpUri("predicate"), VF.createLiteral("value " + i), createHttpUri("graph") });
+            }
+        } finally {
+            writer.close();
+        }
+
+        // several MB of data with repeated terms
+        assertThat(file.length() > 4 * BinaryTupleFormat.BLOCK_SIZE, is(true));
+        assertThat(writer.getBlockCount() <= file.length() / BinaryTupleFormat.BLOCK_SIZE + 1, is(true));
+    }
+
+    private void assertRoundTrip(boolean compress) throws Exception {
+        // enough tuples to span several blocks
+        List<Value[]> tuples = createTuples(20000);
+        File file = writeTuples(tuples, compress);
+
+        try (BinaryTupleReader reader = new BinaryTupleReader(file)) {
+            for (Value[] expected : tuples) {
+                assertThat(reader.read(), is(expected));
+            }
+            assertThat(reader.read(), nullValue());
+        }
+    }
+
+    private File writeTuples(List<Value[]> tuples, boolean compress) throws Exception {
+        File file = testDir.newFile();
+        try (BinaryTupleWriter writer = new BinaryTupleWriter(file, 4, compress)) {
+            for (Value[] tuple : tuples) {
+                writer.write(tuple);
+            }
+        }
+        return file;
+    }
+
+    private static List<Value[]> createTuples(int count) {
+        List<Value[]> tuples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Value object;
+            switch (i % 5) {
+            case 0:
+                object = VF.createLiteral("plain ěščř " + i);
+                break;
+            case 1:
+                object = VF.createLiteral("label" + i, "en");
+                break;
+            case 2:
+                object = VF.createLiteral(Integer.toString(i), XMLSchema.INT);
+                break;
+            case 3:
+                object = VF.createBNode("b" + i);
+                break;
+            default:
+                object = createHttpUri("object" + (i % 100));
+            }
+            Value context = i % 7 == 0 ? null : createHttpUri("graph" + (i % 3));
+            tuples.add(new Value[] { createHttpUri("subject" + (i / 10)), createHttpUri("predicate" + (i % 4)), object, context });
+        }
+        return tuples;
+    }
+}
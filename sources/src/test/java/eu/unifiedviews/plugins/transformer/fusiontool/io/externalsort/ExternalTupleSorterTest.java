@@ -0,0 +1,112 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.io.externalsort;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ExternalTupleSorterTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void sortsTuplesInMemory() throws Exception {
+        assertSorts(Long.MAX_VALUE, ExternalTupleSorter.MERGE_FAN_IN);
+    }
+
+    @Test
+    public void sortsTuplesUsingMultipleRuns() throws Exception {
+        assertSorts(10000, ExternalTupleSorter.MERGE_FAN_IN);
+    }
+
+    @Test
+    public void sortsTuplesUsingMultipleMergePasses() throws Exception {
+        assertSorts(1000, 3);
+    }
+
+    @Test
+    public void opensAtMostMergeFanInRuns() throws Exception {
+        try (ExternalTupleSorter sorter = new ExternalTupleSorter(testDir.newFolder(), "test", 2, 1000, false, 4)) {
+            for (int i = 0; i < 1000; i++) {
+                sorter.add(new Value[] { VF.createURI("http://example.com/" + i), VF.createLiteral(i) });
+            }
+
+            List<BinaryTupleReader> readers = sorter.openSortedRuns();
+            new ExternalTupleSorter.MergingTupleIterator(readers).close();
+
+            assertThat(readers.size(), lessThanOrEqualTo(4));
+        }
+    }
+
+    @Test
+    public void deletesTemporaryFilesWhenClosed() throws Exception {
+        File directory = testDir.newFolder();
+        ExternalTupleSorter sorter = new ExternalTupleSorter(directory, "test", 2, 1000, true);
+        for (int i = 0; i < 1000; i++) {
+            sorter.add(new Value[] { VF.createURI("http://example.com/" + i), VF.createLiteral(i) });
+        }
+        new ExternalTupleSorter.MergingTupleIterator(sorter.openSortedRuns()).close();
+
+        sorter.close();
+
+        assertThat(directory.list(), is(new String[0]));
+    }
+
+    @Test
+    public void countsSpilledBytesOfRunsAndIntermediateMerges() throws Exception {
+        File directory = testDir.newFolder();
+        try (ExternalTupleSorter sorter = new ExternalTupleSorter(directory, "test", 2, 1000, false, 4)) {
+            for (int i = 0; i < 1000; i++) {
+                sorter.add(new Value[] { VF.createURI("http://example.com/" + i), VF.createLiteral(i) });
+            }
+            new ExternalTupleSorter.MergingTupleIterator(sorter.openSortedRuns()).close();
+
+            long remainingRunsSize = 0;
+            for (File run : directory.listFiles()) {
+                remainingRunsSize += run.length();
+            }
+            assertThat(sorter.getSpilledBytes(), greaterThanOrEqualTo(2 * remainingRunsSize));
+        }
+    }
+
+    private void assertSorts(long memoryLimit, int mergeFanIn) throws Exception {
+        Random random = new Random(1);
+        List<Value[]> tuples = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Value key = random.nextBoolean()
+                    ? VF.createURI("http://example.com/" + random.nextInt(1000))
+                    : VF.createBNode("b" + random.nextInt(100));
+            tuples.add(new Value[] { key, VF.createLiteral(i) });
+        }
+        List<Value[]> expected = new ArrayList<>(tuples);
+        Collections.sort(expected, ExternalTupleSorter.KEY_COMPARATOR);
+
+        try (ExternalTupleSorter sorter = new ExternalTupleSorter(testDir.newFolder(), "test", 2, memoryLimit, false, mergeFanIn)) {
+            for (Value[] tuple : tuples) {
+                sorter.add(tuple);
+            }
+            try (ExternalTupleSorter.MergingTupleIterator iterator = new ExternalTupleSorter.MergingTupleIterator(sorter.openSortedRuns())) {
+                // the sort is stable, so the result must be exactly the same as of the in-memory sort
+                for (Value[] expectedTuple : expected) {
+                    assertThat(iterator.next(), is(expectedTuple));
+                }
+                assertThat(iterator.next(), nullValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import cz.cuni.mff.odcleanstore.fusiontool.conflictresolution.urimapping.UriMappingIterableImpl;
+import org.junit.Test;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Resource;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+public class CompactUriMappingTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Test
+    public void mapsLinkedUrisToCommonCanonicalUri() throws Exception {
+        CompactUriMapping uriMapping = new CompactUriMapping(Collections.<String>emptySet());
+        uriMapping.addLink(VF.createStatement(createHttpUri("a1"), OWL.SAMEAS, createHttpUri("a2")));
+        uriMapping.addLink(VF.createStatement(createHttpUri("a3"), OWL.SAMEAS, createHttpUri("a2")));
+        uriMapping.addLink(VF.createStatement(createHttpUri("b1"), OWL.SAMEAS, createHttpUri("b2")));
+
+        Resource canonicalA = uriMapping.mapResource(createHttpUri("a1"));
+        assertThat(uriMapping.mapResource(createHttpUri("a2")), is(canonicalA));
+        assertThat(uriMapping.mapResource(createHttpUri("a3")), is(canonicalA));
+        assertThat(uriMapping.mapResource(createHttpUri("b1")), is(uriMapping.mapResource(createHttpUri("b2"))));
+        assertThat(uriMapping.getCanonicalURI(createHttpUri("b1").stringValue()),
+                is(uriMapping.mapResource(createHttpUri("b2")).stringValue()));
+    }
+
+    @Test
+    public void prefersPreferredUris() throws Exception {
+        Set<String> preferredURIs = ImmutableSet.of(createHttpUri("a2").stringValue());
+        CompactUriMapping uriMapping = new CompactUriMapping(preferredURIs);
+        uriMapping.addLink(createHttpUri("a1").stringValue(), createHttpUri("a2").stringValue());
+        uriMapping.addLink(createHttpUri("a2").stringValue(), createHttpUri("a3").stringValue());
+        uriMapping.addLink(createHttpUri("a4").stringValue(), createHttpUri("a3").stringValue());
+
+        assertThat(uriMapping.mapResource(createHttpUri("a1")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMapping.mapResource(createHttpUri("a3")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMapping.mapResource(createHttpUri("a4")), is((Resource) createHttpUri("a2")));
+    }
+
+    @Test
+    public void returnsSameInstanceForUnmappedResources() throws Exception {
+        CompactUriMapping uriMapping = new CompactUriMapping(Collections.<String>emptySet());
+        uriMapping.addLink(createHttpUri("a1").stringValue(), createHttpUri("a2").stringValue());
+        URI unmappedUri = createHttpUri("x");
+        BNode bNode = VF.createBNode();
+
+        assertThat(uriMapping.mapResource(unmappedUri), sameInstance((Resource) unmappedUri));
+        assertThat(uriMapping.mapResource(bNode), sameInstance((Resource) bNode));
+        assertThat(uriMapping.getCanonicalURI("x"), is("x"));
+    }
+
+    @Test
+    public void ignoresLinksWithNonUriObject() throws Exception {
+        CompactUriMapping uriMapping = new CompactUriMapping(Collections.<String>emptySet());
+        uriMapping.addLink(VF.createStatement(createHttpUri("a1"), OWL.SAMEAS, VF.createLiteral("a2")));
+
+        assertThat(uriMapping.size(), is(0));
+    }
+
+    @Test
+    public void iteratesOverNonCanonicalUris() throws Exception {
+        Set<String> preferredURIs = ImmutableSet.of(createHttpUri("a2").stringValue());
+        CompactUriMapping uriMapping = new CompactUriMapping(preferredURIs);
+        uriMapping.addLink(createHttpUri("a1").stringValue(), createHttpUri("a2").stringValue());
+        uriMapping.addLink(createHttpUri("a2").stringValue(), createHttpUri("a3").stringValue());
+        uriMapping.compressPaths();
+
+        assertThat(uriMapping, containsInAnyOrder(createHttpUri("a1").stringValue(), createHttpUri("a3").stringValue()));
+        assertThat(uriMapping.size(), is(3));
+    }
+
+    @Test
+    public void givesSameMappingAsUriMappingIterableImpl() throws Exception {
+        Random random = new Random(42);
+        Set<String> preferredURIs = ImmutableSet.of(uri(7), uri(100), uri(2500));
+        CompactUriMapping compactMapping = new CompactUriMapping(preferredURIs);
+        UriMappingIterableImpl referenceMapping = new UriMappingIterableImpl(preferredURIs);
+        for (int i = 0; i < 20000; i++) {
+            String uri1 = uri(random.nextInt(5000));
+            String uri2 = uri(random.nextInt(5000));
+            compactMapping.addLink(uri1, uri2);
+            referenceMapping.addLink(VF.createStatement(VF.createURI(uri1), OWL.SAMEAS, VF.createURI(uri2)));
+        }
+        compactMapping.compressPaths();
+
+        // both mappings must partition URIs to the same equivalence classes
+        Map<String, String> compactToReference = new HashMap<>();
+        Map<String, String> referenceToCompact = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String compactCanonical = compactMapping.getCanonicalURI(uri(i));
+            String referenceCanonical = referenceMapping.getCanonicalURI(uri(i));
+            if (!compactToReference.containsKey(compactCanonical)) {
+                compactToReference.put(compactCanonical, referenceCanonical);
+            }
+            if (!referenceToCompact.containsKey(referenceCanonical)) {
+                referenceToCompact.put(referenceCanonical, compactCanonical);
+            }
+            assertThat(compactToReference.get(compactCanonical), is(referenceCanonical));
+            assertThat(referenceToCompact.get(referenceCanonical), is(compactCanonical));
+        }
+        assertThat(Iterables.size(compactMapping), is(Iterables.size(referenceMapping)));
+    }
+
+    private static String uri(int i) {
+        return "http://example.com/resource/" + i;
+    }
+}
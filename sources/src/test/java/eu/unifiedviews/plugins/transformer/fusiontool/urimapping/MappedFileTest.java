@@ -0,0 +1,60 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class MappedFileTest {
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void keepsValuesWhenGrowing() throws Exception {
+        try (MappedFile mappedFile = new MappedFile(testDir.newFile())) {
+            mappedFile.ensureCapacity(8);
+            mappedFile.putLong(0, 123456789012L);
+            mappedFile.putBytes(4000, new byte[] { 1, 2, 3 });
+
+            // Act
+            mappedFile.ensureCapacity(10000000);
+            mappedFile.putInt(9999996, 42);
+
+            // Assert
+            assertThat(mappedFile.getLong(0), is(123456789012L));
+            assertThat(mappedFile.getByte(4002), is((byte) 3));
+            assertThat(mappedFile.getInt(9999996), is(42));
+            assertThat(mappedFile.getInt(5000000), is(0));
+        }
+    }
+
+    @Test
+    public void mapsOnlyRequiredPartOfSegment() throws Exception {
+        File file = testDir.newFile();
+        try (MappedFile mappedFile = new MappedFile(file)) {
+            // Act
+            mappedFile.ensureCapacity(100);
+
+            // Assert
+            assertThat(file.length(), lessThan(1L << 20));
+        }
+    }
+
+    @Test
+    public void deletesFileWhenClosed() throws Exception {
+        File file = testDir.newFile();
+        MappedFile mappedFile = new MappedFile(file);
+        mappedFile.ensureCapacity(100);
+
+        // Act
+        mappedFile.close();
+
+        // Assert
+        assertThat(file.exists(), is(false));
+    }
+}
@@ -0,0 +1,92 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.urimapping;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.model.Resource;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+import static eu.unifiedviews.plugins.transformer.fusiontool.testutils.FTDPUTestUtils.createHttpUri;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedUriMappingTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    private File workingDir;
+    private MappedUriMapping uriMapping;
+
+    @Before
+    public void setUp() throws Exception {
+        workingDir = testDir.newFolder("wd");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (uriMapping != null) {
+            uriMapping.close();
+        }
+    }
+
+    @Test
+    public void prefersPreferredUris() throws Exception {
+        Set<String> preferredURIs = ImmutableSet.of(createHttpUri("a2").stringValue());
+        uriMapping = new MappedUriMapping(preferredURIs, workingDir);
+        uriMapping.addLink(VF.createStatement(createHttpUri("a1"), OWL.SAMEAS, createHttpUri("a2")));
+        uriMapping.addLink(VF.createStatement(createHttpUri("a2"), OWL.SAMEAS, createHttpUri("a3")));
+        uriMapping.addLink(VF.createStatement(createHttpUri("b1"), OWL.SAMEAS, createHttpUri("b2")));
+        uriMapping.compressPaths();
+
+        assertThat(uriMapping.mapResource(createHttpUri("a1")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMapping.mapResource(createHttpUri("a3")), is((Resource) createHttpUri("a2")));
+        assertThat(uriMapping.mapResource(createHttpUri("b1")), is(uriMapping.mapResource(createHttpUri("b2"))));
+        assertThat(uriMapping.getCanonicalURI("x"), is("x"));
+        assertThat(Iterables.size(uriMapping), is(3));
+    }
+
+    @Test
+    public void givesSameMappingAsCompactUriMappingWhenFilesGrow() throws Exception {
+        Random random = new Random(42);
+        uriMapping = new MappedUriMapping(Collections.<String>emptySet(), workingDir);
+        CompactUriMapping compactMapping = new CompactUriMapping(Collections.<String>emptySet());
+        for (int i = 0; i < 200000; i++) {
+            // non-ASCII characters test that lengths are measured in bytes
+            String uri1 = "http://example.com/resource/č" + random.nextInt(100000);
+            String uri2 = "http://example.com/resource/č" + random.nextInt(100000);
+            uriMapping.addLink(uri1, uri2);
+            compactMapping.addLink(uri1, uri2);
+        }
+        uriMapping.compressPaths();
+        compactMapping.compressPaths();
+
+        assertThat(uriMapping.size(), is(compactMapping.size()));
+        for (int i = 0; i < 100000; i++) {
+            String uri = "http://example.com/resource/č" + i;
+            assertThat(uriMapping.getCanonicalURI(uri), is(compactMapping.getCanonicalURI(uri)));
+        }
+    }
+
+    @Test
+    public void deletesFilesWhenClosed() throws Exception {
+        uriMapping = new MappedUriMapping(Collections.<String>emptySet(), workingDir);
+        uriMapping.addLink(createHttpUri("a1").stringValue(), createHttpUri("a2").stringValue());
+
+        uriMapping.close();
+        uriMapping = null;
+
+        assertThat(workingDir.list(), is(new String[0]));
+    }
+}
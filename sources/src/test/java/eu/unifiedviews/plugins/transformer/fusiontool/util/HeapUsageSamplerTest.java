@@ -0,0 +1,54 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HeapUsageSamplerTest {
+    @Test
+    public void returnsHighestSampledHeapUsage() throws Exception {
+        TestSampler sampler = new TestSampler();
+
+        // Act
+        sampler.currentHeapUsage = 300;
+        sampler.sample();
+        sampler.currentHeapUsage = 200;
+        sampler.sample();
+
+        // Assert
+        assertThat(sampler.getPeakHeapUsage(), is(300L));
+    }
+
+    @Test
+    public void includesCurrentHeapUsageInPeak() throws Exception {
+        TestSampler sampler = new TestSampler();
+
+        // Act
+        sampler.currentHeapUsage = 500;
+
+        // Assert
+        assertThat(sampler.getPeakHeapUsage(), is(500L));
+    }
+
+    @Test
+    public void samplesRealHeapUsage() throws Exception {
+        try (HeapUsageSampler sampler = new HeapUsageSampler(10)) {
+            assertThat(sampler.getPeakHeapUsage(), greaterThan(0L));
+        }
+    }
+
+    private static class TestSampler extends HeapUsageSampler {
+        private long currentHeapUsage;
+
+        TestSampler() {
+            super(0);
+        }
+
+        @Override
+        protected long getCurrentHeapUsage() {
+            return currentHeapUsage;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+    @Test
+    public void returnsZeroWhenEmpty() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getPercentile(50), is(0L));
+        assertThat(histogram.getMean(), is(0d));
+    }
+
+    @Test
+    public void returnsExactSmallValues() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        // Act & Assert
+        assertThat(histogram.getPercentile(50), is(5L));
+        assertThat(histogram.getPercentile(90), is(9L));
+        assertThat(histogram.getPercentile(100), is(10L));
+        assertThat(histogram.getTotal(), is(55L));
+        assertThat(histogram.getMax(), is(10L));
+    }
+
+    @Test
+    public void estimatesPercentilesWithBoundedRelativeError() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        // Act & Assert
+        assertThat(histogram.getPercentile(50), is(allOf(greaterThanOrEqualTo(500000L), lessThanOrEqualTo(562500L))));
+        assertThat(histogram.getPercentile(99), is(allOf(greaterThanOrEqualTo(990000L), lessThanOrEqualTo(1000000L))));
+        assertThat(histogram.getPercentile(100), is(1000000L));
+        assertThat(histogram.getMean(), is(500500d));
+    }
+
+    @Test
+    public void recordsExtremeValues() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        // Assert
+        assertThat(histogram.getPercentile(50), is(0L));
+        assertThat(histogram.getPercentile(100), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void addsOtherHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(3);
+        other.record(5);
+
+        // Act
+        histogram.add(other);
+
+        // Assert
+        assertThat(histogram.getCount(), is(3L));
+        assertThat(histogram.getTotal(), is(9L));
+        assertThat(histogram.getPercentile(50), is(3L));
+        assertThat(histogram.getMax(), is(5L));
+    }
+}
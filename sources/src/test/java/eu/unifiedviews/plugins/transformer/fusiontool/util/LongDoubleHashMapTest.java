@@ -0,0 +1,45 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LongDoubleHashMapTest {
+    @Test
+    public void returnsStoredValues() throws Exception {
+        LongDoubleHashMap map = new LongDoubleHashMap();
+
+        // Act
+        map.put(1L, 0.1);
+        map.put(0L, 0.5);
+        map.put(-7L, 0.7);
+        map.put(1L, 0.2);
+
+        // Assert
+        assertThat(map.size(), is(3));
+        assertThat(map.get(1L, Double.NaN), is(0.2));
+        assertThat(map.get(0L, Double.NaN), is(0.5));
+        assertThat(map.get(-7L, Double.NaN), is(0.7));
+        assertThat(map.containsKey(2L), is(false));
+        assertThat(map.get(2L, -1d), is(-1d));
+    }
+
+    @Test
+    public void growsWhenManyEntriesAreAdded() throws Exception {
+        LongDoubleHashMap map = new LongDoubleHashMap(1);
+        int count = 100000;
+
+        // Act
+        for (int i = 0; i < count; i++) {
+            map.put(i * 31L, i);
+        }
+
+        // Assert
+        assertThat(map.size(), is(count));
+        for (int i = 0; i < count; i++) {
+            assertThat(map.get(i * 31L, Double.NaN), is((double) i));
+        }
+        assertThat(map.containsKey(count * 31L), is(false));
+    }
+}
@@ -0,0 +1,34 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MemoryLimitCalculatorTest {
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void calculatesAdaptiveLimitFromFreeHeap() throws Exception {
+        long limit = MemoryLimitCalculator.calculateMemoryLimit(null, 0.5f, 8192 * MB, 2048 * MB);
+        assertThat(limit, is(3072 * MB));
+    }
+
+    @Test
+    public void usesConfiguredLimitWhenItFitsInFreeHeap() throws Exception {
+        long limit = MemoryLimitCalculator.calculateMemoryLimit(1024 * MB, 0.5f, 8192 * MB, 2048 * MB);
+        assertThat(limit, is(1024 * MB));
+    }
+
+    @Test
+    public void capsConfiguredLimitExceedingFreeHeap() throws Exception {
+        long limit = MemoryLimitCalculator.calculateMemoryLimit(4096 * MB, 0.5f, 1024 * MB, 512 * MB);
+        assertThat(limit, is(256 * MB));
+    }
+
+    @Test
+    public void neverReturnsLessThanMinimumLimit() throws Exception {
+        long limit = MemoryLimitCalculator.calculateMemoryLimit(null, 0.5f, 1024 * MB, 1024 * MB);
+        assertThat(limit, is(MemoryLimitCalculator.MIN_MEMORY_LIMIT));
+    }
+}
@@ -0,0 +1,83 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+
+public class PerformanceReportTest {
+    private static final ValueFactoryImpl VF = ValueFactoryImpl.getInstance();
+
+    @Test
+    public void computesThroughput() throws Exception {
+        PerformanceStatistics statistics = new PerformanceStatistics();
+        statistics.recordLoadedQuads(3000, 1000000000L);
+        statistics.recordLoadedQuads(1000, 1000000000L);
+        statistics.recordWrittenQuads(500, 250000000L);
+
+        // Act
+        PerformanceReport report = new PerformanceReport(0, 5000, ImmutableMap.<String, Long>of(), statistics, null, 0);
+
+        // Assert
+        assertThat(report.getLoadedQuads(), is(4000L));
+        assertThat(report.getLoadingQuadsPerSecond(), is(2000d));
+        assertThat(report.getWrittenQuads(), is(500L));
+        assertThat(report.getWritingQuadsPerSecond(), is(2000d));
+    }
+
+    @Test
+    public void serializesToJson() throws Exception {
+        PerformanceStatistics statistics = new PerformanceStatistics();
+        statistics.recordLoadedQuads(100, 2000000L);
+        statistics.recordResolvedResourceDescription();
+        PerformanceReport report = new PerformanceReport(123, 5000,
+                ImmutableMap.of("QUAD_LOADING", 10L, "CONFLICT_RESOLUTION", 20L), statistics, null, 1024);
+
+        // Act
+        String json = report.toJson();
+
+        // Assert
+        assertThat(json, containsString("\"timestamp\": 123,"));
+        assertThat(json, containsString("\"totalTimeMs\": 5000,"));
+        assertThat(json, containsString("\"quadLoading\": 10,"));
+        assertThat(json, containsString("\"conflictResolution\": 20\n"));
+        assertThat(json, containsString("\"loadedQuads\": 100,"));
+        assertThat(json, containsString("\"loadingTimeMs\": 2,"));
+        assertThat(json, containsString("\"loadingQuadsPerSecond\": 50000.0,"));
+        assertThat(json, containsString("\"resolvedResourceDescriptions\": 1,"));
+        assertThat(json, containsString("\"spilledBytes\": null,"));
+        assertThat(json, containsString("\"peakHeapBytes\": 1024\n"));
+    }
+
+    @Test
+    public void convertsToStatements() throws Exception {
+        PerformanceStatistics statistics = new PerformanceStatistics();
+        statistics.recordWrittenQuads(7, 1000L);
+        PerformanceReport report = new PerformanceReport(123, 5000,
+                ImmutableMap.of("OUTPUT_WRITING", 30L), statistics, 4096L, 1024);
+        URI reportUri = VF.createURI("http://example.com/report");
+
+        // Act
+        List<Statement> statements = report.toStatements(reportUri);
+
+        // Assert
+        Map<String, String> values = new HashMap<>();
+        for (Statement statement : statements) {
+            assertThat(statement.getSubject(), is((Object) reportUri));
+            values.put(statement.getPredicate().getLocalName(), statement.getObject().stringValue());
+        }
+        assertThat(values.get("writtenQuads"), is("7"));
+        assertThat(values.get("outputWritingTimeMs"), is("30"));
+        assertThat(values.get("spilledBytes"), is("4096"));
+        assertThat(values.get("peakHeapBytes"), is("1024"));
+    }
+}
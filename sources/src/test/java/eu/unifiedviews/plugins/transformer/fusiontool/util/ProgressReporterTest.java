@@ -0,0 +1,136 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import eu.unifiedviews.dpu.DPUContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class ProgressReporterTest {
+    private DPUContext context;
+    private ProgressReporter progressReporter;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(DPUContext.class);
+        progressReporter = new ProgressReporter(context, 0);
+    }
+
+    @Test
+    public void reportsNothingBeforeFirstItemIsCounted() throws Exception {
+        progressReporter.createStage("Loading input quads", "quads");
+
+        // Act
+        progressReporter.report();
+
+        // Assert
+        verifyZeroInteractions(context);
+    }
+
+    @Test
+    public void reportsCountOfCurrentStage() throws Exception {
+        ProgressReporter.Stage stage = progressReporter.createStage("Loading input quads", "quads");
+
+        // Act
+        stage.add(1500);
+        stage.increment();
+        progressReporter.report();
+
+        // Assert
+        String message = getOnlyMessage();
+        assertThat(message, containsString("Loading input quads: 1,501 quads in "));
+        assertThat(message, containsString("quads/s"));
+        assertThat(message, not(containsString("remaining")));
+    }
+
+    @Test
+    public void reportsEstimatedRemainingTimeWhenExpectedItemsAreKnown() throws Exception {
+        ProgressReporter.Stage stage = progressReporter.createStage("Loading input quads", "quads");
+        stage.setExpectedItems(20);
+
+        // Act
+        stage.add(5);
+        progressReporter.report();
+
+        // Assert
+        String message = getOnlyMessage();
+        assertThat(message, containsString("25 % done, about "));
+        assertThat(message, containsString(" remaining"));
+    }
+
+    @Test
+    public void reportsLastStartedStage() throws Exception {
+        ProgressReporter.Stage loadingStage = progressReporter.createStage("Loading input quads", "quads");
+        ProgressReporter.Stage resolutionStage = progressReporter.createStage("Resolving conflicts", "resources");
+
+        // Act
+        loadingStage.add(10);
+        resolutionStage.add(3);
+        loadingStage.add(10);
+        progressReporter.report();
+
+        // Assert
+        assertThat(getOnlyMessage(), containsString("Resolving conflicts: 3 resources"));
+    }
+
+    @Test
+    public void reportsMissingProgressSinceLastReport() throws Exception {
+        ProgressReporter.Stage stage = progressReporter.createStage("Resolving conflicts", "resources");
+        stage.add(3);
+
+        // Act
+        progressReporter.report();
+        progressReporter.report();
+
+        // Assert
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        verify(context, times(2)).sendMessage(eq(DPUContext.MessageType.INFO), messageCaptor.capture());
+        List<String> messages = messageCaptor.getAllValues();
+        assertThat(messages.get(0).contains("no progress"), is(false));
+        assertThat(messages.get(1), containsString("Resolving conflicts: 3 resources, no progress in the last "));
+    }
+
+    @Test
+    public void reportsWhileExpectedItemsAreBeingEstimated() throws Exception {
+        final CountDownLatch estimationLatch = new CountDownLatch(1);
+        try (ProgressReporter reporter = new ProgressReporter(context, 10)) {
+            ProgressReporter.Stage stage = reporter.createStage("Loading input quads", "quads");
+            reporter.estimateExpectedItems(stage, new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    estimationLatch.await();
+                    return 100L;
+                }
+            });
+
+            // Act
+            stage.add(5);
+
+            // Assert
+            verify(context, timeout(5000).atLeastOnce()).sendMessage(eq(DPUContext.MessageType.INFO), anyString());
+        } finally {
+            estimationLatch.countDown();
+        }
+    }
+
+    private String getOnlyMessage() {
+        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        verify(context).sendMessage(eq(DPUContext.MessageType.INFO), messageCaptor.capture());
+        return messageCaptor.getValue();
+    }
+}
@@ -0,0 +1,43 @@
+package eu.unifiedviews.plugins.transformer.fusiontool.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class UriHashSetTest {
+    @Test
+    public void containsAddedValues() throws Exception {
+        UriHashSet.Builder builder = new UriHashSet.Builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.add("http://example.com/resource/" + i);
+        }
+        UriHashSet set = builder.build();
+
+        for (int i = 0; i < 5000; i++) {
+            assertThat(set.contains("http://example.com/resource/" + i), is(true));
+        }
+        for (int i = 5000; i < 10000; i++) {
+            assertThat(set.contains("http://example.com/resource/" + i), is(false));
+        }
+    }
+
+    @Test
+    public void ignoresDuplicates() throws Exception {
+        UriHashSet set = new UriHashSet.Builder()
+                .add("http://example.com/a")
+                .add("http://example.com/b")
+                .add("http://example.com/a")
+                .build();
+
+        assertThat(set.size(), is(2));
+    }
+
+    @Test
+    public void emptySetContainsNothing() throws Exception {
+        UriHashSet set = new UriHashSet.Builder().build();
+
+        assertThat(set.contains(""), is(false));
+        assertThat(set.contains("http://example.com/a"), is(false));
+    }
+}